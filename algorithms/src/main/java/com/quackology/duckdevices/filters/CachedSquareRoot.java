@@ -0,0 +1,88 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatReal;
+
+/**
+ * Square root that remembers the factors of the last few covariances
+ * <p>
+ * Matrices are immutable, so a covariance that is the same matrix as a remembered one is recognized without reading it,
+ * otherwise the values are compared, which is quadratic instead of the cubic cost of factoring
+ */
+class CachedSquareRoot implements SquareRoot {
+
+    /**
+     * Square root that factors covariances not in the cache
+     */
+    private final SquareRoot squareRoot;
+
+    /**
+     * Remembered covariances, most recent first
+     */
+    private final MatReal[] covariances;
+
+    /**
+     * Factors of the remembered covariances
+     */
+    private final MatReal[] factors;
+
+    /**
+     * Constructor of a caching square root
+     *
+     * @param squareRoot square root to cache
+     * @param size number of covariances remembered
+     */
+    CachedSquareRoot(SquareRoot squareRoot, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.squareRoot = squareRoot;
+        this.covariances = new MatReal[size];
+        this.factors = new MatReal[size];
+    }
+
+    @Override
+    public MatReal factor(MatReal p) {
+        int hit = -1;
+        for (int i = 0; i < this.covariances.length && hit < 0; i++) {
+            if (this.covariances[i] == p) {
+                hit = i;
+            }
+        }
+        for (int i = 0; i < this.covariances.length && hit < 0; i++) {
+            if (equal(this.covariances[i], p)) {
+                hit = i;
+            }
+        }
+
+        MatReal factor = hit < 0 ? this.squareRoot.factor(p) : this.factors[hit];
+        int last = hit < 0 ? this.covariances.length - 1 : hit;
+        for (int i = last; i > 0; i--) {
+            this.covariances[i] = this.covariances[i-1];
+            this.factors[i] = this.factors[i-1];
+        }
+        this.covariances[0] = p;
+        this.factors[0] = factor;
+        return factor;
+    }
+
+    /**
+     * Checks if two matrices have the same values
+     *
+     * @param a first matrix, may be null
+     * @param b second matrix
+     * @return true if the matrices have the same dimensions and values
+     */
+    private static boolean equal(MatReal a, MatReal b) {
+        if (a == null || a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+            return false;
+        }
+        for (int j = 0; j < a.getCols(); j++) {
+            for (int i = 0; i < a.getRows(); i++) {
+                if (a.get(i, j) != b.get(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
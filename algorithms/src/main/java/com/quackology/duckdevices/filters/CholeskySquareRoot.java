@@ -0,0 +1,32 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MutableMatReal;
+
+/**
+ * Cholesky square root of a covariance, S = L where P = L * L^T
+ */
+class CholeskySquareRoot implements SquareRoot {
+
+    /**
+     * Value added to the diagonal before the decomposition, zero to fail on covariances that are not positive definite
+     */
+    private final double jitter;
+
+    /**
+     * Constructor of a cholesky square root
+     *
+     * @param jitter value added to the diagonal before the decomposition
+     */
+    CholeskySquareRoot(double jitter) {
+        this.jitter = jitter;
+    }
+
+    @Override
+    public MatReal factor(MatReal p) {
+        if (this.jitter != 0) {
+            return p.add(MatReal.identity(p.getRows()).multiply(this.jitter)).choleskyDecompose();
+        }
+        return MutableMatReal.choleskyInPlace(new MutableMatReal(p)).toMatReal();
+    }
+}
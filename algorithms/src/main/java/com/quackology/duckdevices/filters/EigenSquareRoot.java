@@ -0,0 +1,105 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatReal;
+
+/**
+ * Symmetric eigendecomposition square root of a covariance, S = V * sqrt(D) where P = V * D * V^T
+ * <p>
+ * Eigenvalues are found with cyclic Jacobi rotations, which converge quadratically for the small covariances of a filter
+ */
+class EigenSquareRoot implements SquareRoot {
+
+    /**
+     * Maximum number of sweeps over the off diagonal elements
+     */
+    private static final int MAX_SWEEPS = 64;
+
+    /**
+     * Size of the off diagonal relative to the diagonal at which the matrix is considered diagonal
+     */
+    private static final double EPSILON = 1e-15;
+
+    /**
+     * Largest magnitude of a negative eigenvalue treated as zero
+     */
+    private final double tolerance;
+
+    /**
+     * Constructor of an eigendecomposition square root
+     *
+     * @param tolerance largest magnitude of a negative eigenvalue treated as zero
+     */
+    EigenSquareRoot(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public MatReal factor(MatReal p) {
+        if (p.getRows() != p.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        int n = p.getRows();
+        double[][] a = p.get();
+        double[][] v = MatReal.identity(n).get();
+
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double off = 0;
+            double diagonal = 0;
+            for (int i = 0; i < n; i++) {
+                diagonal += a[i][i] * a[i][i];
+                for (int j = i + 1; j < n; j++) {
+                    off += a[i][j] * a[i][j];
+                }
+            }
+            if (off <= EPSILON * EPSILON * diagonal) {
+                break;
+            }
+
+            for (int k = 0; k < n; k++) {
+                for (int l = k + 1; l < n; l++) {
+                    if (a[k][l] == 0) {
+                        continue;
+                    }
+                    double theta = (a[l][l] - a[k][k]) / (2 * a[k][l]);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) {
+                        t = 1;
+                    }
+                    double c = 1 / Math.sqrt(t * t + 1);
+                    double s = t * c;
+
+                    for (int i = 0; i < n; i++) {
+                        double aik = a[i][k];
+                        double ail = a[i][l];
+                        a[i][k] = c * aik - s * ail;
+                        a[i][l] = s * aik + c * ail;
+                    }
+                    for (int i = 0; i < n; i++) {
+                        double aki = a[k][i];
+                        double ali = a[l][i];
+                        a[k][i] = c * aki - s * ali;
+                        a[l][i] = s * aki + c * ali;
+                    }
+                    for (int i = 0; i < n; i++) {
+                        double vik = v[i][k];
+                        double vil = v[i][l];
+                        v[i][k] = c * vik - s * vil;
+                        v[i][l] = s * vik + c * vil;
+                    }
+                }
+            }
+        }
+
+        for (int j = 0; j < n; j++) {
+            double eigenvalue = a[j][j];
+            if (eigenvalue < -this.tolerance) {
+                throw new ArithmeticException("Matrix is not positive semi-definite");
+            }
+            double root = Math.sqrt(Math.max(eigenvalue, 0));
+            for (int i = 0; i < n; i++) {
+                v[i][j] *= root;
+            }
+        }
+        return new MatReal(v);
+    }
+}
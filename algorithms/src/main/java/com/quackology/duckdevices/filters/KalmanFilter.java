@@ -1,6 +1,7 @@
 package com.quackology.duckdevices.filters;
 
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MatRealSparse;
 
 /**
  * Kalman filter
@@ -23,11 +24,21 @@ public class KalmanFilter {
      */
     private MatReal f;
 
+    /**
+     * Sparse state transition function, used instead of f when set
+     */
+    private MatRealSparse fSparse;
+
     /**
      * Process noise covariance
      */
     private MatReal q;
 
+    /**
+     * Sparse process noise covariance, used instead of q when set
+     */
+    private MatRealSparse qSparse;
+
     /**
      * Control input
      */
@@ -62,8 +73,14 @@ public class KalmanFilter {
      * To deal with time varying systems, the state transition function and process noise covariance should be updated before calling this method
      */
     public void predict() {
-        this.x = this.f.multiply(this.x).add(b.multiply(this.u));
-        this.p = this.f.multiply(this.p).multiply(this.f.transpose()).add(this.q);
+        if (this.fSparse != null) {
+            this.x = this.fSparse.multiply(this.x).add(b.multiply(this.u));
+            this.p = this.fSparse.quadraticForm(this.p);
+        } else {
+            this.x = this.f.multiply(this.x).add(b.multiply(this.u));
+            this.p = this.f.multiply(this.p).multiply(this.f.transpose());
+        }
+        this.p = this.qSparse != null ? this.qSparse.addTo(this.p) : this.p.add(this.q);
     }
 
     /**
@@ -77,13 +94,32 @@ public class KalmanFilter {
         MatReal y = z.subtract(h.multiply(this.x)); //residual
 
         MatReal s = h.multiply(this.p).multiply(h.transpose()).add(r); //residual covariance
-        MatReal k = this.p.multiply(h.transpose()).multiply(s.inverse()); //kalman gain
+        MatReal k = s.rightSolveSPD(this.p.multiply(h.transpose())); //kalman gain
         this.x = this.x.add(k.multiply(y));
         this.p = MatReal.identity(this.p.getRows()).subtract(k.multiply(h)).multiply(this.p);
         //this.p = this.p.subtract(k.multiply(h).multiply(this.p));
         //this.p = (MatReal.identity(this.p.getR()).subtract(k.multiply(h))).multiply(this.p).multiply(MatReal.identity(this.p.getR()).subtract(k.multiply(h)).transpose()).add(k.multiply(r).multiply(k.transpose()));
     }
 
+    /**
+     * Update the state based on the measurement
+     * <p>
+     * Sparse measurement functions only touch the states they observe, so the cost scales with the number of non zero values
+     * 
+     * @param h sparse measurement function
+     * @param z measurement
+     * @param r measurement noise covariance
+     */
+    public void update(MatRealSparse h, MatReal z, MatReal r) {
+        MatReal y = z.subtract(h.multiply(this.x)); //residual
+
+        MatReal hp = h.multiply(this.p);
+        MatReal s = h.multiply(hp.transpose()).add(r); //residual covariance
+        MatReal k = s.rightSolveSPD(hp.transpose()); //kalman gain
+        this.x = this.x.add(k.multiply(y));
+        this.p = this.p.subtract(k.multiply(hp));
+    }
+
     /**
      * Get the current state
      * 
@@ -109,6 +145,16 @@ public class KalmanFilter {
      */
     public void setF(MatReal f) {
         this.f = f;
+        this.fSparse = null;
+    }
+
+    /**
+     * Set the state transition function
+     * 
+     * @param f the new sparse state transition function
+     */
+    public void setF(MatRealSparse f) {
+        this.fSparse = f;
     }
 
     /**
@@ -118,6 +164,16 @@ public class KalmanFilter {
      */
     public void setQ(MatReal q) {
         this.q = q;
+        this.qSparse = null;
+    }
+
+    /**
+     * Set the the process noise covariance
+     * 
+     * @param q the new sparse process noise covariance
+     */
+    public void setQ(MatRealSparse q) {
+        this.qSparse = q;
     }
 
     /**
@@ -0,0 +1,140 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatFloat;
+
+/**
+ * Kalman filter in single precision
+ * <p>
+ * Same as KalmanFilter on MatFloat, for banks of many small filters where throughput matters more than the last digits of precision
+ */
+public class KalmanFilterFloat {
+
+    /**
+     * State
+     */
+    private MatFloat x;
+
+    /**
+     * State covariance
+     */
+    private MatFloat p;
+
+    /**
+     * State transition function
+     */
+    private MatFloat f;
+
+    /**
+     * Process noise covariance
+     */
+    private MatFloat q;
+
+    /**
+     * Control input
+     */
+    private MatFloat u;
+
+    /**
+     * Control transformation
+     */
+    private MatFloat b;
+
+    /**
+     * Constructor for the Kalman filter
+     *
+     * @param x initial state
+     * @param p initial state covariance
+     * @param f state transition function
+     * @param q process noise covariance
+     * @param u control input
+     * @param b control transformation
+     */
+    public KalmanFilterFloat(MatFloat x, MatFloat p, MatFloat f, MatFloat q, MatFloat u, MatFloat b) {
+        this.x = x;
+        this.p = p;
+        this.f = f;
+        this.q = q;
+        this.u = u;
+        this.b = b;
+    }
+
+    /**
+     * Predict the next state
+     * To deal with time varying systems, the state transition function and process noise covariance should be updated before calling this method
+     */
+    public void predict() {
+        this.x = this.f.multiply(this.x).add(b.multiply(this.u));
+        this.p = this.f.multiply(this.p).multiply(this.f.transpose()).add(this.q);
+    }
+
+    /**
+     * Update the state based on the measurement
+     *
+     * @param h measurement function
+     * @param z measurement
+     * @param r measurement noise covariance
+     */
+    public void update(MatFloat h, MatFloat z, MatFloat r) {
+        MatFloat y = z.subtract(h.multiply(this.x)); //residual
+
+        MatFloat hp = h.multiply(this.p);
+        MatFloat s = hp.multiply(h.transpose()).add(r); //residual covariance
+        MatFloat k = s.rightSolveSPD(hp.transpose()); //kalman gain
+        this.x = this.x.add(k.multiply(y));
+        this.p = this.p.subtract(k.multiply(hp));
+    }
+
+    /**
+     * Get the current state
+     *
+     * @return the current state
+     */
+    public MatFloat getState() {
+        return x;
+    }
+
+    /**
+     * Get the current state covariance
+     *
+     * @return the current state covariance
+     */
+    public MatFloat getCovariance() {
+        return p;
+    }
+
+    /**
+     * Set the state transition function
+     *
+     * @param f the new state transition function
+     */
+    public void setF(MatFloat f) {
+        this.f = f;
+    }
+
+    /**
+     * Set the the process noise covariance
+     *
+     * @param q the new process noise covariance
+     */
+    public void setQ(MatFloat q) {
+        this.q = q;
+    }
+
+    /**
+     * Set the control input
+     *
+     * @param u the new control input
+     */
+    public void setU(MatFloat u) {
+        this.u = u;
+    }
+
+    /**
+     * Set the control transformation
+     *
+     * @param b the new control transformation
+     */
+    public void setB(MatFloat b) {
+        this.b = b;
+    }
+}
@@ -0,0 +1,66 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatReal;
+
+/**
+ * LDL^T square root of a covariance, S = L * sqrt(D) where P = L * D * L^T
+ */
+class LDLSquareRoot implements SquareRoot {
+
+    /**
+     * Largest magnitude of a negative pivot treated as zero
+     */
+    private final double tolerance;
+
+    /**
+     * Constructor of an LDL^T square root
+     *
+     * @param tolerance largest magnitude of a negative pivot treated as zero
+     */
+    LDLSquareRoot(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public MatReal factor(MatReal p) {
+        if (p.getRows() != p.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        int n = p.getRows();
+        double[][] a = p.get();
+        double[] d = new double[n];
+
+        for (int j = 0; j < n; j++) {
+            double pivot = a[j][j];
+            for (int k = 0; k < j; k++) {
+                pivot -= a[j][k] * a[j][k] * d[k];
+            }
+            if (pivot < -this.tolerance) {
+                throw new ArithmeticException("Matrix is not positive semi-definite");
+            }
+            d[j] = Math.max(pivot, 0);
+
+            for (int i = j + 1; i < n; i++) {
+                if (d[j] == 0) {
+                    a[i][j] = 0;
+                    continue;
+                }
+                double sum = a[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[i][k] * a[j][k] * d[k];
+                }
+                a[i][j] = sum / d[j];
+            }
+        }
+
+        double[][] s = new double[n][n];
+        for (int j = 0; j < n; j++) {
+            double root = Math.sqrt(d[j]);
+            s[j][j] = root;
+            for (int i = j + 1; i < n; i++) {
+                s[i][j] = a[i][j] * root;
+            }
+        }
+        return new MatReal(s);
+    }
+}
@@ -0,0 +1,104 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatReal;
+
+/**
+ * Rank revealing cholesky square root of a covariance, S = P * L where P^T * C * P = L * L^T
+ * <p>
+ * The largest remaining diagonal is pivoted first, the factorization stops once it falls below the tolerance
+ */
+class PivotedCholeskySquareRoot implements SquareRoot {
+
+    /**
+     * Pivot below which the remaining covariance is treated as zero
+     */
+    private final double tolerance;
+
+    /**
+     * Constructor of a pivoted cholesky square root
+     *
+     * @param tolerance pivot below which the remaining covariance is treated as zero
+     */
+    PivotedCholeskySquareRoot(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public MatReal factor(MatReal p) {
+        if (p.getRows() != p.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        int n = p.getRows();
+        double[][] a = p.get();
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+
+        int rank = 0;
+        for (; rank < n; rank++) {
+            int pivot = rank;
+            for (int i = rank + 1; i < n; i++) {
+                if (a[i][i] > a[pivot][pivot]) {
+                    pivot = i;
+                }
+            }
+            if (a[pivot][pivot] <= this.tolerance) {
+                break;
+            }
+            swap(a, permutation, rank, pivot);
+
+            double diagonal = Math.sqrt(a[rank][rank]);
+            a[rank][rank] = diagonal;
+            for (int i = rank + 1; i < n; i++) {
+                a[i][rank] /= diagonal;
+            }
+            //both triangles of the remaining block are kept since pivoting swaps them into each other
+            for (int j = rank + 1; j < n; j++) {
+                for (int i = rank + 1; i < n; i++) {
+                    a[i][j] -= a[i][rank] * a[j][rank];
+                }
+            }
+        }
+
+        for (int i = rank; i < n; i++) {
+            if (a[i][i] < -this.tolerance) {
+                throw new ArithmeticException("Matrix is not positive semi-definite");
+            }
+        }
+
+        double[][] s = new double[n][n];
+        for (int j = 0; j < rank; j++) {
+            for (int i = j; i < n; i++) {
+                s[permutation[i]][j] = a[i][j];
+            }
+        }
+        return new MatReal(s);
+    }
+
+    /**
+     * Swaps two rows and columns of the lower triangle of a symmetric matrix being factored
+     *
+     * @param a matrix being factored, columns before k are finished factor columns
+     * @param permutation permutation to record the swap in
+     * @param k first row and column
+     * @param pivot second row and column, not less than k
+     */
+    private static void swap(double[][] a, int[] permutation, int k, int pivot) {
+        if (k == pivot) {
+            return;
+        }
+        int index = permutation[k];
+        permutation[k] = permutation[pivot];
+        permutation[pivot] = index;
+
+        double[] row = a[k];
+        a[k] = a[pivot];
+        a[pivot] = row;
+        for (int i = 0; i < a.length; i++) {
+            double value = a[i][k];
+            a[i][k] = a[i][pivot];
+            a[i][pivot] = value;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.ojalgo.matrix.decomposition.QR;
 
 import com.quackology.duckdevices.functions.TriFunction;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MatRealSparse;
+import com.quackology.duckdevices.spaces.MutableMatReal;
 
 /**
  * Square root Unscented Kalman Filter
@@ -126,17 +128,15 @@ public class SRUKF {
             Y[i] = f.apply(X[i], this.u, dt);
         }
 
-        this.x = Y[0].multiply(weightM[0]);
-        for (int i = 1; i < Y.length; i++) {
-            this.x = this.x.add(Y[i].multiply(weightM[i]));
-        }
+        this.x = MatReal.weightedMean(Y, weightM);
 
         //build compound MatRealrix for covariance update
-        MatReal c = Y[1].subtract(this.x).multiply(Math.sqrt(weightC[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(this.x).multiply(Math.sqrt(weightC[i])));
+        MatReal[] blocks = new MatReal[Y.length];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(this.x).scale(Math.sqrt(weightC[i])).eval();
         }
-        c = MatReal.horizontal(c, this.q).transpose();
+        blocks[Y.length-1] = this.q;
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -173,17 +173,14 @@ public class SRUKF {
             Y[i] = f.apply(X[i], this.u, dt);
         }
 
-        this.x = Y[0].multiply(weightM[0]);
-        for (int i = 1; i < Y.length; i++) {
-            this.x = this.x.add(Y[i].multiply(weightM[i]));
-        }
+        this.x = MatReal.weightedMean(Y, weightM);
 
         //build compound MatRealrix for covariance update
-        MatReal c = Y[1].subtract(this.x).multiply(Math.sqrt(weightC[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(this.x).multiply(Math.sqrt(weightC[i])));
+        MatReal[] blocks = new MatReal[Y.length-1];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(this.x).scale(Math.sqrt(weightC[i])).eval();
         }
-        c = c.transpose(); //no need to include q as it is already incorported by the state augmentation
+        MatReal c = MatReal.horizontal(blocks).transpose(); //no need to include q as it is already incorported by the state augmentation
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -214,17 +211,15 @@ public class SRUKF {
             Y[i] = h.apply(X[i]);
         }
 
-        MatReal y = Y[0].multiply(weightM[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weightM[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weightM);
         
         //build compound MatRealrix for innovation covariance
-        MatReal c = Y[1].subtract(y).multiply(Math.sqrt(weightC[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(y).multiply(Math.sqrt(weightC[i])));
+        MatReal[] blocks = new MatReal[Y.length];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(y).scale(Math.sqrt(weightC[i])).eval();
         }
-        c = MatReal.horizontal(c, r).transpose();
+        blocks[Y.length-1] = r;
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -233,17 +228,17 @@ public class SRUKF {
         s = MatReal.cholUpdate(s, Y[0].subtract(y), weightC[0]);
 
         //cross covariance
-        MatReal t = X[0].subtract(this.x).multiply(Y[0].subtract(y).transpose()).multiply(weightC[0]);
-        for (int i = 1; i < X.length; i++) {
-            t = t.add(X[i].subtract(this.x).multiply(Y[i].subtract(y).transpose()).multiply(weightC[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(X, this.x, Y, y, weightC);
 
         //kalman gain for square root unscented kalman filter through efficent least squares
-        MatReal k = MatReal.backwardSub(s.transpose(), MatReal.forwardSub(s, t.transpose())).transpose();
+        MutableMatReal factor = new MutableMatReal(s);
+        MutableMatReal gain = new MutableMatReal(t.transpose());
+        MutableMatReal.backwardSubTransposedInPlace(factor, MutableMatReal.forwardSubInPlace(factor, gain));
+        MatReal k = gain.toMatReal().transpose();
 
         MatReal u = k.multiply(s);
 
-        this.x = this.x.add(k.multiply(z.subtract(y)));
+        this.x = this.x.lazy().plus(k.lazy().times(z.lazy().minus(y))).eval();
         this.p = MatReal.cholUpdate(this.p, u, -1);
     }
 
@@ -325,6 +320,15 @@ public class SRUKF {
         this.q = q;
     }
 
+    /**
+     * Sets the process noise covariance from a sparse matrix
+     * 
+     * @param q the new sparse process noise covariance
+     */
+    public void setQ(MatRealSparse q) {
+        this.setQ(q.toMatReal());
+    }
+
     /**
      * Sets the control input
      * 
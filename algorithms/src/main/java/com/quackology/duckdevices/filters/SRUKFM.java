@@ -1,5 +1,6 @@
 package com.quackology.duckdevices.filters;
 
+import java.util.Arrays;
 import java.util.function.Function;
 
 import org.ojalgo.matrix.decomposition.QR;
@@ -7,6 +8,8 @@ import org.ojalgo.matrix.decomposition.QR;
 import com.quackology.duckdevices.functions.QuadFunction;
 import com.quackology.duckdevices.functions.TriFunction;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MatRealSparse;
+import com.quackology.duckdevices.spaces.MutableMatReal;
 import com.quackology.duckdevices.spaces.manifolds.CompoundManifold;
 
 /**
@@ -237,11 +240,11 @@ public class SRUKFM {
         }
 
         //build compound MatRealrix for covariance update
-        MatReal c = X[0].phi_inverse_vector(x).multiply(Math.sqrt(weight[1]));
-        for (int i = 1; i < X.length; i++) {
-            c = MatReal.horizontal(c, X[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1])));
+        MatReal[] blocks = new MatReal[X.length];
+        for (int i = 0; i < X.length; i++) {
+            blocks[i] = X[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1]));
         }
-        c = c.transpose();
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal p = c.QRDecompose(qrSolver)[1].transpose();
@@ -257,11 +260,11 @@ public class SRUKFM {
         }
 
         //build compound MatRealrix for covariance update
-        c = Y[0].phi_inverse_vector(x).multiply(Math.sqrt(weight[1]));
-        for (int i = 1; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1])));
+        blocks = new MatReal[Y.length];
+        for (int i = 0; i < Y.length; i++) {
+            blocks[i] = Y[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1]));
         }
-        c = c.transpose();
+        c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal p_ = c.QRDecompose(qrSolver)[1].transpose();
@@ -291,18 +294,16 @@ public class SRUKFM {
             Y[i] = h.apply(x_);
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
         //covariances
         //innovation covariance
-        MatReal c = Y[1].subtract(y).multiply(Math.sqrt(weight[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(y).multiply(Math.sqrt(weight[i])));
+        MatReal[] blocks = new MatReal[Y.length];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(y).scale(Math.sqrt(weight[i])).eval();
         }
-        c = MatReal.horizontal(c, r).transpose();
+        blocks[Y.length-1] = r;
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -311,13 +312,13 @@ public class SRUKFM {
         s = MatReal.cholUpdate(s, Y[0].subtract(y), weight[0]);
 
         //cross covariance
-        MatReal t = W.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(W.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(W.toColumns(), MatReal.empty(W.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain for square root unscented kalman filter through efficient least squares
-        MatReal k = MatReal.backwardSub(s.transpose(), MatReal.forwardSub(s, t.transpose())).transpose();
+        MutableMatReal factor = new MutableMatReal(s);
+        MutableMatReal gain = new MutableMatReal(t.transpose());
+        MutableMatReal.backwardSubTransposedInPlace(factor, MutableMatReal.forwardSubInPlace(factor, gain));
+        MatReal k = gain.toMatReal().transpose();
 
         MatReal u = k.multiply(s);
 
@@ -350,18 +351,15 @@ public class SRUKFM {
             Y[i] = h.apply(this.x, Wp.getCol(i-1), Wv.getCol(i-1));
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
         //covariances
         //innovation covariance
-        MatReal c = Y[1].subtract(y).multiply(Math.sqrt(weight[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(y).multiply(Math.sqrt(weight[i])));
+        MatReal[] blocks = new MatReal[Y.length-1];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(y).scale(Math.sqrt(weight[i])).eval();
         }
-        c = c.transpose();
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -370,13 +368,13 @@ public class SRUKFM {
         s = MatReal.cholUpdate(s, Y[0].subtract(y), weight[0]);
 
         //cross covariance
-        MatReal t = Wp.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(Wp.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(Wp.toColumns(), MatReal.empty(Wp.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain for square root unscented kalman filter through efficient least squares
-        MatReal k = MatReal.backwardSub(s.transpose(), MatReal.forwardSub(s, t.transpose())).transpose();
+        MutableMatReal factor = new MutableMatReal(s);
+        MutableMatReal gain = new MutableMatReal(t.transpose());
+        MutableMatReal.backwardSubTransposedInPlace(factor, MutableMatReal.forwardSubInPlace(factor, gain));
+        MatReal k = gain.toMatReal().transpose();
 
         MatReal u = k.multiply(s);
 
@@ -441,11 +439,11 @@ public class SRUKFM {
         }
 
         //build compound MatRealrix for covariance update
-        MatReal c = X[0].phi_inverse_vector(x).multiply(Math.sqrt(weight[1]));
-        for (int i = 1; i < X.length; i++) {
-            c = MatReal.horizontal(c, X[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1])));
+        MatReal[] blocks = new MatReal[X.length];
+        for (int i = 0; i < X.length; i++) {
+            blocks[i] = X[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1]));
         }
-        c = c.transpose();
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal p = c.QRDecompose(qrSolver)[1].transpose();
@@ -461,11 +459,11 @@ public class SRUKFM {
         }
 
         //build compound MatRealrix for covariance update
-        c = Y[0].phi_inverse_vector(x).multiply(Math.sqrt(weight[1]));
-        for (int i = 1; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1])));
+        blocks = new MatReal[Y.length];
+        for (int i = 0; i < Y.length; i++) {
+            blocks[i] = Y[i].phi_inverse_vector(x).multiply(Math.sqrt(weight[i+1]));
         }
-        c = c.transpose();
+        c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal p_ = c.QRDecompose(qrSolver)[1].transpose();
@@ -495,18 +493,16 @@ public class SRUKFM {
             Y[i] = h.apply(x_);
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
         //covariances
         //innovation covariance
-        MatReal c = Y[1].subtract(y).multiply(Math.sqrt(weight[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(y).multiply(Math.sqrt(weight[i])));
+        MatReal[] blocks = new MatReal[Y.length];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(y).scale(Math.sqrt(weight[i])).eval();
         }
-        c = MatReal.horizontal(c, r).transpose();
+        blocks[Y.length-1] = r;
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -515,13 +511,13 @@ public class SRUKFM {
         s = MatReal.cholUpdate(s, Y[0].subtract(y), weight[0]);
 
         //cross covariance
-        MatReal t = W.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(W.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(W.toColumns(), MatReal.empty(W.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain for square root unscented kalman filter through efficient least squares
-        MatReal k = MatReal.backwardSub(s.transpose(), MatReal.forwardSub(s, t.transpose())).transpose();
+        MutableMatReal factor = new MutableMatReal(s);
+        MutableMatReal gain = new MutableMatReal(t.transpose());
+        MutableMatReal.backwardSubTransposedInPlace(factor, MutableMatReal.forwardSubInPlace(factor, gain));
+        MatReal k = gain.toMatReal().transpose();
 
         MatReal u = k.multiply(s);
 
@@ -554,18 +550,15 @@ public class SRUKFM {
             Y[i] = h.apply(this.x, Wp.getCol(i-1), Wv.getCol(i-1));
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
         //covariances
         //innovation covariance
-        MatReal c = Y[1].subtract(y).multiply(Math.sqrt(weight[1]));
-        for (int i = 2; i < Y.length; i++) {
-            c = MatReal.horizontal(c, Y[i].subtract(y).multiply(Math.sqrt(weight[i])));
+        MatReal[] blocks = new MatReal[Y.length-1];
+        for (int i = 1; i < Y.length; i++) {
+            blocks[i-1] = Y[i].lazy().minus(y).scale(Math.sqrt(weight[i])).eval();
         }
-        c = c.transpose();
+        MatReal c = MatReal.horizontal(blocks).transpose();
 
         //qr
         MatReal s = c.QRDecompose(qrSolver)[1].transpose();
@@ -574,13 +567,13 @@ public class SRUKFM {
         s = MatReal.cholUpdate(s, Y[0].subtract(y), weight[0]);
 
         //cross covariance
-        MatReal t = Wp.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(Wp.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(Wp.toColumns(), MatReal.empty(Wp.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain for square root unscented kalman filter through efficient least squares
-        MatReal k = MatReal.backwardSub(s.transpose(), MatReal.forwardSub(s, t.transpose())).transpose();
+        MutableMatReal factor = new MutableMatReal(s);
+        MutableMatReal gain = new MutableMatReal(t.transpose());
+        MutableMatReal.backwardSubTransposedInPlace(factor, MutableMatReal.forwardSubInPlace(factor, gain));
+        MatReal k = gain.toMatReal().transpose();
 
         MatReal u = k.multiply(s);
 
@@ -654,6 +647,15 @@ public class SRUKFM {
         this.q = q;
     }
 
+    /**
+     * Sets the process noise covariance from a sparse matrix
+     * 
+     * @param q new sparse process noise covariance
+     */
+    public void setQ(MatRealSparse q) {
+        this.setQ(q.toMatReal());
+    }
+
     /**
      * Sets the control input
      * 
@@ -0,0 +1,90 @@
+package com.quackology.duckdevices.filters;
+
+import com.quackology.duckdevices.spaces.MatReal;
+
+/**
+ * Strategy for the matrix square root of a covariance used to spread sigma points
+ * <p>
+ * A square root of P is any matrix S where P = S * S^T, the columns of S are the offsets of the sigma points from the mean
+ */
+public interface SquareRoot {
+
+    /**
+     * Calculates a square root of a covariance
+     *
+     * @param p symmetric covariance
+     * @return a matrix S where p = S * S^T
+     * @throws ArithmeticException if the covariance is not positive (semi-)definite
+     */
+    MatReal factor(MatReal p);
+
+    /**
+     * Cholesky decomposition, fails if the covariance is not positive definite
+     *
+     * @return a cholesky square root
+     */
+    static SquareRoot cholesky() {
+        return new CholeskySquareRoot(0);
+    }
+
+    /**
+     * Cholesky decomposition of the covariance with a jitter added to its diagonal
+     * <p>
+     * The decomposition does not check the result, a covariance that is not positive definite after the jitter gives a wrong factor
+     *
+     * @param jitter value added to the diagonal before the decomposition
+     * @return a jittered cholesky square root
+     */
+    static SquareRoot cholesky(double jitter) {
+        return new CholeskySquareRoot(jitter);
+    }
+
+    /**
+     * LDL^T decomposition, S = L * sqrt(D)
+     * <p>
+     * Needs no square roots while factoring and accepts zero pivots, so positive semi-definite covariances are supported
+     *
+     * @param tolerance largest magnitude of a negative pivot treated as zero
+     * @return an LDL^T square root
+     */
+    static SquareRoot ldl(double tolerance) {
+        return new LDLSquareRoot(tolerance);
+    }
+
+    /**
+     * Symmetric eigendecomposition, S = V * sqrt(D)
+     * <p>
+     * The most robust and most expensive strategy, the sigma points lie along the principal axes of the covariance
+     *
+     * @param tolerance largest magnitude of a negative eigenvalue treated as zero
+     * @return an eigendecomposition square root
+     */
+    static SquareRoot eigen(double tolerance) {
+        return new EigenSquareRoot(tolerance);
+    }
+
+    /**
+     * Rank revealing cholesky decomposition with diagonal pivoting, S = P * L
+     * <p>
+     * Stops at the numerical rank of the covariance, the columns past the rank are zero
+     *
+     * @param tolerance pivot below which the remaining covariance is treated as zero
+     * @return a pivoted cholesky square root
+     */
+    static SquareRoot pivotedCholesky(double tolerance) {
+        return new PivotedCholeskySquareRoot(tolerance);
+    }
+
+    /**
+     * Reuses the factors of recently seen covariances instead of factoring them again
+     * <p>
+     * A covariance is recognized if it is the same matrix or has the same values as one of the last size covariances
+     *
+     * @param squareRoot square root to cache
+     * @param size number of covariances remembered
+     * @return a caching square root
+     */
+    static SquareRoot cached(SquareRoot squareRoot, int size) {
+        return new CachedSquareRoot(squareRoot, size);
+    }
+}
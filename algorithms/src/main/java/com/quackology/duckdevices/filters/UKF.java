@@ -2,11 +2,10 @@ package com.quackology.duckdevices.filters;
 
 import java.util.function.Function;
 
-import org.ojalgo.matrix.decomposition.Cholesky;
-
 import com.quackology.duckdevices.distributions.MultivariateGaussian;
 import com.quackology.duckdevices.functions.TriFunction;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MatRealSparse;
 
 /**
  * Unscented Kalman Filter
@@ -78,14 +77,24 @@ public class UKF {
     private Sampling sampling = Sampling.MERWE;
 
     /**
-     * Cholesky Solver
+     * Tolerance for positive semi-definite matrix
      */
-    private Cholesky<Double> choleskySolver;
+    private static final double TOLERANCE = 1e-6;
 
     /**
-     * Tolerance for positive semi-definite matrix
+     * Tolerance for positive semi-definite matrix with Julier sampling
      */
-    private static final double TOLERANCE = 1e-6;
+    private static final double JULIER_TOLERANCE = 1e-9;
+
+    /**
+     * Number of covariances whose square roots are remembered, enough for the state and process noise covariances
+     */
+    private static final int CACHE_SIZE = 2;
+
+    /**
+     * Square root of the covariances the sigma points are spread by
+     */
+    private SquareRoot squareRoot = SquareRoot.cached(SquareRoot.cholesky(TOLERANCE), CACHE_SIZE);
 
     /**
      * Constructor for the Unscented Kalman Filter
@@ -109,8 +118,6 @@ public class UKF {
         this.b = 2;
         this.k = 0;
         this.l = 3-this.x.getRows();
-
-        choleskySolver = Cholesky.R064.make(this.p.getRows(), this.p.getCols());
     }
 
     /**
@@ -127,6 +134,9 @@ public class UKF {
     public UKF(Sampling sampling, MatReal x, MatReal p, MatReal q, MatReal u) {
         this(x, p, q, u);
         this.sampling = sampling;
+        if (sampling == Sampling.JULIER) {
+            this.squareRoot = SquareRoot.cached(SquareRoot.cholesky(JULIER_TOLERANCE), CACHE_SIZE);
+        }
     }
 
     /**
@@ -288,14 +298,12 @@ public class UKF {
 
         MultivariateGaussian gaussian = unscentedTransform(Z, weightM, weightC);
 
-        MatReal t = X[0].subtract(this.x).multiply(Z[0].subtract(gaussian.getMean()).transpose()).multiply(weightC[0]);
-        for (int i = 1; i < X.length; i++) {
-            t = t.add(X[i].subtract(this.x).multiply(Z[i].subtract(gaussian.getMean()).transpose()).multiply(weightC[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(X, this.x, Z, gaussian.getMean(), weightC);
 
-        MatReal k = t.multiply(gaussian.getCovariance().add(r).inverse());
-        this.x = this.x.add(k.multiply(z.subtract(gaussian.getMean())));
-        this.p = this.p.subtract(k.multiply(gaussian.getCovariance().add(r)).multiply(k.transpose()));
+        MatReal s = gaussian.getCovariance().add(r);
+        MatReal k = s.rightSolveSPD(t);
+        this.x = this.x.lazy().plus(k.lazy().times(z.lazy().minus(gaussian.getMean()))).eval();
+        this.p = this.p.lazy().minus(k.lazy().times(s).times(k.transpose())).eval();
     }
 
     /**
@@ -307,14 +315,8 @@ public class UKF {
      * @return
      */
     private MultivariateGaussian unscentedTransform(MatReal[] sigmaPoints, double[] weightM, double[] weightC) {
-        MatReal meanOut = sigmaPoints[0].multiply(weightM[0]);
-        for (int i = 1; i < sigmaPoints.length; i++) {
-            meanOut = meanOut.add(sigmaPoints[i].multiply(weightM[i]));
-        }
-        MatReal covarianceOut = sigmaPoints[0].subtract(meanOut).multiply(sigmaPoints[0].subtract(meanOut).transpose()).multiply(weightC[0]);
-        for (int i = 1; i < sigmaPoints.length; i++) {
-            covarianceOut = covarianceOut.add(sigmaPoints[i].subtract(meanOut).multiply(sigmaPoints[i].subtract(meanOut).transpose()).multiply(weightC[i]));
-        }
+        MatReal meanOut = MatReal.weightedMean(sigmaPoints, weightM);
+        MatReal covarianceOut = MatReal.weightedCovariance(sigmaPoints, meanOut, weightC);
 
         return new MultivariateGaussian(meanOut, covarianceOut);
     }
@@ -329,18 +331,17 @@ public class UKF {
      * @param p state covariance
      */
     private void generateSigmaPoints(MatReal[] sigmaPoints, double[] weightM, double[] weightC, MatReal x, MatReal p) {
-        MatReal tolerance = MatReal.identity(p.getRows()).multiply(TOLERANCE);
-        p = p.add(tolerance);
-        
         int n = sigmaPoints.length/2;
         double l = this.a*this.a*(n+k)-n;
 
+        MatReal sqrt = this.squareRoot.factor(p).multiply(Math.sqrt(n+l));
+
         sigmaPoints[0] = x;
         for (int i = 1; i <= n; i++) {
-            sigmaPoints[i] = x.add(p.multiply(n+l).choleskyDecompose(choleskySolver).getCol(i-1));
+            sigmaPoints[i] = x.add(sqrt.getCol(i-1));
         }
         for (int i = n+1; i <= 2*n; i++) {
-            sigmaPoints[i] = x.subtract(p.multiply(n+l).choleskyDecompose(choleskySolver).getCol(i-n-1));
+            sigmaPoints[i] = x.subtract(sqrt.getCol(i-n-1));
         }
 
         weightM[0] = l / (l+n);
@@ -431,14 +432,12 @@ public class UKF {
 
         MultivariateGaussian gaussian = unscentedTransform(Z, weight);
 
-        MatReal t = X[0].subtract(this.x).multiply(Z[0].subtract(gaussian.getMean()).transpose()).multiply(weight[0]);
-        for (int i = 1; i < X.length; i++) {
-            t = t.add(X[i].subtract(this.x).multiply(Z[i].subtract(gaussian.getMean()).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(X, this.x, Z, gaussian.getMean(), weight);
 
-        MatReal k = t.multiply(gaussian.getCovariance().add(r).inverse());
-        this.x = this.x.add(k.multiply(z.subtract(gaussian.getMean())));
-        this.p = this.p.subtract(k.multiply(gaussian.getCovariance().add(r)).multiply(k.transpose()));
+        MatReal s = gaussian.getCovariance().add(r);
+        MatReal k = s.rightSolveSPD(t);
+        this.x = this.x.lazy().plus(k.lazy().times(z.lazy().minus(gaussian.getMean()))).eval();
+        this.p = this.p.lazy().minus(k.lazy().times(s).times(k.transpose())).eval();
     }
 
     /**
@@ -449,14 +448,8 @@ public class UKF {
      * @return
      */
     private MultivariateGaussian unscentedTransform(MatReal[] sigmaPoints, double[] weight) {
-        MatReal meanOut = sigmaPoints[0].multiply(weight[0]);
-        for (int i = 1; i < sigmaPoints.length; i++) {
-            meanOut = meanOut.add(sigmaPoints[i].multiply(weight[i]));
-        }
-        MatReal covarianceOut = sigmaPoints[0].subtract(meanOut).multiply(sigmaPoints[0].subtract(meanOut).transpose()).multiply(weight[0]);
-        for (int i = 1; i < sigmaPoints.length; i++) {
-            covarianceOut = covarianceOut.add(sigmaPoints[i].subtract(meanOut).multiply(sigmaPoints[i].subtract(meanOut).transpose()).multiply(weight[i]));
-        }
+        MatReal meanOut = MatReal.weightedMean(sigmaPoints, weight);
+        MatReal covarianceOut = MatReal.weightedCovariance(sigmaPoints, meanOut, weight);
 
         return new MultivariateGaussian(meanOut, covarianceOut);
     }
@@ -470,17 +463,16 @@ public class UKF {
      * @param p state covariance
      */
     private void generateSigmaPoints(MatReal[] sigmaPoints, double[] weight, MatReal x, MatReal p) {
-        MatReal tolerance = MatReal.identity(p.getRows()).multiply(1e-9);
-        p = p.add(tolerance);
-
         int n = sigmaPoints.length/2;
 
+        MatReal sqrt = this.squareRoot.factor(p).multiply(Math.sqrt(n+this.l));
+
         sigmaPoints[0] = x;
         for (int i = 1; i <= n; i++) {
-            sigmaPoints[i] = x.add(p.multiply(n+this.l).choleskyDecompose(choleskySolver).getCol(i-1));
+            sigmaPoints[i] = x.add(sqrt.getCol(i-1));
         }
         for (int i = n+1; i <= 2*n; i++) {
-            sigmaPoints[i] = x.subtract(p.multiply(n+this.l).choleskyDecompose(choleskySolver).getCol(i-n-1));
+            sigmaPoints[i] = x.subtract(sqrt.getCol(i-n-1));
         }
 
         weight[0] = this.l / (this.l+n);
@@ -498,6 +490,17 @@ public class UKF {
         this.l = l;
     }
 
+    /**
+     * Sets the square root used to spread the sigma points
+     * <p>
+     * Default is a cholesky decomposition with a jitter added to the diagonal, the square roots of the last few covariances are reused
+     * 
+     * @param squareRoot the new square root
+     */
+    public void setSquareRoot(SquareRoot squareRoot) {
+        this.squareRoot = SquareRoot.cached(squareRoot, CACHE_SIZE);
+    }
+
     /**
      * Gets the current state
      * 
@@ -534,6 +537,15 @@ public class UKF {
         this.q = q;
     }
 
+    /**
+     * Sets the process noise covariance from a sparse matrix
+     * 
+     * @param q the new sparse process noise covariance
+     */
+    public void setQ(MatRealSparse q) {
+        this.setQ(q.toMatReal());
+    }
+
     /**
      * Sets the control input
      * 
@@ -1,12 +1,12 @@
 package com.quackology.duckdevices.filters;
 
+import java.util.Arrays;
 import java.util.function.Function;
 
-import org.ojalgo.matrix.decomposition.Cholesky;
-
 import com.quackology.duckdevices.functions.QuadFunction;
 import com.quackology.duckdevices.functions.TriFunction;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MatRealSparse;
 import com.quackology.duckdevices.spaces.manifolds.CompoundManifold;
 
 /**
@@ -83,14 +83,19 @@ public class UKFM {
     private Sampling sampling = Sampling.MERWE;
 
     /**
-     * Cholesky Solver
+     * Tolerance for positive semi-definite matrix
      */
-    private Cholesky<Double> choleskySolver;
+    private static final double TOLERANCE = 1e-6;
 
     /**
-     * Tolerance for positive semi-definite matrix
+     * Number of covariances whose square roots are remembered, enough for the state and process noise covariances
      */
-    private static final double TOLERANCE = 1e-6;
+    private static final int CACHE_SIZE = 2;
+
+    /**
+     * Square root of the covariances the sigma points are spread by
+     */
+    private SquareRoot squareRoot = SquareRoot.cached(SquareRoot.cholesky(TOLERANCE), CACHE_SIZE);
 
     /**
      * Constructor for the Unscented Kalman Filter on Manifolds
@@ -114,8 +119,6 @@ public class UKFM {
         this.b = 2;
         this.k = 0;
         this.l = 3-x.getDimensions();
-        
-        choleskySolver = Cholesky.R064.make(this.p.getRows(), this.p.getCols());
     }
 
     /**
@@ -242,10 +245,11 @@ public class UKFM {
         }
 
         //covariance
-        MatReal p = X[0].phi_inverse_vector(x).multiply(X[0].phi_inverse_vector(x).transpose()).multiply(weight[1]);
-        for (int i = 1; i < X.length; i++) {
-            p = p.add(X[i].phi_inverse_vector(x).multiply(X[i].phi_inverse_vector(x).transpose()).multiply(weight[i+1]));
+        MatReal[] X_ = new MatReal[X.length];
+        for (int i = 0; i < X.length; i++) {
+            X_[i] = X[i].phi_inverse_vector(x);
         }
+        MatReal p = MatReal.weightedCovariance(X_, MatReal.empty(this.p.getRows(), 1), Arrays.copyOfRange(weight, 1, weight.length));
 
         //generate white noise
         W = generateNoise_merwe(weight, this.q);
@@ -257,10 +261,11 @@ public class UKFM {
         }
 
         //covariance
-        MatReal p_ = Y[0].phi_inverse_vector(x).multiply(Y[0].phi_inverse_vector(x).transpose()).multiply(weight[1]);
-        for (int i = 1; i < Y.length; i++) {
-            p_ = p_.add(Y[i].phi_inverse_vector(x).multiply(Y[i].phi_inverse_vector(x).transpose()).multiply(weight[i+1]));
+        MatReal[] Y_ = new MatReal[Y.length];
+        for (int i = 0; i < Y.length; i++) {
+            Y_[i] = Y[i].phi_inverse_vector(x);
         }
+        MatReal p_ = MatReal.weightedCovariance(Y_, MatReal.empty(this.p.getRows(), 1), Arrays.copyOfRange(weight, 1, weight.length));
 
         this.p = p.add(p_);
         this.x = x;
@@ -286,30 +291,21 @@ public class UKFM {
             Y[i] = h.apply(x_);
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
 
         //covariances
         //innovation covariance
-        MatReal s = Y[0].subtract(y).multiply(Y[0].subtract(y).transpose()).multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            s = s.add(Y[i].subtract(y).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal s = MatReal.weightedCovariance(Y, y, weight);
         s = s.add(r);
 
         //cross covariance
-        MatReal t = W.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(W.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(W.toColumns(), MatReal.empty(W.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain
-        MatReal k = t.multiply(s.inverse());
+        MatReal k = s.rightSolveSPD(t);
         this.x = this.x.phi(k.multiply(z.subtract(y)));  
-        this.p = this.p.subtract(k.multiply(s).multiply(k.transpose()));
+        this.p = this.p.lazy().minus(k.lazy().times(s).times(k.transpose())).eval();
     }
 
     /**
@@ -337,28 +333,19 @@ public class UKFM {
             Y[i] = h.apply(this.x, Wp.getCol(i-1), Wv.getCol(i-1));
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
         //covariances
         //innovation covariance
-        MatReal s = Y[0].subtract(y).multiply(Y[0].subtract(y).transpose()).multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            s = s.add(Y[i].subtract(y).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal s = MatReal.weightedCovariance(Y, y, weight);
 
         //cross covariance
-        MatReal t = Wp.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(Wp.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(Wp.toColumns(), MatReal.empty(Wp.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain
-        MatReal k = t.multiply(s.inverse());
+        MatReal k = s.rightSolveSPD(t);
         this.x = this.x.phi(k.multiply(z.subtract(y)));  
-        this.p = this.p.subtract(k.multiply(s).multiply(k.transpose()));
+        this.p = this.p.lazy().minus(k.lazy().times(s).times(k.transpose())).eval();
     }
 
     /**
@@ -369,14 +356,11 @@ public class UKFM {
      * @return noise vectors
      */
     private MatReal generateNoise_merwe(double[] weight, MatReal p) {
-        MatReal tolerance = MatReal.identity(p.getRows()).multiply(TOLERANCE);
-        p = p.add(tolerance);
-
         int n = weight.length/2;
 
         double l = this.a*this.a*(n+this.k)-n;
 
-        MatReal W = p.choleskyDecompose(choleskySolver).multiply(Math.sqrt(n+l));
+        MatReal W = this.squareRoot.factor(p).multiply(Math.sqrt(n+l));
         W = MatReal.horizontal(W, W.multiply(-1));
 
         weight[0] = l/(l+n) + 1-this.a*this.a+this.b;
@@ -421,10 +405,11 @@ public class UKFM {
         }
 
         //covariance
-        MatReal p = X[0].phi_inverse_vector(x).multiply(X[0].phi_inverse_vector(x).transpose()).multiply(weight[1]);
-        for (int i = 1; i < X.length; i++) {
-            p = p.add(X[i].phi_inverse_vector(x).multiply(X[i].phi_inverse_vector(x).transpose()).multiply(weight[i+1]));
+        MatReal[] X_ = new MatReal[X.length];
+        for (int i = 0; i < X.length; i++) {
+            X_[i] = X[i].phi_inverse_vector(x);
         }
+        MatReal p = MatReal.weightedCovariance(X_, MatReal.empty(this.p.getRows(), 1), Arrays.copyOfRange(weight, 1, weight.length));
 
         //generate white noise
         W = generateNoise_julier(weight, this.q);
@@ -436,10 +421,11 @@ public class UKFM {
         }
 
         //covariance
-        MatReal p_ = Y[0].phi_inverse_vector(x).multiply(Y[0].phi_inverse_vector(x).transpose()).multiply(weight[1]);
-        for (int i = 1; i < Y.length; i++) {
-            p_ = p_.add(Y[i].phi_inverse_vector(x).multiply(Y[i].phi_inverse_vector(x).transpose()).multiply(weight[i+1]));
+        MatReal[] Y_ = new MatReal[Y.length];
+        for (int i = 0; i < Y.length; i++) {
+            Y_[i] = Y[i].phi_inverse_vector(x);
         }
+        MatReal p_ = MatReal.weightedCovariance(Y_, MatReal.empty(this.p.getRows(), 1), Arrays.copyOfRange(weight, 1, weight.length));
 
         this.p = p.add(p_);
         this.x = x;
@@ -465,30 +451,21 @@ public class UKFM {
             Y[i] = h.apply(x_);
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
 
         //covariances
         //innovation covariance
-        MatReal s = Y[0].subtract(y).multiply(Y[0].subtract(y).transpose()).multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            s = s.add(Y[i].subtract(y).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal s = MatReal.weightedCovariance(Y, y, weight);
         s = s.add(r);
 
         //cross covariance
-        MatReal t = W.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(W.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(W.toColumns(), MatReal.empty(W.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain
-        MatReal k = t.multiply(s.inverse());
+        MatReal k = s.rightSolveSPD(t);
         this.x = this.x.phi(k.multiply(z.subtract(y)));  
-        this.p = this.p.subtract(k.multiply(s).multiply(k.transpose()));
+        this.p = this.p.lazy().minus(k.lazy().times(s).times(k.transpose())).eval();
     }
 
     /**
@@ -516,28 +493,19 @@ public class UKFM {
             Y[i] = h.apply(this.x, Wp.getCol(i-1), Wv.getCol(i-1));
         }
 
-        MatReal y = Y[0].multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            y = y.add(Y[i].multiply(weight[i]));
-        }
+        MatReal y = MatReal.weightedMean(Y, weight);
 
         //covariances
         //innovation covariance
-        MatReal s = Y[0].subtract(y).multiply(Y[0].subtract(y).transpose()).multiply(weight[0]);
-        for (int i = 1; i < Y.length; i++) {
-            s = s.add(Y[i].subtract(y).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal s = MatReal.weightedCovariance(Y, y, weight);
 
         //cross covariance
-        MatReal t = Wp.getCol(0).multiply(Y[1].subtract(y).transpose()).multiply(weight[1]);
-        for (int i = 2; i < Y.length; i++) {
-            t = t.add(Wp.getCol(i-1).multiply(Y[i].subtract(y).transpose()).multiply(weight[i]));
-        }
+        MatReal t = MatReal.weightedCrossCovariance(Wp.toColumns(), MatReal.empty(Wp.getRows(), 1), Arrays.copyOfRange(Y, 1, Y.length), y, Arrays.copyOfRange(weight, 1, weight.length));
 
         //kalman gain
-        MatReal k = t.multiply(s.inverse());
+        MatReal k = s.rightSolveSPD(t);
         this.x = this.x.phi(k.multiply(z.subtract(y)));  
-        this.p = this.p.subtract(k.multiply(s).multiply(k.transpose()));
+        this.p = this.p.lazy().minus(k.lazy().times(s).times(k.transpose())).eval();
     }
 
     /**
@@ -548,12 +516,9 @@ public class UKFM {
      * @return noise vectors
      */
     private MatReal generateNoise_julier(double[] weight, MatReal p) {
-        MatReal tolerance = MatReal.identity(p.getRows()).multiply(TOLERANCE);
-        p = p.add(tolerance);
-
         int n = weight.length/2;
 
-        MatReal W = p.choleskyDecompose(choleskySolver).multiply(Math.sqrt(n+this.l));
+        MatReal W = this.squareRoot.factor(p).multiply(Math.sqrt(n+this.l));
         W = MatReal.horizontal(W, W.multiply(-1));
 
         weight[0] = this.l / (this.l+n);
@@ -572,6 +537,17 @@ public class UKFM {
     public void setSigmaVariables(double l) {
         this.l = l;
     }
+
+    /**
+     * Sets the square root used to spread the sigma points
+     * <p>
+     * Default is a cholesky decomposition with a jitter added to the diagonal, the square roots of the last few covariances are reused
+     * 
+     * @param squareRoot the new square root
+     */
+    public void setSquareRoot(SquareRoot squareRoot) {
+        this.squareRoot = SquareRoot.cached(squareRoot, CACHE_SIZE);
+    }
     
     /**
      * Gets the state of the filter
@@ -609,6 +585,15 @@ public class UKFM {
         this.q = q;
     }
 
+    /**
+     * Sets the process noise covariance from a sparse matrix
+     * 
+     * @param q new sparse process noise covariance
+     */
+    public void setQ(MatRealSparse q) {
+        this.setQ(q.toMatReal());
+    }
+
     /**
      * Set the control input
      * 
@@ -0,0 +1,46 @@
+package com.quackology.duckdevices.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.quackology.duckdevices.functions.Expression;
+
+/**
+ * Benchmarks of evaluating parsed expressions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    @Param({"x + 1", "3 * ( x - 1 ) ^ 3 + 2", "x ^ 4 - 3 * x ^ 3 + 2 * x ^ 2 / ( x + 1 ) - 5"})
+    public String infix;
+
+    private Expression expression;
+    private Double x;
+
+    @Setup
+    public void setup() {
+        expression = new Expression(infix, 1);
+        x = 0.37;
+    }
+
+    @Benchmark
+    public Double apply() {
+        return expression.apply(x);
+    }
+}
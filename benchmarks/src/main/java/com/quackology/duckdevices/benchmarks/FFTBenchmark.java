@@ -0,0 +1,91 @@
+package com.quackology.duckdevices.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.quackology.duckdevices.spaces.Complex;
+import com.quackology.duckdevices.spaces.ComplexArray;
+import com.quackology.duckdevices.utils.Utils;
+
+/**
+ * Benchmarks of the fourier transform and convolution utilities
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FFTBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    public int length;
+
+    private double[] a;
+    private double[] b;
+    private Complex[] complexA;
+    private Complex[] complexB;
+    private ComplexArray arrayA;
+    private ComplexArray arrayB;
+    private ComplexArray work;
+    private ComplexArray out;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        a = new double[length];
+        b = new double[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = random.nextGaussian();
+        }
+        arrayA = ComplexArray.ofReal(a);
+        arrayB = ComplexArray.ofReal(b);
+        complexA = arrayA.toComplex();
+        complexB = arrayB.toComplex();
+        work = new ComplexArray(length);
+        out = new ComplexArray(2 * length - 1);
+    }
+
+    @Benchmark
+    public Complex[] fft() {
+        return Utils.fft(a);
+    }
+
+    @Benchmark
+    public double[] convolve() {
+        return Utils.convolve(a, b);
+    }
+
+    @Benchmark
+    public Complex[] fftComplex() {
+        return Utils.fft(complexA);
+    }
+
+    @Benchmark
+    public ComplexArray fftInPlace() {
+        return Utils.fftInPlace(work.copyFrom(arrayA));
+    }
+
+    @Benchmark
+    public Complex[] convolveComplex() {
+        return Utils.convolve(complexA, complexB);
+    }
+
+    @Benchmark
+    public ComplexArray convolveInto() {
+        return Utils.convolve(arrayA, arrayB, out);
+    }
+}
@@ -0,0 +1,152 @@
+package com.quackology.duckdevices.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.quackology.duckdevices.filters.SRUKF;
+import com.quackology.duckdevices.filters.SRUKFM;
+import com.quackology.duckdevices.filters.UKF;
+import com.quackology.duckdevices.filters.UKFM;
+import com.quackology.duckdevices.functions.QuadFunction;
+import com.quackology.duckdevices.functions.TriFunction;
+import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.manifolds.CompoundManifold;
+import com.quackology.duckdevices.spaces.manifolds.Manifold;
+import com.quackology.duckdevices.spaces.manifolds.ManifoldImpl;
+import com.quackology.duckdevices.spaces.manifolds.VectorSpaceFactory;
+import com.quackology.duckdevices.spaces.manifolds.liegroups.SE2;
+
+/**
+ * Benchmarks of a full predict and update cycle of each unscented filter
+ * <p>
+ * Vector filters track positions and velocities with a constant velocity model and measure the positions
+ * <p>
+ * Manifold filters track an SE2 pose and a vector of velocities, the first three of which move the pose, and measure the pose
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final double DT = 0.05;
+
+    @Param({"6", "12", "24"})
+    public int dimensions;
+
+    private UKF ukf;
+    private SRUKF srukf;
+    private UKFM ukfm;
+    private SRUKFM srukfm;
+
+    private Function<MatReal, MatReal> h;
+    private MatReal z;
+    private MatReal r;
+    private MatReal rSqrt;
+
+    private Function<CompoundManifold, MatReal> hManifold;
+    private MatReal zManifold;
+    private MatReal rManifold;
+    private MatReal rManifoldSqrt;
+
+    @Setup
+    public void setup() {
+        int half = dimensions / 2;
+        MatReal x = MatReal.empty(dimensions, 1);
+        MatReal p = MatReal.identity(dimensions);
+        MatReal q = MatReal.identity(dimensions).multiply(0.01);
+        MatReal u = MatReal.empty(dimensions, 1);
+
+        TriFunction<MatReal, MatReal, Double, MatReal> f = (x_, u_, dt_) -> {
+            double[][] out = x_.get();
+            for (int i = 0; i < half; i++) {
+                out[i][0] += out[i + half][0] * dt_;
+            }
+            return new MatReal(out);
+        };
+        h = (x_) -> x_.subMat(0, 0, half, 1);
+        z = MatReal.empty(half, 1);
+        r = MatReal.identity(half).multiply(0.1);
+        rSqrt = r.choleskyDecompose();
+
+        ukf = new UKF(x, p, q, u);
+        ukf.setF(f);
+        srukf = new SRUKF(x, p, q, u);
+        srukf.setF(f);
+
+        QuadFunction<CompoundManifold, MatReal, MatReal, Double, CompoundManifold> fManifold = (x_, w, u_, dt_) -> {
+            SE2 pos_ = (SE2) x_.getManifold(0);
+            @SuppressWarnings("unchecked")
+            ManifoldImpl<MatReal> vel_ = (ManifoldImpl<MatReal>) x_.getManifold(1);
+
+            pos_ = pos_.compose(SE2.FACTORY.exp(w.subMat(0, 0, 3, 1)));
+            vel_ = vel_.phi(w.subMat(3, 0, dimensions - 3, 1));
+            pos_ = pos_.phi(vel_.getValue().subMat(0, 0, 3, 1).multiply(dt_));
+
+            return new CompoundManifold(new Manifold[] {pos_, vel_});
+        };
+        hManifold = (x_) -> SE2.FACTORY.log((SE2) x_.getManifold(0));
+        zManifold = MatReal.empty(3, 1);
+        rManifold = MatReal.identity(3).multiply(0.1);
+        rManifoldSqrt = rManifold.choleskyDecompose();
+
+        ukfm = new UKFM(manifoldState(), p, q, u);
+        ukfm.setF(fManifold);
+        srukfm = new SRUKFM(manifoldState(), p, q, u);
+        srukfm.setF(fManifold);
+    }
+
+    @Benchmark
+    public MatReal ukf() {
+        ukf.predict(DT);
+        ukf.update(h, z, r);
+        return ukf.getState();
+    }
+
+    @Benchmark
+    public MatReal srukf() {
+        srukf.predict(DT);
+        srukf.update(h, z, rSqrt);
+        return srukf.getState();
+    }
+
+    @Benchmark
+    public CompoundManifold ukfm() {
+        ukfm.predict(DT);
+        ukfm.update(hManifold, zManifold, rManifold);
+        return ukfm.getState();
+    }
+
+    @Benchmark
+    public CompoundManifold srukfm() {
+        srukfm.predict(DT);
+        srukfm.update(hManifold, zManifold, rManifoldSqrt);
+        return srukfm.getState();
+    }
+
+    /**
+     * Creates the initial state of the manifold filters
+     *
+     * @return an identity pose with zero velocities
+     */
+    private CompoundManifold manifoldState() {
+        return new CompoundManifold(new Manifold[] {
+            SE2.FACTORY.exp(MatReal.empty(3, 1)),
+            VectorSpaceFactory.make(MatReal.empty(dimensions - 3, 1))
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package com.quackology.duckdevices.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.manifolds.liegroups.SE2;
+import com.quackology.duckdevices.spaces.manifolds.liegroups.SE3;
+import com.quackology.duckdevices.spaces.manifolds.liegroups.SO2;
+import com.quackology.duckdevices.spaces.manifolds.liegroups.SO3;
+
+/**
+ * Benchmarks of the exp, log, compose and action operations of the lie groups
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LieGroupBenchmark {
+
+    private double angle;
+    private MatReal so3Tangent;
+    private MatReal se2Tangent;
+    private MatReal se3Tangent;
+
+    private SO2 so2;
+    private SO3 so3;
+    private SE2 se2;
+    private SE3 se3;
+
+    private double[] point;
+
+    private double[] xs, ys, zs;
+    private double[] outXs, outYs, outZs;
+    private MatReal[] homogeneous;
+
+    @Setup
+    public void setup() {
+        angle = 0.7;
+        so3Tangent = new MatReal(new double[][] {{0.3}, {-0.2}, {0.5}});
+        se2Tangent = new MatReal(new double[][] {{1.5}, {-0.4}, {0.7}});
+        se3Tangent = new MatReal(new double[][] {{1.5}, {-0.4}, {2.1}, {0.3}, {-0.2}, {0.5}});
+
+        so2 = SO2.FACTORY.exp(angle);
+        so3 = SO3.FACTORY.exp(0.3, -0.2, 0.5);
+        se2 = SE2.FACTORY.exp(se2Tangent);
+        se3 = SE3.FACTORY.exp(se3Tangent);
+
+        point = new double[] {1.0, -2.0, 0.5};
+
+        int n = 10000;
+        xs = new double[n];
+        ys = new double[n];
+        zs = new double[n];
+        outXs = new double[n];
+        outYs = new double[n];
+        outZs = new double[n];
+        homogeneous = new MatReal[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = Math.sin(i);
+            ys[i] = Math.cos(i);
+            zs[i] = 0.001*i;
+            homogeneous[i] = new MatReal(new double[][] {{xs[i]}, {ys[i]}, {zs[i]}, {1}});
+        }
+    }
+
+    @Benchmark
+    public SO2 so2Exp() {
+        return SO2.FACTORY.exp(angle);
+    }
+
+    @Benchmark
+    public MatReal so2Log() {
+        return SO2.FACTORY.log(so2);
+    }
+
+    @Benchmark
+    public SO2 so2Compose() {
+        return so2.compose(so2);
+    }
+
+    @Benchmark
+    public SO3 so3Exp() {
+        return SO3.FACTORY.exp(so3Tangent);
+    }
+
+    @Benchmark
+    public MatReal so3Log() {
+        return SO3.FACTORY.log(so3);
+    }
+
+    @Benchmark
+    public SO3 so3Compose() {
+        return so3.compose(so3);
+    }
+
+    @Benchmark
+    public double[] so3Rotate() {
+        return so3.rotate(point, new double[3]);
+    }
+
+    @Benchmark
+    public SE2 se2Exp() {
+        return SE2.FACTORY.exp(se2Tangent);
+    }
+
+    @Benchmark
+    public MatReal se2Log() {
+        return SE2.FACTORY.log(se2);
+    }
+
+    @Benchmark
+    public SE2 se2Compose() {
+        return se2.compose(se2);
+    }
+
+    @Benchmark
+    public SE3 se3Exp() {
+        return SE3.FACTORY.exp(se3Tangent);
+    }
+
+    @Benchmark
+    public MatReal se3Log() {
+        return SE3.FACTORY.log(se3);
+    }
+
+    @Benchmark
+    public SE3 se3Compose() {
+        return se3.compose(se3);
+    }
+
+    @Benchmark
+    public double[] se3ActPoints() {
+        se3.act(xs, ys, zs, outXs, outYs, outZs);
+        return outXs;
+    }
+
+    @Benchmark
+    public void se3ActPerPoint(Blackhole blackhole) {
+        MatReal value = se3.getValue();
+        for (MatReal p : homogeneous) {
+            blackhole.consume(value.multiply(p));
+        }
+    }
+}
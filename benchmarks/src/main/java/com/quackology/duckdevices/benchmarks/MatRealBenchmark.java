@@ -0,0 +1,158 @@
+package com.quackology.duckdevices.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.quackology.duckdevices.spaces.MatFloat;
+import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MutableMatReal;
+
+/**
+ * Benchmarks of the core matrix operations from the small sizes used in filters up to large batch problems
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatRealBenchmark {
+
+    @Param({"2", "3", "6", "12", "50", "200"})
+    public int size;
+
+    private MatReal a;
+    private MatReal b;
+    private MatReal spd;
+    private MatReal lower;
+    private MatReal vector;
+
+    private MutableMatReal mutableA;
+    private MutableMatReal mutableB;
+    private MutableMatReal mutableOut;
+
+    private MatFloat floatA;
+    private MatFloat floatB;
+    private MatFloat floatSpd;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        a = random(random, size, size);
+        b = random(random, size, size);
+        spd = a.multiply(a.transpose()).add(MatReal.identity(size).multiply(size));
+        lower = spd.choleskyDecompose();
+        vector = random(random, size, 1);
+
+        mutableA = new MutableMatReal(a);
+        mutableB = new MutableMatReal(b);
+        mutableOut = new MutableMatReal(size, size);
+
+        floatA = MatFloat.of(a);
+        floatB = MatFloat.of(b);
+        floatSpd = MatFloat.of(spd);
+    }
+
+    @Benchmark
+    public MatReal add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public MatReal multiply() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public MatReal multiplyParallel() {
+        return a.multiplyParallel(b);
+    }
+
+    @Benchmark
+    public MutableMatReal multiplyInto() {
+        return mutableA.multiplyInto(mutableB, mutableOut);
+    }
+
+    @Benchmark
+    public MatFloat multiplyFloat() {
+        return floatA.multiply(floatB);
+    }
+
+    @Benchmark
+    public MatReal transpose() {
+        return a.transpose();
+    }
+
+    @Benchmark
+    public MatReal inverse() {
+        return spd.inverse();
+    }
+
+    @Benchmark
+    public MatReal choleskyDecompose() {
+        return spd.choleskyDecompose();
+    }
+
+    /**
+     * Kalman gain through the inverse, spd is transposed into a fresh matrix since OjAlgo caches the inverse of a matrix
+     */
+    @Benchmark
+    public MatReal gainInverse() {
+        return b.multiply(spd.transpose().inverse());
+    }
+
+    @Benchmark
+    public MatReal gainSolve() {
+        return spd.transpose().rightSolveSPD(b);
+    }
+
+    @Benchmark
+    public MatFloat gainSolveFloat() {
+        return floatSpd.rightSolveSPD(floatB);
+    }
+
+    @Benchmark
+    public MatReal solveLU() {
+        return a.solveLU(b);
+    }
+
+    @Benchmark
+    public MatReal forwardSub() {
+        return MatReal.forwardSub(lower, vector);
+    }
+
+    @Benchmark
+    public MatReal diagonal() {
+        return MatReal.diagonal(a, b);
+    }
+
+    /**
+     * Creates a matrix of uniformly distributed values in [-1, 1)
+     *
+     * @param random source of random values
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @return a random matrix
+     */
+    static MatReal random(Random random, int rows, int columns) {
+        double[][] values = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                values[i][j] = 2 * random.nextDouble() - 1;
+            }
+        }
+        return new MatReal(values);
+    }
+}
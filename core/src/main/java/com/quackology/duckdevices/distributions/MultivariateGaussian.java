@@ -1,6 +1,7 @@
 package com.quackology.duckdevices.distributions;
 
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.MatSPD;
 
 /**
  * Multivariate Gaussian distribution
@@ -13,8 +14,10 @@ public class MultivariateGaussian implements Distribution {
 
     /**
      * Covariance of the distribution
+     * <p>
+     * Caches its factorization so repeated evaluations of the pdf only pay for it once
      */
-    private MatReal covariance;
+    private MatSPD covariance;
 
     /**
      * Constructor for the Multivariate Gaussian distribution
@@ -23,6 +26,16 @@ public class MultivariateGaussian implements Distribution {
      * @param covariance covariance of the distribution
      */
     public MultivariateGaussian(MatReal mean, MatReal covariance) {
+        this(mean, new MatSPD(covariance));
+    }
+
+    /**
+     * Constructor for the Multivariate Gaussian distribution
+     * 
+     * @param mean mean of the distribution
+     * @param covariance covariance of the distribution
+     */
+    public MultivariateGaussian(MatReal mean, MatSPD covariance) {
         this.mean = mean;
         this.covariance = covariance;
     }
@@ -42,6 +55,15 @@ public class MultivariateGaussian implements Distribution {
      * @return the covariance of the distribution
      */
     public MatReal getCovariance() {
+        return this.covariance.getValue();
+    }
+
+    /**
+     * Get the covariance of the distribution along with its cached factorization
+     * 
+     * @return the covariance of the distribution
+     */
+    public MatSPD getCovarianceSPD() {
         return this.covariance;
     }
 
@@ -52,6 +74,8 @@ public class MultivariateGaussian implements Distribution {
      * @return the value of the probability density function at x
      */
     public double pdf(MatReal x) {
-        return Math.exp(-1/2 * x.subtract(mean).transpose().multiply(covariance.inverse()).multiply(x.subtract(mean)).get(0, 0))/Math.sqrt(Math.pow(2*Math.PI, mean.getDimensions())*covariance.determinant());
+        double exponent = -0.5 * this.covariance.mahalanobis(x.subtract(this.mean));
+        double logNormalizer = 0.5 * (this.mean.getDimensions() * Math.log(2*Math.PI) + this.covariance.logDeterminant());
+        return Math.exp(exponent - logNormalizer);
     } 
 }
@@ -0,0 +1,327 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.Arrays;
+
+import com.quackology.duckdevices.utils.ArrayMath;
+
+/**
+ * Array of complex numbers stored as interleaved doubles
+ * <p>
+ * double[offset + 2k] - real part of the k-th number
+ * <p>
+ * double[offset + 2k+1] - imaginary part of the k-th number
+ * <p>
+ * Slices are views sharing the same doubles, writing into a slice writes into the array it was taken from
+ */
+public class ComplexArray {
+
+    /**
+     * Interleaved values, possibly shared with other views
+     */
+    private final double[] data;
+
+    /**
+     * Index in data of the real part of the first number
+     */
+    private final int offset;
+
+    /**
+     * Number of complex numbers in the array
+     */
+    private final int length;
+
+    /**
+     * Constructor of a view over interleaved values
+     *
+     * @param data interleaved values
+     * @param offset index in data of the real part of the first number
+     * @param length number of complex numbers in the view
+     */
+    private ComplexArray(double[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + 2 * length > data.length) {
+            throw new IllegalArgumentException("View must lie inside the array");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Constructor of an array of zeros
+     *
+     * @param length number of complex numbers in the array
+     */
+    public ComplexArray(int length) {
+        this(new double[2 * length], 0, length);
+    }
+
+    /**
+     * Constructor of an array with the values of the given complex numbers
+     * <p>
+     * Null elements are treated as zero
+     *
+     * @param values complex numbers to copy
+     */
+    public ComplexArray(Complex[] values) {
+        this(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                this.set(i, values[i].getReal(), values[i].getImg());
+            }
+        }
+    }
+
+    /**
+     * Wraps interleaved values without copying
+     *
+     * @param data interleaved values with an even length
+     * @return a view over all of the given values
+     */
+    public static ComplexArray wrap(double[] data) {
+        if (data.length % 2 != 0) {
+            throw new IllegalArgumentException("Interleaved array must have an even length");
+        }
+        return new ComplexArray(data, 0, data.length / 2);
+    }
+
+    /**
+     * Wraps part of interleaved values without copying
+     *
+     * @param data interleaved values
+     * @param offset index in data of the real part of the first number
+     * @param length number of complex numbers in the view
+     * @return a view over the given range of values
+     */
+    public static ComplexArray wrap(double[] data, int offset, int length) {
+        return new ComplexArray(data, offset, length);
+    }
+
+    /**
+     * Forms an array of complex numbers with the given real parts and zero imaginary parts
+     *
+     * @param values real parts
+     * @return an array of complex numbers with the given real parts
+     */
+    public static ComplexArray ofReal(double[] values) {
+        ComplexArray out = new ComplexArray(values.length);
+        for (int i = 0; i < values.length; i++) {
+            out.data[2 * i] = values[i];
+        }
+        return out;
+    }
+
+    /**
+     * Gets the interleaved values backing the array, shared with every view of it
+     *
+     * @return the interleaved values backing the array
+     */
+    public double[] array() {
+        return this.data;
+    }
+
+    /**
+     * Gets the index in the backing array of the real part of the first number
+     *
+     * @return the index in the backing array of the real part of the first number
+     */
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * Gets the number of complex numbers in the array
+     *
+     * @return the number of complex numbers in the array
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Gets the real part of the number at the given index
+     *
+     * @param index index of the number
+     * @return the real part of the number at the given index
+     */
+    public double getReal(int index) {
+        return this.data[this.index(index)];
+    }
+
+    /**
+     * Gets the imaginary part of the number at the given index
+     *
+     * @param index index of the number
+     * @return the imaginary part of the number at the given index
+     */
+    public double getImg(int index) {
+        return this.data[this.index(index) + 1];
+    }
+
+    /**
+     * Gets the number at the given index
+     *
+     * @param index index of the number
+     * @return a new complex number with the value at the given index
+     */
+    public Complex get(int index) {
+        return new Complex(this.getReal(index), this.getImg(index));
+    }
+
+    /**
+     * Sets the number at the given index
+     *
+     * @param index index of the number
+     * @param real real part of the number
+     * @param img imaginary part of the number
+     * @return this array
+     */
+    public ComplexArray set(int index, double real, double img) {
+        int i = this.index(index);
+        this.data[i] = real;
+        this.data[i + 1] = img;
+        return this;
+    }
+
+    /**
+     * Sets the number at the given index
+     *
+     * @param index index of the number
+     * @param value complex number to set
+     * @return this array
+     */
+    public ComplexArray set(int index, Complex value) {
+        return this.set(index, value.getReal(), value.getImg());
+    }
+
+    /**
+     * Gets a view of part of the array sharing its values
+     *
+     * @param start index of the first number of the view
+     * @param length number of complex numbers in the view
+     * @return a view of the given range of the array
+     */
+    public ComplexArray slice(int start, int length) {
+        if (start < 0 || length < 0 || start + length > this.length) {
+            throw new IllegalArgumentException("View must lie inside the array");
+        }
+        return new ComplexArray(this.data, this.index(start), length);
+    }
+
+    /**
+     * Sets every number of the array to the given value
+     *
+     * @param real real part of the value
+     * @param img imaginary part of the value
+     * @return this array
+     */
+    public ComplexArray fill(double real, double img) {
+        for (int i = this.offset; i < this.offset + 2 * this.length; i += 2) {
+            this.data[i] = real;
+            this.data[i + 1] = img;
+        }
+        return this;
+    }
+
+    /**
+     * Copies the values of the given array into this array
+     *
+     * @param values array of the same length to copy
+     * @return this array
+     */
+    public ComplexArray copyFrom(ComplexArray values) {
+        this.checkLength(values);
+        System.arraycopy(values.data, values.offset, this.data, this.offset, 2 * this.length);
+        return this;
+    }
+
+    /**
+     * Multiplies this array by the given array element by element
+     *
+     * @param values array of the same length to multiply by
+     * @return this array
+     */
+    public ComplexArray multiplyInPlace(ComplexArray values) {
+        this.checkLength(values);
+        ArrayMath.complexMultiply(this.data, this.offset, values.data, values.offset, this.data, this.offset, this.length);
+        return this;
+    }
+
+    /**
+     * Multiplies every number of the array by a real scalar
+     *
+     * @param scalar scalar to multiply by
+     * @return this array
+     */
+    public ComplexArray scaleInPlace(double scalar) {
+        for (int i = this.offset; i < this.offset + 2 * this.length; i++) {
+            this.data[i] *= scalar;
+        }
+        return this;
+    }
+
+    /**
+     * Copies the real parts into an array of doubles
+     *
+     * @param out array of the same length to write the real parts into
+     * @return out
+     */
+    public double[] realInto(double[] out) {
+        if (out.length != this.length) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        for (int i = 0; i < this.length; i++) {
+            out[i] = this.data[this.offset + 2 * i];
+        }
+        return out;
+    }
+
+    /**
+     * Gets a copy of the array that does not share its values
+     *
+     * @return a copy of the array
+     */
+    public ComplexArray copy() {
+        return wrap(Arrays.copyOfRange(this.data, this.offset, this.offset + 2 * this.length));
+    }
+
+    /**
+     * Gets the numbers as an array of complex numbers
+     *
+     * @return a new array of complex numbers with the values of this array
+     */
+    public Complex[] toComplex() {
+        Complex[] out = new Complex[this.length];
+        for (int i = 0; i < this.length; i++) {
+            out[i] = this.get(i);
+        }
+        return out;
+    }
+
+    public String toString() {
+        return Arrays.toString(this.toComplex());
+    }
+
+    /**
+     * Gets the index in the backing array of the real part of the number at the given index
+     *
+     * @param index index of the number
+     * @return the index in the backing array of the real part
+     */
+    private int index(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.length);
+        }
+        return this.offset + 2 * index;
+    }
+
+    /**
+     * Checks that the given array has the length of this array
+     *
+     * @param values array to check
+     */
+    private void checkLength(ComplexArray values) {
+        if (values.length != this.length) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+    }
+}
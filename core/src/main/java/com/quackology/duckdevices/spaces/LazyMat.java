@@ -0,0 +1,610 @@
+package com.quackology.duckdevices.spaces;
+
+import org.ojalgo.matrix.MatrixR064;
+
+/**
+ * Lazily evaluated expression of real matrices
+ * <p>
+ * Operations build a tree instead of computing intermediate matrices, the whole tree is evaluated in one loop over the elements of the result by {@link #eval()}, {@link #into(MutableMatReal)} or {@link #addInto(MutableMatReal)}
+ * <p>
+ * Matrix products and outer products are computed once per evaluation before the loop since each of their operands is read many times, so they may read the destination
+ * <p>
+ * A tree can be evaluated again after the mutable matrices it reads are changed
+ * <p>
+ * While {@link MatProfiler} is enabled each evaluation records one operation per fused node, matrix products record themselves when they are computed
+ */
+public abstract class LazyMat {
+
+    /**
+     * Number of rows of the result
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the result
+     */
+    private final int cols;
+
+    /**
+     * Constructor of an expression with a result of the given size
+     *
+     * @param rows the number of rows in the result
+     * @param columns the number of columns in the result
+     */
+    private LazyMat(int rows, int columns) {
+        this.rows = rows;
+        this.cols = columns;
+    }
+
+    /**
+     * Creates an expression reading the given matrix
+     *
+     * @param matrix the matrix to read
+     * @return an expression with the values of the matrix
+     */
+    public static LazyMat of(MatReal matrix) {
+        return new Leaf(matrix);
+    }
+
+    /**
+     * Creates an expression reading the given mutable matrix
+     * <p>
+     * The matrix is read when the expression is evaluated, not when it is created
+     *
+     * @param matrix the matrix to read
+     * @return an expression with the values of the matrix
+     */
+    public static LazyMat of(MutableMatReal matrix) {
+        return new MutableLeaf(matrix);
+    }
+
+    /**
+     * Gets the number of rows of the result
+     *
+     * @return the number of rows of the result
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the number of columns of the result
+     *
+     * @return the number of columns of the result
+     */
+    public int getCols() {
+        return this.cols;
+    }
+
+    /**
+     * Adds the given expression to this expression
+     *
+     * @param matrix the expression to add
+     * @return an expression of this + matrix
+     */
+    public LazyMat plus(LazyMat matrix) {
+        return new Sum(this, matrix, 1);
+    }
+
+    /**
+     * Adds the given matrix to this expression
+     *
+     * @param matrix the matrix to add
+     * @return an expression of this + matrix
+     */
+    public LazyMat plus(MatReal matrix) {
+        return this.plus(of(matrix));
+    }
+
+    /**
+     * Subtracts the given expression from this expression
+     *
+     * @param matrix the expression to subtract
+     * @return an expression of this - matrix
+     */
+    public LazyMat minus(LazyMat matrix) {
+        return new Sum(this, matrix, -1);
+    }
+
+    /**
+     * Subtracts the given matrix from this expression
+     *
+     * @param matrix the matrix to subtract
+     * @return an expression of this - matrix
+     */
+    public LazyMat minus(MatReal matrix) {
+        return this.minus(of(matrix));
+    }
+
+    /**
+     * Multiplies this expression by a scalar
+     *
+     * @param scalar the scalar to multiply by
+     * @return an expression of scalar * this
+     */
+    public LazyMat scale(double scalar) {
+        return new Scale(this, scalar);
+    }
+
+    /**
+     * Multiplies this expression element by element with the given expression
+     *
+     * @param matrix the expression to multiply by
+     * @return an expression of the hadamard product of this and matrix
+     */
+    public LazyMat hadamard(LazyMat matrix) {
+        return new Hadamard(this, matrix);
+    }
+
+    /**
+     * Transposes this expression
+     *
+     * @return an expression of the transpose of this
+     */
+    public LazyMat transpose() {
+        return new Transpose(this);
+    }
+
+    /**
+     * Outer product of this column vector with the given column vector
+     * <p>
+     * this * vector^T, each vector is computed once and no product matrix is formed
+     *
+     * @param vector the column vector on the right
+     * @return an expression of this * vector^T
+     */
+    public LazyMat outer(LazyMat vector) {
+        return new Outer(this, vector);
+    }
+
+    /**
+     * Matrix product of this expression with the given expression
+     * <p>
+     * The product is computed once per evaluation with OjAlgo, only the surrounding operations are fused
+     *
+     * @param matrix the expression to multiply against this expression
+     * @return an expression of this * matrix
+     */
+    public LazyMat times(LazyMat matrix) {
+        return new Product(this, matrix);
+    }
+
+    /**
+     * Matrix product of this expression with the given matrix
+     *
+     * @param matrix the matrix to multiply against this expression
+     * @return an expression of this * matrix
+     */
+    public LazyMat times(MatReal matrix) {
+        return this.times(of(matrix));
+    }
+
+    /**
+     * Evaluates the expression into a new matrix
+     *
+     * @return a matrix with the values of the expression
+     */
+    public MatReal eval() {
+        this.prepare();
+        if (MatProfiler.enabled) {
+            this.record();
+        }
+        MatrixR064.DenseReceiver out = MatrixR064.FACTORY.newDenseBuilder(this.rows, this.cols);
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                out.set(i, j, this.get(i, j));
+            }
+        }
+        return new MatReal(out.get());
+    }
+
+    /**
+     * Evaluates the expression into the destination
+     * <p>
+     * The destination must not be read by the expression, use {@link #addInto(MutableMatReal)} to accumulate
+     *
+     * @param dst the matrix to write the values into
+     * @return the destination matrix
+     */
+    public MutableMatReal into(MutableMatReal dst) {
+        this.checkDestination(dst);
+        this.prepare();
+        if (MatProfiler.enabled) {
+            this.record();
+        }
+        double[] data = dst.store().data;
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                data[i + j * this.rows] = this.get(i, j);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Evaluates the expression and adds it to the destination
+     * <p>
+     * dst = dst + this, the destination must not be read by the expression
+     *
+     * @param dst the matrix to add the values to
+     * @return the destination matrix
+     */
+    public MutableMatReal addInto(MutableMatReal dst) {
+        this.checkDestination(dst);
+        this.prepare();
+        if (MatProfiler.enabled) {
+            this.record();
+        }
+        double[] data = dst.store().data;
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                data[i + j * this.rows] += this.get(i, j);
+            }
+        }
+        return dst;
+    }
+
+    public String toString() {
+        return this.eval().toString();
+    }
+
+    /**
+     * Gets the value of the expression at the given row and column
+     * <p>
+     * Only valid after {@link #prepare()}
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    abstract double get(int row, int column);
+
+    /**
+     * Computes the parts of the expression that are read many times before the element loop
+     */
+    abstract void prepare();
+
+    /**
+     * Records the operations fused into the element loop of the expression
+     */
+    abstract void record();
+
+    /**
+     * Checks whether the expression reads the given mutable matrix
+     *
+     * @param matrix the matrix to look for
+     * @return true if the matrix is read by the expression
+     */
+    abstract boolean reads(MutableMatReal matrix);
+
+    /**
+     * Checks that the destination has the dimensions of the result and is not read by the expression
+     *
+     * @param dst destination matrix
+     */
+    private void checkDestination(MutableMatReal dst) {
+        if (dst.getRows() != this.rows || dst.getCols() != this.cols) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+        if (this.reads(dst)) {
+            throw new IllegalArgumentException("Destination must not be an operand");
+        }
+    }
+
+    /**
+     * Expression reading an immutable matrix
+     */
+    private static final class Leaf extends LazyMat {
+        private final MatReal matrix;
+
+        private Leaf(MatReal matrix) {
+            super(matrix.getRows(), matrix.getCols());
+            this.matrix = matrix;
+        }
+
+        @Override
+        public MatReal eval() {
+            return this.matrix;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.matrix.value().doubleValue(row, column);
+        }
+
+        @Override
+        void prepare() {
+        }
+
+        @Override
+        void record() {
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return false;
+        }
+    }
+
+    /**
+     * Expression reading a mutable matrix
+     */
+    private static final class MutableLeaf extends LazyMat {
+        private final MutableMatReal matrix;
+
+        private MutableLeaf(MutableMatReal matrix) {
+            super(matrix.getRows(), matrix.getCols());
+            this.matrix = matrix;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.matrix.get(row, column);
+        }
+
+        @Override
+        void prepare() {
+        }
+
+        @Override
+        void record() {
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return this.matrix == matrix;
+        }
+    }
+
+    /**
+     * Expression of a + sign * b
+     */
+    private static final class Sum extends LazyMat {
+        private final LazyMat a;
+        private final LazyMat b;
+        private final double sign;
+
+        private Sum(LazyMat a, LazyMat b, double sign) {
+            super(a.getRows(), a.getCols());
+            if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+                throw new IllegalArgumentException("Matrix must have the same dimensions");
+            }
+            this.a = a;
+            this.b = b;
+            this.sign = sign;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.a.get(row, column) + this.sign * this.b.get(row, column);
+        }
+
+        @Override
+        void prepare() {
+            this.a.prepare();
+            this.b.prepare();
+        }
+
+        @Override
+        void record() {
+            MatProfiler.record(this.sign < 0 ? MatProfiler.Op.SUBTRACT : MatProfiler.Op.ADD, (long) this.getRows() * this.getCols());
+            this.a.record();
+            this.b.record();
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return this.a.reads(matrix) || this.b.reads(matrix);
+        }
+    }
+
+    /**
+     * Expression of scalar * a
+     */
+    private static final class Scale extends LazyMat {
+        private final LazyMat a;
+        private final double scalar;
+
+        private Scale(LazyMat a, double scalar) {
+            super(a.getRows(), a.getCols());
+            this.a = a;
+            this.scalar = scalar;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.scalar * this.a.get(row, column);
+        }
+
+        @Override
+        void prepare() {
+            this.a.prepare();
+        }
+
+        @Override
+        void record() {
+            MatProfiler.record(MatProfiler.Op.SCALE, (long) this.getRows() * this.getCols());
+            this.a.record();
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return this.a.reads(matrix);
+        }
+    }
+
+    /**
+     * Expression of the element by element product of a and b
+     */
+    private static final class Hadamard extends LazyMat {
+        private final LazyMat a;
+        private final LazyMat b;
+
+        private Hadamard(LazyMat a, LazyMat b) {
+            super(a.getRows(), a.getCols());
+            if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+                throw new IllegalArgumentException("Matrix must have the same dimensions");
+            }
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.a.get(row, column) * this.b.get(row, column);
+        }
+
+        @Override
+        void prepare() {
+            this.a.prepare();
+            this.b.prepare();
+        }
+
+        @Override
+        void record() {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, (long) this.getRows() * this.getCols());
+            this.a.record();
+            this.b.record();
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return this.a.reads(matrix) || this.b.reads(matrix);
+        }
+    }
+
+    /**
+     * Expression of a^T
+     */
+    private static final class Transpose extends LazyMat {
+        private final LazyMat a;
+
+        private Transpose(LazyMat a) {
+            super(a.getCols(), a.getRows());
+            this.a = a;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.a.get(column, row);
+        }
+
+        @Override
+        void prepare() {
+            this.a.prepare();
+        }
+
+        @Override
+        void record() {
+            MatProfiler.record(MatProfiler.Op.TRANSPOSE, 0);
+            this.a.record();
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return this.a.reads(matrix);
+        }
+    }
+
+    /**
+     * Expression of u * v^T for column vectors u and v
+     */
+    private static final class Outer extends LazyMat {
+        private final LazyMat u;
+        private final LazyMat v;
+
+        /**
+         * Values of u and v, refilled every evaluation
+         */
+        private final double[] left;
+        private final double[] right;
+
+        private Outer(LazyMat u, LazyMat v) {
+            super(u.getRows(), v.getRows());
+            if (u.getCols() != 1 || v.getCols() != 1) {
+                throw new IllegalArgumentException("Outer product requires column vectors");
+            }
+            this.u = u;
+            this.v = v;
+            this.left = new double[u.getRows()];
+            this.right = new double[v.getRows()];
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.left[row] * this.right[column];
+        }
+
+        @Override
+        void prepare() {
+            this.u.prepare();
+            this.v.prepare();
+            for (int i = 0; i < this.left.length; i++) {
+                this.left[i] = this.u.get(i, 0);
+            }
+            for (int i = 0; i < this.right.length; i++) {
+                this.right[i] = this.v.get(i, 0);
+            }
+        }
+
+        @Override
+        void record() {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, (long) this.getRows() * this.getCols());
+            this.u.record();
+            this.v.record();
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return false;
+        }
+    }
+
+    /**
+     * Expression of the matrix product a * b
+     */
+    private static final class Product extends LazyMat {
+        private final LazyMat a;
+        private final LazyMat b;
+
+        /**
+         * Value of the product, recomputed every evaluation
+         */
+        private MatReal product;
+
+        private Product(LazyMat a, LazyMat b) {
+            super(a.getRows(), b.getCols());
+            if (a.getCols() != b.getRows()) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+            }
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public MatReal eval() {
+            this.prepare();
+            return this.product;
+        }
+
+        @Override
+        double get(int row, int column) {
+            return this.product.value().doubleValue(row, column);
+        }
+
+        @Override
+        void prepare() {
+            this.product = this.a.eval().multiply(this.b.eval());
+        }
+
+        @Override
+        void record() {
+            //recorded by MatReal.multiply when the product is prepared
+        }
+
+        @Override
+        boolean reads(MutableMatReal matrix) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.quackology.duckdevices.spaces;
+
+/**
+ * Fixed size 2x2 matrix of doubles
+ */
+public final class Mat2 {
+
+    /**
+     * Identity matrix
+     */
+    public static final Mat2 IDENTITY = new Mat2(1, 0, 0, 1);
+
+    private final double m00, m01;
+    private final double m10, m11;
+
+    /**
+     * Constructor of a matrix from its elements in row order
+     *
+     * @param m00 element at row 0, column 0
+     * @param m01 element at row 0, column 1
+     * @param m10 element at row 1, column 0
+     * @param m11 element at row 1, column 1
+     */
+    public Mat2(double m00, double m01, double m10, double m11) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m10 = m10;
+        this.m11 = m11;
+    }
+
+    /**
+     * Constructor of a matrix from a 2x2 MatReal
+     *
+     * @param matrix 2x2 MatReal containing the elements
+     * @return the matrix with the elements of matrix
+     */
+    public static Mat2 of(MatReal matrix) {
+        if (matrix.getRows() != 2 || matrix.getCols() != 2) {
+            throw new IllegalArgumentException("Matrix must be 2x2");
+        }
+        return new Mat2(
+            matrix.get(0, 0), matrix.get(0, 1),
+            matrix.get(1, 0), matrix.get(1, 1)
+        );
+    }
+
+    /**
+     * Forms the rotation matrix of the given angle
+     *
+     * @param theta the angle of the rotation
+     * @return the rotation matrix of theta
+     */
+    public static Mat2 rotation(double theta) {
+        double c = Math.cos(theta);
+        double s = Math.sin(theta);
+        return new Mat2(c, -s, s, c);
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        switch (row * 2 + column) {
+            case 0: return this.m00;
+            case 1: return this.m01;
+            case 2: return this.m10;
+            case 3: return this.m11;
+            default: throw new IndexOutOfBoundsException("Index out of bounds for a 2x2 matrix");
+        }
+    }
+
+    /**
+     * Adds the matrices together
+     *
+     * @param matrix the matrix to add to the current matrix
+     * @return the sum of the two matrices
+     */
+    public Mat2 add(Mat2 matrix) {
+        return new Mat2(
+            this.m00 + matrix.m00, this.m01 + matrix.m01,
+            this.m10 + matrix.m10, this.m11 + matrix.m11
+        );
+    }
+
+    /**
+     * Subtracts the matrices from each other
+     *
+     * @param matrix the matrix to subtract from the current matrix
+     * @return the difference of the two matrices
+     */
+    public Mat2 subtract(Mat2 matrix) {
+        return new Mat2(
+            this.m00 - matrix.m00, this.m01 - matrix.m01,
+            this.m10 - matrix.m10, this.m11 - matrix.m11
+        );
+    }
+
+    /**
+     * Multiplies the matrix by a scalar
+     *
+     * @param scalar the scalar to multiply against the current matrix
+     * @return the product of the matrix and the scalar
+     */
+    public Mat2 multiply(double scalar) {
+        return new Mat2(
+            this.m00 * scalar, this.m01 * scalar,
+            this.m10 * scalar, this.m11 * scalar
+        );
+    }
+
+    /**
+     * Multiplies the matrices together
+     *
+     * @param matrix the matrix to multiply against the current matrix
+     * @return the product of the two matrices
+     */
+    public Mat2 multiply(Mat2 matrix) {
+        return new Mat2(
+            this.m00 * matrix.m00 + this.m01 * matrix.m10, this.m00 * matrix.m01 + this.m01 * matrix.m11,
+            this.m10 * matrix.m00 + this.m11 * matrix.m10, this.m10 * matrix.m01 + this.m11 * matrix.m11
+        );
+    }
+
+    /**
+     * Multiplies the matrix with a vector
+     *
+     * @param vec the vector to multiply against the current matrix
+     * @return the product of the matrix and the vector
+     */
+    public Vec2 multiply(Vec2 vec) {
+        return new Vec2(
+            this.m00 * vec.getX() + this.m01 * vec.getY(),
+            this.m10 * vec.getX() + this.m11 * vec.getY()
+        );
+    }
+
+    /**
+     * Gets the transpose of the matrix
+     *
+     * @return the transpose of the matrix
+     */
+    public Mat2 transpose() {
+        return new Mat2(this.m00, this.m10, this.m01, this.m11);
+    }
+
+    /**
+     * Gets the determinant of the matrix
+     *
+     * @return the determinant of the matrix
+     */
+    public double determinant() {
+        return this.m00 * this.m11 - this.m01 * this.m10;
+    }
+
+    /**
+     * Gets the inverse of the matrix
+     *
+     * @return the inverse of the matrix
+     */
+    public Mat2 inverse() {
+        double det = this.determinant();
+        if (det == 0) {
+            throw new ArithmeticException("Matrix is singular");
+        }
+        double inv = 1 / det;
+        return new Mat2(
+            this.m11 * inv, -this.m01 * inv,
+            -this.m10 * inv, this.m00 * inv
+        );
+    }
+
+    /**
+     * Gets the trace of the matrix
+     *
+     * @return the trace of the matrix
+     */
+    public double trace() {
+        return this.m00 + this.m11;
+    }
+
+    /**
+     * Gets the matrix as a MatReal
+     *
+     * @return 2x2 MatReal of the matrix
+     */
+    public MatReal toMatReal() {
+        return new MatReal(new double[][] {
+            {this.m00, this.m01},
+            {this.m10, this.m11}
+        });
+    }
+
+    public String toString() {
+        return "[[" + this.m00 + ", " + this.m01 + "], [" + this.m10 + ", " + this.m11 + "]]";
+    }
+}
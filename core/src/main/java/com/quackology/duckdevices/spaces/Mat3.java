@@ -0,0 +1,262 @@
+package com.quackology.duckdevices.spaces;
+
+/**
+ * Fixed size 3x3 matrix of doubles
+ */
+public final class Mat3 {
+
+    /**
+     * Identity matrix
+     */
+    public static final Mat3 IDENTITY = new Mat3(1, 0, 0, 0, 1, 0, 0, 0, 1);
+
+    private final double m00, m01, m02;
+    private final double m10, m11, m12;
+    private final double m20, m21, m22;
+
+    /**
+     * Constructor of a matrix from its elements in row order
+     *
+     * @param m00 element at row 0, column 0
+     * @param m01 element at row 0, column 1
+     * @param m02 element at row 0, column 2
+     * @param m10 element at row 1, column 0
+     * @param m11 element at row 1, column 1
+     * @param m12 element at row 1, column 2
+     * @param m20 element at row 2, column 0
+     * @param m21 element at row 2, column 1
+     * @param m22 element at row 2, column 2
+     */
+    public Mat3(double m00, double m01, double m02,
+                double m10, double m11, double m12,
+                double m20, double m21, double m22) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        this.m20 = m20;
+        this.m21 = m21;
+        this.m22 = m22;
+    }
+
+    /**
+     * Constructor of a matrix from a 3x3 MatReal
+     *
+     * @param matrix 3x3 MatReal containing the elements
+     * @return the matrix with the elements of matrix
+     */
+    public static Mat3 of(MatReal matrix) {
+        if (matrix.getRows() != 3 || matrix.getCols() != 3) {
+            throw new IllegalArgumentException("Matrix must be 3x3");
+        }
+        return new Mat3(
+            matrix.get(0, 0), matrix.get(0, 1), matrix.get(0, 2),
+            matrix.get(1, 0), matrix.get(1, 1), matrix.get(1, 2),
+            matrix.get(2, 0), matrix.get(2, 1), matrix.get(2, 2)
+        );
+    }
+
+    /**
+     * Forms the skew symmetric (cross product) matrix of the vector
+     *
+     * @param vec the vector to form the matrix from
+     * @return the matrix such that skew(a) * b = a x b
+     */
+    public static Mat3 skew(Vec3 vec) {
+        return new Mat3(
+            0, -vec.getZ(), vec.getY(),
+            vec.getZ(), 0, -vec.getX(),
+            -vec.getY(), vec.getX(), 0
+        );
+    }
+
+    /**
+     * Gets the values of the matrix
+     *
+     * @return a 3x3 array of the values in row order
+     */
+    public double[][] get() {
+        return new double[][] {
+            {this.m00, this.m01, this.m02},
+            {this.m10, this.m11, this.m12},
+            {this.m20, this.m21, this.m22}
+        };
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        switch (row * 3 + column) {
+            case 0: return this.m00;
+            case 1: return this.m01;
+            case 2: return this.m02;
+            case 3: return this.m10;
+            case 4: return this.m11;
+            case 5: return this.m12;
+            case 6: return this.m20;
+            case 7: return this.m21;
+            case 8: return this.m22;
+            default: throw new IndexOutOfBoundsException("Index out of bounds for a 3x3 matrix");
+        }
+    }
+
+    /**
+     * Adds the matrices together
+     *
+     * @param matrix the matrix to add to the current matrix
+     * @return the sum of the two matrices
+     */
+    public Mat3 add(Mat3 matrix) {
+        return new Mat3(
+            this.m00 + matrix.m00, this.m01 + matrix.m01, this.m02 + matrix.m02,
+            this.m10 + matrix.m10, this.m11 + matrix.m11, this.m12 + matrix.m12,
+            this.m20 + matrix.m20, this.m21 + matrix.m21, this.m22 + matrix.m22
+        );
+    }
+
+    /**
+     * Subtracts the matrices from each other
+     *
+     * @param matrix the matrix to subtract from the current matrix
+     * @return the difference of the two matrices
+     */
+    public Mat3 subtract(Mat3 matrix) {
+        return new Mat3(
+            this.m00 - matrix.m00, this.m01 - matrix.m01, this.m02 - matrix.m02,
+            this.m10 - matrix.m10, this.m11 - matrix.m11, this.m12 - matrix.m12,
+            this.m20 - matrix.m20, this.m21 - matrix.m21, this.m22 - matrix.m22
+        );
+    }
+
+    /**
+     * Multiplies the matrix by a scalar
+     *
+     * @param scalar the scalar to multiply against the current matrix
+     * @return the product of the matrix and the scalar
+     */
+    public Mat3 multiply(double scalar) {
+        return new Mat3(
+            this.m00 * scalar, this.m01 * scalar, this.m02 * scalar,
+            this.m10 * scalar, this.m11 * scalar, this.m12 * scalar,
+            this.m20 * scalar, this.m21 * scalar, this.m22 * scalar
+        );
+    }
+
+    /**
+     * Multiplies the matrices together
+     *
+     * @param matrix the matrix to multiply against the current matrix
+     * @return the product of the two matrices
+     */
+    public Mat3 multiply(Mat3 matrix) {
+        return new Mat3(
+            this.m00 * matrix.m00 + this.m01 * matrix.m10 + this.m02 * matrix.m20,
+            this.m00 * matrix.m01 + this.m01 * matrix.m11 + this.m02 * matrix.m21,
+            this.m00 * matrix.m02 + this.m01 * matrix.m12 + this.m02 * matrix.m22,
+            this.m10 * matrix.m00 + this.m11 * matrix.m10 + this.m12 * matrix.m20,
+            this.m10 * matrix.m01 + this.m11 * matrix.m11 + this.m12 * matrix.m21,
+            this.m10 * matrix.m02 + this.m11 * matrix.m12 + this.m12 * matrix.m22,
+            this.m20 * matrix.m00 + this.m21 * matrix.m10 + this.m22 * matrix.m20,
+            this.m20 * matrix.m01 + this.m21 * matrix.m11 + this.m22 * matrix.m21,
+            this.m20 * matrix.m02 + this.m21 * matrix.m12 + this.m22 * matrix.m22
+        );
+    }
+
+    /**
+     * Multiplies the matrix with a vector
+     *
+     * @param vec the vector to multiply against the current matrix
+     * @return the product of the matrix and the vector
+     */
+    public Vec3 multiply(Vec3 vec) {
+        return new Vec3(
+            this.m00 * vec.getX() + this.m01 * vec.getY() + this.m02 * vec.getZ(),
+            this.m10 * vec.getX() + this.m11 * vec.getY() + this.m12 * vec.getZ(),
+            this.m20 * vec.getX() + this.m21 * vec.getY() + this.m22 * vec.getZ()
+        );
+    }
+
+    /**
+     * Gets the transpose of the matrix
+     *
+     * @return the transpose of the matrix
+     */
+    public Mat3 transpose() {
+        return new Mat3(
+            this.m00, this.m10, this.m20,
+            this.m01, this.m11, this.m21,
+            this.m02, this.m12, this.m22
+        );
+    }
+
+    /**
+     * Gets the determinant of the matrix
+     *
+     * @return the determinant of the matrix
+     */
+    public double determinant() {
+        return this.m00 * (this.m11 * this.m22 - this.m12 * this.m21)
+            - this.m01 * (this.m10 * this.m22 - this.m12 * this.m20)
+            + this.m02 * (this.m10 * this.m21 - this.m11 * this.m20);
+    }
+
+    /**
+     * Gets the inverse of the matrix
+     *
+     * @return the inverse of the matrix
+     */
+    public Mat3 inverse() {
+        double c00 = this.m11 * this.m22 - this.m12 * this.m21;
+        double c01 = this.m12 * this.m20 - this.m10 * this.m22;
+        double c02 = this.m10 * this.m21 - this.m11 * this.m20;
+
+        double det = this.m00 * c00 + this.m01 * c01 + this.m02 * c02;
+        if (det == 0) {
+            throw new ArithmeticException("Matrix is singular");
+        }
+        double inv = 1 / det;
+
+        return new Mat3(
+            c00 * inv,
+            (this.m02 * this.m21 - this.m01 * this.m22) * inv,
+            (this.m01 * this.m12 - this.m02 * this.m11) * inv,
+            c01 * inv,
+            (this.m00 * this.m22 - this.m02 * this.m20) * inv,
+            (this.m02 * this.m10 - this.m00 * this.m12) * inv,
+            c02 * inv,
+            (this.m01 * this.m20 - this.m00 * this.m21) * inv,
+            (this.m00 * this.m11 - this.m01 * this.m10) * inv
+        );
+    }
+
+    /**
+     * Gets the trace of the matrix
+     *
+     * @return the trace of the matrix
+     */
+    public double trace() {
+        return this.m00 + this.m11 + this.m22;
+    }
+
+    /**
+     * Gets the matrix as a MatReal
+     *
+     * @return 3x3 MatReal of the matrix
+     */
+    public MatReal toMatReal() {
+        return new MatReal(this.get());
+    }
+
+    public String toString() {
+        return "[[" + this.m00 + ", " + this.m01 + ", " + this.m02 + "], ["
+            + this.m10 + ", " + this.m11 + ", " + this.m12 + "], ["
+            + this.m20 + ", " + this.m21 + ", " + this.m22 + "]]";
+    }
+}
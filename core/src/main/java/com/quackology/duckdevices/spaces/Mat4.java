@@ -0,0 +1,339 @@
+package com.quackology.duckdevices.spaces;
+
+/**
+ * Fixed size 4x4 matrix of doubles
+ * <p>
+ * Mostly used as a homogeneous transformation in 3D
+ */
+public final class Mat4 {
+
+    /**
+     * Identity matrix
+     */
+    public static final Mat4 IDENTITY = new Mat4(
+        1, 0, 0, 0,
+        0, 1, 0, 0,
+        0, 0, 1, 0,
+        0, 0, 0, 1
+    );
+
+    private final double m00, m01, m02, m03;
+    private final double m10, m11, m12, m13;
+    private final double m20, m21, m22, m23;
+    private final double m30, m31, m32, m33;
+
+    /**
+     * Constructor of a matrix from its elements in row order
+     *
+     * @param m00 element at row 0, column 0
+     * @param m01 element at row 0, column 1
+     * @param m02 element at row 0, column 2
+     * @param m03 element at row 0, column 3
+     * @param m10 element at row 1, column 0
+     * @param m11 element at row 1, column 1
+     * @param m12 element at row 1, column 2
+     * @param m13 element at row 1, column 3
+     * @param m20 element at row 2, column 0
+     * @param m21 element at row 2, column 1
+     * @param m22 element at row 2, column 2
+     * @param m23 element at row 2, column 3
+     * @param m30 element at row 3, column 0
+     * @param m31 element at row 3, column 1
+     * @param m32 element at row 3, column 2
+     * @param m33 element at row 3, column 3
+     */
+    public Mat4(double m00, double m01, double m02, double m03,
+                double m10, double m11, double m12, double m13,
+                double m20, double m21, double m22, double m23,
+                double m30, double m31, double m32, double m33) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m03 = m03;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        this.m13 = m13;
+        this.m20 = m20;
+        this.m21 = m21;
+        this.m22 = m22;
+        this.m23 = m23;
+        this.m30 = m30;
+        this.m31 = m31;
+        this.m32 = m32;
+        this.m33 = m33;
+    }
+
+    /**
+     * Constructor of a matrix from a 4x4 MatReal
+     *
+     * @param matrix 4x4 MatReal containing the elements
+     * @return the matrix with the elements of matrix
+     */
+    public static Mat4 of(MatReal matrix) {
+        if (matrix.getRows() != 4 || matrix.getCols() != 4) {
+            throw new IllegalArgumentException("Matrix must be 4x4");
+        }
+        return new Mat4(
+            matrix.get(0, 0), matrix.get(0, 1), matrix.get(0, 2), matrix.get(0, 3),
+            matrix.get(1, 0), matrix.get(1, 1), matrix.get(1, 2), matrix.get(1, 3),
+            matrix.get(2, 0), matrix.get(2, 1), matrix.get(2, 2), matrix.get(2, 3),
+            matrix.get(3, 0), matrix.get(3, 1), matrix.get(3, 2), matrix.get(3, 3)
+        );
+    }
+
+    /**
+     * Forms the homogeneous transformation of a rotation and a translation
+     *
+     * @param rot the rotation
+     * @param pos the translation
+     * @return the homogeneous transformation [[rot, pos], [0, 1]]
+     */
+    public static Mat4 transformation(Mat3 rot, Vec3 pos) {
+        return new Mat4(
+            rot.get(0, 0), rot.get(0, 1), rot.get(0, 2), pos.getX(),
+            rot.get(1, 0), rot.get(1, 1), rot.get(1, 2), pos.getY(),
+            rot.get(2, 0), rot.get(2, 1), rot.get(2, 2), pos.getZ(),
+            0, 0, 0, 1
+        );
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        switch (row * 4 + column) {
+            case 0: return this.m00;
+            case 1: return this.m01;
+            case 2: return this.m02;
+            case 3: return this.m03;
+            case 4: return this.m10;
+            case 5: return this.m11;
+            case 6: return this.m12;
+            case 7: return this.m13;
+            case 8: return this.m20;
+            case 9: return this.m21;
+            case 10: return this.m22;
+            case 11: return this.m23;
+            case 12: return this.m30;
+            case 13: return this.m31;
+            case 14: return this.m32;
+            case 15: return this.m33;
+            default: throw new IndexOutOfBoundsException("Index out of bounds for a 4x4 matrix");
+        }
+    }
+
+    /**
+     * Adds the matrices together
+     *
+     * @param matrix the matrix to add to the current matrix
+     * @return the sum of the two matrices
+     */
+    public Mat4 add(Mat4 matrix) {
+        return new Mat4(
+            this.m00 + matrix.m00, this.m01 + matrix.m01, this.m02 + matrix.m02, this.m03 + matrix.m03,
+            this.m10 + matrix.m10, this.m11 + matrix.m11, this.m12 + matrix.m12, this.m13 + matrix.m13,
+            this.m20 + matrix.m20, this.m21 + matrix.m21, this.m22 + matrix.m22, this.m23 + matrix.m23,
+            this.m30 + matrix.m30, this.m31 + matrix.m31, this.m32 + matrix.m32, this.m33 + matrix.m33
+        );
+    }
+
+    /**
+     * Subtracts the matrices from each other
+     *
+     * @param matrix the matrix to subtract from the current matrix
+     * @return the difference of the two matrices
+     */
+    public Mat4 subtract(Mat4 matrix) {
+        return new Mat4(
+            this.m00 - matrix.m00, this.m01 - matrix.m01, this.m02 - matrix.m02, this.m03 - matrix.m03,
+            this.m10 - matrix.m10, this.m11 - matrix.m11, this.m12 - matrix.m12, this.m13 - matrix.m13,
+            this.m20 - matrix.m20, this.m21 - matrix.m21, this.m22 - matrix.m22, this.m23 - matrix.m23,
+            this.m30 - matrix.m30, this.m31 - matrix.m31, this.m32 - matrix.m32, this.m33 - matrix.m33
+        );
+    }
+
+    /**
+     * Multiplies the matrix by a scalar
+     *
+     * @param scalar the scalar to multiply against the current matrix
+     * @return the product of the matrix and the scalar
+     */
+    public Mat4 multiply(double scalar) {
+        return new Mat4(
+            this.m00 * scalar, this.m01 * scalar, this.m02 * scalar, this.m03 * scalar,
+            this.m10 * scalar, this.m11 * scalar, this.m12 * scalar, this.m13 * scalar,
+            this.m20 * scalar, this.m21 * scalar, this.m22 * scalar, this.m23 * scalar,
+            this.m30 * scalar, this.m31 * scalar, this.m32 * scalar, this.m33 * scalar
+        );
+    }
+
+    /**
+     * Multiplies the matrices together
+     *
+     * @param matrix the matrix to multiply against the current matrix
+     * @return the product of the two matrices
+     */
+    public Mat4 multiply(Mat4 matrix) {
+        return new Mat4(
+            this.m00 * matrix.m00 + this.m01 * matrix.m10 + this.m02 * matrix.m20 + this.m03 * matrix.m30,
+            this.m00 * matrix.m01 + this.m01 * matrix.m11 + this.m02 * matrix.m21 + this.m03 * matrix.m31,
+            this.m00 * matrix.m02 + this.m01 * matrix.m12 + this.m02 * matrix.m22 + this.m03 * matrix.m32,
+            this.m00 * matrix.m03 + this.m01 * matrix.m13 + this.m02 * matrix.m23 + this.m03 * matrix.m33,
+            this.m10 * matrix.m00 + this.m11 * matrix.m10 + this.m12 * matrix.m20 + this.m13 * matrix.m30,
+            this.m10 * matrix.m01 + this.m11 * matrix.m11 + this.m12 * matrix.m21 + this.m13 * matrix.m31,
+            this.m10 * matrix.m02 + this.m11 * matrix.m12 + this.m12 * matrix.m22 + this.m13 * matrix.m32,
+            this.m10 * matrix.m03 + this.m11 * matrix.m13 + this.m12 * matrix.m23 + this.m13 * matrix.m33,
+            this.m20 * matrix.m00 + this.m21 * matrix.m10 + this.m22 * matrix.m20 + this.m23 * matrix.m30,
+            this.m20 * matrix.m01 + this.m21 * matrix.m11 + this.m22 * matrix.m21 + this.m23 * matrix.m31,
+            this.m20 * matrix.m02 + this.m21 * matrix.m12 + this.m22 * matrix.m22 + this.m23 * matrix.m32,
+            this.m20 * matrix.m03 + this.m21 * matrix.m13 + this.m22 * matrix.m23 + this.m23 * matrix.m33,
+            this.m30 * matrix.m00 + this.m31 * matrix.m10 + this.m32 * matrix.m20 + this.m33 * matrix.m30,
+            this.m30 * matrix.m01 + this.m31 * matrix.m11 + this.m32 * matrix.m21 + this.m33 * matrix.m31,
+            this.m30 * matrix.m02 + this.m31 * matrix.m12 + this.m32 * matrix.m22 + this.m33 * matrix.m32,
+            this.m30 * matrix.m03 + this.m31 * matrix.m13 + this.m32 * matrix.m23 + this.m33 * matrix.m33
+        );
+    }
+
+    /**
+     * Transforms a point by the matrix as a homogeneous transformation
+     * <p>
+     * The point is extended with a 1 and the result is divided by the last element
+     *
+     * @param point the point to transform
+     * @return the transformed point
+     */
+    public Vec3 transformPoint(Vec3 point) {
+        double x = point.getX();
+        double y = point.getY();
+        double z = point.getZ();
+        double w = this.m30 * x + this.m31 * y + this.m32 * z + this.m33;
+        return new Vec3(
+            (this.m00 * x + this.m01 * y + this.m02 * z + this.m03) / w,
+            (this.m10 * x + this.m11 * y + this.m12 * z + this.m13) / w,
+            (this.m20 * x + this.m21 * y + this.m22 * z + this.m23) / w
+        );
+    }
+
+    /**
+     * Gets the transpose of the matrix
+     *
+     * @return the transpose of the matrix
+     */
+    public Mat4 transpose() {
+        return new Mat4(
+            this.m00, this.m10, this.m20, this.m30,
+            this.m01, this.m11, this.m21, this.m31,
+            this.m02, this.m12, this.m22, this.m32,
+            this.m03, this.m13, this.m23, this.m33
+        );
+    }
+
+    /**
+     * Gets the determinant of the matrix
+     *
+     * @return the determinant of the matrix
+     */
+    public double determinant() {
+        double s0 = this.m00 * this.m11 - this.m10 * this.m01;
+        double s1 = this.m00 * this.m12 - this.m10 * this.m02;
+        double s2 = this.m00 * this.m13 - this.m10 * this.m03;
+        double s3 = this.m01 * this.m12 - this.m11 * this.m02;
+        double s4 = this.m01 * this.m13 - this.m11 * this.m03;
+        double s5 = this.m02 * this.m13 - this.m12 * this.m03;
+
+        double c5 = this.m22 * this.m33 - this.m32 * this.m23;
+        double c4 = this.m21 * this.m33 - this.m31 * this.m23;
+        double c3 = this.m21 * this.m32 - this.m31 * this.m22;
+        double c2 = this.m20 * this.m33 - this.m30 * this.m23;
+        double c1 = this.m20 * this.m32 - this.m30 * this.m22;
+        double c0 = this.m20 * this.m31 - this.m30 * this.m21;
+
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    /**
+     * Gets the inverse of the matrix
+     * <p>
+     * Computed from the 2x2 minors of the top and bottom row pairs
+     *
+     * @return the inverse of the matrix
+     */
+    public Mat4 inverse() {
+        double s0 = this.m00 * this.m11 - this.m10 * this.m01;
+        double s1 = this.m00 * this.m12 - this.m10 * this.m02;
+        double s2 = this.m00 * this.m13 - this.m10 * this.m03;
+        double s3 = this.m01 * this.m12 - this.m11 * this.m02;
+        double s4 = this.m01 * this.m13 - this.m11 * this.m03;
+        double s5 = this.m02 * this.m13 - this.m12 * this.m03;
+
+        double c5 = this.m22 * this.m33 - this.m32 * this.m23;
+        double c4 = this.m21 * this.m33 - this.m31 * this.m23;
+        double c3 = this.m21 * this.m32 - this.m31 * this.m22;
+        double c2 = this.m20 * this.m33 - this.m30 * this.m23;
+        double c1 = this.m20 * this.m32 - this.m30 * this.m22;
+        double c0 = this.m20 * this.m31 - this.m30 * this.m21;
+
+        double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        if (det == 0) {
+            throw new ArithmeticException("Matrix is singular");
+        }
+        double inv = 1 / det;
+
+        return new Mat4(
+            (this.m11 * c5 - this.m12 * c4 + this.m13 * c3) * inv,
+            (-this.m01 * c5 + this.m02 * c4 - this.m03 * c3) * inv,
+            (this.m31 * s5 - this.m32 * s4 + this.m33 * s3) * inv,
+            (-this.m21 * s5 + this.m22 * s4 - this.m23 * s3) * inv,
+
+            (-this.m10 * c5 + this.m12 * c2 - this.m13 * c1) * inv,
+            (this.m00 * c5 - this.m02 * c2 + this.m03 * c1) * inv,
+            (-this.m30 * s5 + this.m32 * s2 - this.m33 * s1) * inv,
+            (this.m20 * s5 - this.m22 * s2 + this.m23 * s1) * inv,
+
+            (this.m10 * c4 - this.m11 * c2 + this.m13 * c0) * inv,
+            (-this.m00 * c4 + this.m01 * c2 - this.m03 * c0) * inv,
+            (this.m30 * s4 - this.m31 * s2 + this.m33 * s0) * inv,
+            (-this.m20 * s4 + this.m21 * s2 - this.m23 * s0) * inv,
+
+            (-this.m10 * c3 + this.m11 * c1 - this.m12 * c0) * inv,
+            (this.m00 * c3 - this.m01 * c1 + this.m02 * c0) * inv,
+            (-this.m30 * s3 + this.m31 * s1 - this.m32 * s0) * inv,
+            (this.m20 * s3 - this.m21 * s1 + this.m22 * s0) * inv
+        );
+    }
+
+    /**
+     * Gets the trace of the matrix
+     *
+     * @return the trace of the matrix
+     */
+    public double trace() {
+        return this.m00 + this.m11 + this.m22 + this.m33;
+    }
+
+    /**
+     * Gets the matrix as a MatReal
+     *
+     * @return 4x4 MatReal of the matrix
+     */
+    public MatReal toMatReal() {
+        return new MatReal(new double[][] {
+            {this.m00, this.m01, this.m02, this.m03},
+            {this.m10, this.m11, this.m12, this.m13},
+            {this.m20, this.m21, this.m22, this.m23},
+            {this.m30, this.m31, this.m32, this.m33}
+        });
+    }
+
+    public String toString() {
+        return "[[" + this.m00 + ", " + this.m01 + ", " + this.m02 + ", " + this.m03 + "], ["
+            + this.m10 + ", " + this.m11 + ", " + this.m12 + ", " + this.m13 + "], ["
+            + this.m20 + ", " + this.m21 + ", " + this.m22 + ", " + this.m23 + "], ["
+            + this.m30 + ", " + this.m31 + ", " + this.m32 + ", " + this.m33 + "]]";
+    }
+}
@@ -1,16 +1,21 @@
 package com.quackology.duckdevices.spaces;
 
 import org.ojalgo.matrix.MatrixC128;
-import org.ojalgo.matrix.MatrixR064;
 import org.ojalgo.matrix.store.GenericStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.scalar.ComplexNumber;
 
+import com.quackology.duckdevices.utils.ArrayMath;
+
 /**
  * Wrapper class for 2D matrix of complex numbers
  * <p>
- * Based on OjAlgo's ComplexMatrix interface (MatrixC128)
+ * Values are stored row by row in a single array of doubles with the real and imaginary parts interleaved, element (i, j) is at 2 * (i * cols + j)
+ * <p>
+ * Primitive accessors read the array directly, the Complex returning accessors are a convenience that allocate
+ * <p>
+ * OjAlgo's ComplexMatrix interface (MatrixC128) is only used for the inverse and determinant
  */
 public class MatComplex implements Mat<MatComplex> {
 
@@ -19,83 +24,69 @@ public class MatComplex implements Mat<MatComplex> {
 	 */
 	private static final MatrixC128.Factory MATRIX_FACTORY = MatrixC128.FACTORY;
     private static final PhysicalStore.Factory<ComplexNumber, ?> STORE_FACTORY = GenericStore.C128;
+
     /**
-     * Values of the matrix
+     * Number of rows of the matrix
      */
-	private final MatrixC128 value;
+    private final int rows;
 
     /**
-     * Constructor of a matrix based on the OjAlgo MatrixC128
-     * 
-     * @param matrix MatrixC128 from OjAlgo containing the values of the matrix
+     * Number of columns of the matrix
      */
-    private MatComplex(MatrixC128 matrix) {
-        this.value = matrix;
-    }
+    private final int cols;
 
     /**
-     * Constructor of a matrix based on the OjAlgo MatrixStore
-     *
-     * @param matrix MatrixStore from OjAlgo containing the values of the matrix
+     * Values of the matrix, real and imaginary parts interleaved row by row
      */
-    private MatComplex(MatrixStore<ComplexNumber> matrix) {
-        this.value = MATRIX_FACTORY.copy(matrix);
-    }
+	private final double[] values;
 
     /**
-     * Constructor of a matrix with real matrices representing real and imaginary parts based on OjAlgo's MatrixR064
-     * 
-     * @param real MatrixR064 from ojAlgo containing the real part of the matrix
-     * @param img MatrixR064 containing the imaginary part of the matrix
+     * Constructor of a matrix with the given array as values
+     * <p>
+     * The array is used as is and must not be modified afterwards
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @param values interleaved values row by row
      */
-    private MatComplex(MatrixR064 real, MatrixR064 img) {
-        if (real.getRowDim() != img.getRowDim() || real.getColDim() != img.getColDim()) {
-            throw new IllegalArgumentException("Real and imaginary parts must be the same size");
+    MatComplex(int rows, int columns, double[] values) {
+        this.rows = rows;
+        this.cols = columns;
+        this.values = values;
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated((long) rows * columns, 16);
         }
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.make(real);
-        for (int i = 0; i < out.getRowDim(); i++) {
-            for (int j = 0; j < out.getColDim(); j++) {
-                out.set(i, j, ComplexNumber.of(real.get(i, j), img.get(i, j)));
-            }
-        }
-
-        this.value = MATRIX_FACTORY.copy(out);
     }
 
     /**
-     * Constructor of a matrix with real matrices representing real and imaginary parts based on OjAlgo's MatrixStore
+     * Constructor of a matrix based on the OjAlgo MatrixStore
      *
-     * @param real MatrixStore from ojAlgo containing the real part of the matrix
-     * @param img MatrixStore containing the imaginary part of the matrix
+     * @param matrix MatrixStore from OjAlgo containing the values of the matrix
      */
-    private MatComplex(MatrixStore<Double> real, MatrixStore<Double> img) {
-        if (real.getRowDim() != img.getRowDim() || real.getColDim() != img.getColDim()) {
-            throw new IllegalArgumentException("Real and imaginary parts must be the same size");
-        }
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.make(real);
-        for (int i = 0; i < out.getRowDim(); i++) {
-            for (int j = 0; j < out.getColDim(); j++) {
-                out.set(i, j, ComplexNumber.of(real.get(i, j), img.get(i, j)));
+    private MatComplex(MatrixStore<ComplexNumber> matrix) {
+        this(matrix.getRowDim(), matrix.getColDim(), new double[2 * matrix.getRowDim() * matrix.getColDim()]);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                ComplexNumber value = matrix.get(i, j);
+                this.values[this.index(i, j)] = value.getReal();
+                this.values[this.index(i, j) + 1] = value.getImaginary();
             }
         }
-
-        this.value = MATRIX_FACTORY.copy(out);
     }
 
     /**
      * Constructor of a matrix with a 2D array of complex numbers
-     * 
+     *
      * @param matrix 2D array of complex numbers containing the values of the matrix
      */
     public MatComplex(Complex[][] matrix) {
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.make(matrix.length, matrix.length == 0 ? 0 : matrix[0].length);
-        for (int i = 0; i < out.getRowDim(); i++) {
-            for (int j = 0; j < out.getColDim(); j++) {
-                out.set(i, j, ComplexNumber.of(matrix[i][j].getReal(), matrix[i][j].getImg()));
+        this(matrix.length, matrix.length == 0 ? 0 : matrix[0].length, new double[2 * matrix.length * (matrix.length == 0 ? 0 : matrix[0].length)]);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                this.values[this.index(i, j)] = matrix[i][j].getReal();
+                this.values[this.index(i, j) + 1] = matrix[i][j].getImg();
             }
         }
-
-        this.value = MATRIX_FACTORY.copy(out);
     }
 
     /**
@@ -104,12 +95,12 @@ public class MatComplex implements Mat<MatComplex> {
      * @param value Value of only element in the matrix
      */
     public MatComplex(Complex value) {
-        this(new Complex[][] {{value}});
+        this(value.getReal(), value.getImg());
     }
 
     /**
      * Constructor of a matrix with matrices of real and imaginary parts based on MatReal
-     * 
+     *
      * @param real MatReal containing the real part of the matrix
      * @param img MatReal containing the imaginary part of the matrix
      */
@@ -119,22 +110,21 @@ public class MatComplex implements Mat<MatComplex> {
 
     /**
      * Constructor of a matrix with 2D arrays of doubles of real and imaginary parts
-     * 
+     *
      * @param real 2D array of doubles containing the real part of the matrix
      * @param img 2D array of doubles containing the imaginary part of the matrix
      */
     public MatComplex(double[][] real, double[][] img) {
-        if (real.length != img.length || (real.length == 0 ? 0 : real[0].length) != (img.length == 0 ? 0 : img[0].length)) {
+        this(real.length, real.length == 0 ? 0 : real[0].length, new double[2 * real.length * (real.length == 0 ? 0 : real[0].length)]);
+        if (real.length != img.length || this.cols != (img.length == 0 ? 0 : img[0].length)) {
             throw new IllegalArgumentException("Real and imaginary parts must be the same size");
         }
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.make(real.length, real.length == 0 ? 0 : real[0].length);
-        for (int i = 0; i < out.getRowDim(); i++) {
-            for (int j = 0; j < out.getColDim(); j++) {
-                out.set(i, j, ComplexNumber.of(real[i][j], img[i][j]));
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                this.values[this.index(i, j)] = real[i][j];
+                this.values[this.index(i, j) + 1] = img[i][j];
             }
         }
-
-        this.value = MATRIX_FACTORY.copy(out);
     }
 
     /**
@@ -144,19 +134,28 @@ public class MatComplex implements Mat<MatComplex> {
      * @param img Imaginary part of the only element in the matrix
      */
     public MatComplex(double real, double img) {
-        this(new Complex(real, img));
+        this(1, 1, new double[] {real, img});
+    }
+
+    /**
+     * Gets the interleaved values backing the matrix
+     *
+     * @return the interleaved values backing the matrix
+     */
+    double[] values() {
+        return this.values;
     }
 
     /**
      * Gets a 2D array of complex numbers containing the values of the matrix
-     * 
+     *
      * @return a 2D array of complex numbers containing the values of the matrix
      */
     public Complex[][] get() {
-        Complex[][] out = new Complex[this.getRows()][this.getCols()];
-        for (int i = 0; i < this.getRows(); i++) {
-            for (int j = 0; j < this.getCols(); j++) {
-                out[i][j] = new Complex(this.value.get(i, j).getReal(), this.value.get(i, j).getImaginary());
+        Complex[][] out = new Complex[this.rows][this.cols];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out[i][j] = this.get(i, j);
             }
         }
         return out;
@@ -164,66 +163,110 @@ public class MatComplex implements Mat<MatComplex> {
 
     /**
      * Gets the value at the given row and column
-     * 
+     *
      * @param row row of the value
      * @param column column of the value
      * @return the value at the given row and column
      */
     public Complex get(int row, int column) {
-        return new Complex(this.value.get(row, column).getReal(), this.value.get(row, column).getImaginary());
+        int index = this.index(row, column);
+        return new Complex(this.values[index], this.values[index + 1]);
+    }
+
+    /**
+     * Gets the real part of the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the real part of the value at the given row and column
+     */
+    public double getReal(int row, int column) {
+        return this.values[this.index(row, column)];
+    }
+
+    /**
+     * Gets the imaginary part of the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the imaginary part of the value at the given row and column
+     */
+    public double getImg(int row, int column) {
+        return this.values[this.index(row, column) + 1];
     }
 
     public MatReal getReal() {
-        return new MatReal(this.value.getReal().toRawCopy2D());
+        return this.part(0);
     }
 
     public MatReal getImg() {
-        return new MatReal(this.value.getImaginary().toRawCopy2D());
+        return this.part(1);
     }
-    
+
     @Override
     public int getRows() {
-        return this.value.getRowDim();
+        return this.rows;
     }
 
     @Override
     public int getCols() {
-        return this.value.getColDim();
+        return this.cols;
     }
 
     @Override
     public MatComplex getRow(int row) {
-        return new MatComplex(this.value.row(row));
+        return this.subMat(row, 0, 1, this.cols);
     }
 
     @Override
     public MatComplex getCol(int column) {
-        return new MatComplex(this.value.column(column));
+        return this.subMat(0, column, this.rows, 1);
     }
 
     @Override
     public MatReal toVector() {
-        MatReal[] vector = new MatReal[this.getCols()*2];
-        for (int i = 0; i < this.getCols(); i++) {
-            vector[i] = this.getCol(i).getReal();
-            vector[i+this.getCols()] = this.getCol(i).getImg();
+        double[][] out = new double[2 * this.rows * this.cols][1];
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                out[j * this.rows + i][0] = this.getReal(i, j);
+                out[(this.cols + j) * this.rows + i][0] = this.getImg(i, j);
+            }
         }
-        return MatReal.vertical(vector);
+        return new MatReal(out);
     }
 
     @Override
     public MatComplex transpose() {
-        return new MatComplex(this.value.transpose());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.TRANSPOSE, 0);
+        }
+        double[] out = new double[this.values.length];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                int from = this.index(i, j);
+                int to = 2 * (j * this.rows + i);
+                out[to] = this.values[from];
+                out[to + 1] = this.values[from + 1];
+            }
+        }
+        return new MatComplex(this.cols, this.rows, out);
     }
 
     @Override
     public MatComplex subMat(int row, int column, int height, int width) {
-        return new MatComplex(this.value.offsets(row, column).limits(height, width));
+        if (row < 0 || column < 0 || height < 0 || width < 0 || row + height > this.rows || column + width > this.cols) {
+            throw new IllegalArgumentException("Submatrix must lie inside the matrix");
+        }
+        double[] out = new double[2 * height * width];
+        for (int i = 0; i < height; i++) {
+            System.arraycopy(this.values, this.index(row + i, column), out, 2 * i * width, 2 * width);
+        }
+        return new MatComplex(height, width, out);
     }
 
     /**
      * Gets a new matrix with the value at the given row and column set to the complex value of the given real and imaginary parts
-     * 
+     *
      * @param row row of the element getting replaced
      * @param column column of the element getting replaced
      * @param real real part of complex number to replace the element with
@@ -231,14 +274,15 @@ public class MatComplex implements Mat<MatComplex> {
      * @return a new matrix with the value at the given row and column set to the complex value of the given real and imaginary parts
      */
     public MatComplex set(int row, int column, double real, double img) {
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.copy(this.value);
-        out.set(row, column, ComplexNumber.of(real, img));
-        return new MatComplex(out);
+        double[] out = this.values.clone();
+        out[this.index(row, column)] = real;
+        out[this.index(row, column) + 1] = img;
+        return new MatComplex(this.rows, this.cols, out);
     }
 
     /**
      * Gets a new matrix with the value at the given row and column set to the given complex value
-     * 
+     *
      * @param row row of the element getting replaced
      * @param column column of the element getting replaced
      * @param value complex number to replace the element with
@@ -250,38 +294,71 @@ public class MatComplex implements Mat<MatComplex> {
 
     @Override
     public MatComplex add(MatComplex matrix) {
-        return new MatComplex(this.value.add(matrix.value));
+        this.checkDimensions(matrix);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, 2L * this.rows * this.cols);
+        }
+        double[] out = new double[this.values.length];
+        ArrayMath.add(this.values, matrix.values, out);
+        return new MatComplex(this.rows, this.cols, out);
     }
 
     @Override
     public MatComplex subtract(MatComplex matrix) {
-        return new MatComplex(this.value.subtract(matrix.value));
-
+        this.checkDimensions(matrix);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, 2L * this.rows * this.cols);
+        }
+        double[] out = new double[this.values.length];
+        ArrayMath.subtract(this.values, matrix.values, out);
+        return new MatComplex(this.rows, this.cols, out);
     }
 
     @Override
     public MatComplex multiply(MatComplex matrix) {
-        return new MatComplex(this.value.multiply(matrix.value));
+        if (this.cols != matrix.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 8L * this.rows * this.cols * matrix.cols);
+        }
+        double[] out = new double[2 * this.rows * matrix.cols];
+        double[] other = matrix.values;
+        int width = 2 * matrix.cols;
+        for (int i = 0; i < this.rows; i++) {
+            int row = i * width;
+            for (int k = 0; k < this.cols; k++) {
+                double re = this.values[this.index(i, k)];
+                double im = this.values[this.index(i, k) + 1];
+                int offset = k * width;
+                for (int j = 0; j < width; j += 2) {
+                    out[row + j] += re * other[offset + j] - im * other[offset + j + 1];
+                    out[row + j + 1] += re * other[offset + j + 1] + im * other[offset + j];
+                }
+            }
+        }
+        return new MatComplex(this.rows, matrix.cols, out);
     }
 
     @Override
     public MatComplex multiply(double scalar) {
-        return new MatComplex(this.value.multiply(scalar));
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SCALE, 2L * this.rows * this.cols);
+        }
+        double[] out = this.values.clone();
+        ArrayMath.scale(scalar, out);
+        return new MatComplex(this.rows, this.cols, out);
     }
 
     @Override
     public MatComplex hadamardProduct(MatComplex matrix) {
-        if (this.getRows() != matrix.getRows() || this.getCols() != matrix.getCols()) {
-            throw new IllegalArgumentException("Matrix must have the same dimensions");
-        }
-        Complex[][] out = this.get();
-        for(int i = 0; i < out.length; i++) {
-            for(int j = 0; j < out[i].length; j++) {
-                out[i][j] = out[i][j].multiply(matrix.get(i, j));
-            }
+        this.checkDimensions(matrix);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, 6L * this.rows * this.cols);
         }
-
-        return new MatComplex(out);
+        double[] out = new double[this.values.length];
+        ArrayMath.complexMultiply(this.values, matrix.values, out);
+        return new MatComplex(this.rows, this.cols, out);
     }
 
     /**
@@ -290,7 +367,10 @@ public class MatComplex implements Mat<MatComplex> {
      * @return the determinant of the matrix
      */
     public Complex determinant() {
-        ComplexNumber out = this.value.getDeterminant();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DETERMINANT, 8L * this.rows * this.rows * this.rows / 3);
+        }
+        ComplexNumber out = this.toOjAlgo().getDeterminant();
         return new Complex(out.getReal(), out.getImaginary());
     }
 
@@ -300,89 +380,197 @@ public class MatComplex implements Mat<MatComplex> {
      * @return the inverse of the matrix
      */
     public MatComplex inverse() {
-        return new MatComplex(this.value.invert());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.INVERSE, 8L * this.rows * this.rows * this.rows);
+        }
+        return new MatComplex(STORE_FACTORY.copy(this.toOjAlgo().invert()));
     }
 
     /**
      * Gets the trace of the matrix
-     * 
+     *
      * @return the trace of the matrix
      */
     public Complex trace() {
-        ComplexNumber trace = this.value.getTrace();
-        return new Complex(trace.getReal(), trace.getImaginary());
+        double real = 0;
+        double img = 0;
+        for (int i = 0; i < Math.min(this.rows, this.cols); i++) {
+            real += this.getReal(i, i);
+            img += this.getImg(i, i);
+        }
+        return new Complex(real, img);
     }
 
     public String toString() {
-        return this.value.toString();
+        return this.toOjAlgo().toString();
     }
 
     /**
      * Forms an identity matrix of the given size
-     * 
+     *
      * @param size the size of the identity matrix (size x size)
      * @return the identity matrix of the given size
      */
     public static MatComplex identity(int size) {
-        return new MatComplex(MATRIX_FACTORY.makeEye(size, size));
+        double[] out = new double[2 * size * size];
+        for (int i = 0; i < size; i++) {
+            out[2 * (i * size + i)] = 1;
+        }
+        return new MatComplex(size, size, out);
     }
 
     /**
      * Forms a matrix of zeros with the given amount of rows and columns
-     * 
+     *
      * @param rows the number of rows in the matrix
      * @param columns the number of columns in the matrix
      * @return a matrix of the given size with all elements set to 0
      */
     public static MatComplex empty(int rows, int columns) {
-        return new MatComplex(MATRIX_FACTORY.make(rows, columns));
+        return new MatComplex(rows, columns, new double[2 * rows * columns]);
     }
 
     /**
      * Forms a matrix by placing the given matrices diagonally
      * <p>
      * Unfilled areas are filled with zeros
-     * 
+     *
      * @param matrices the matrices to be combined
      * @return a matrix formed by placing the given matrices along the diagonal
      */
     public static MatComplex diagonal(MatComplex... matrices) {
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.copy(matrices[0].value);
-        for (int i = 1; i < matrices.length; i++) {
-            out = STORE_FACTORY.copy(out.diagonally(matrices[i].value));
+        int rows = 0;
+        int columns = 0;
+        for (MatComplex matrix : matrices) {
+            rows += matrix.getRows();
+            columns += matrix.getCols();
+        }
+
+        MatComplex out = empty(rows, columns);
+        int row = 0;
+        int column = 0;
+        for (MatComplex matrix : matrices) {
+            copyBlock(out, row, column, matrix);
+            row += matrix.getRows();
+            column += matrix.getCols();
         }
-        return new MatComplex(out);
+        return out;
     }
 
     /**
      * Forms a matrix by placing the given matrices horizontally
      * <p>
      * Unfilled areas are filled with zeros
-     * 
+     *
      * @param matrices the matrices to be combined
      * @return a matrix formed by placing the given matrices horizontally
      */
     public static MatComplex horizontal(MatComplex... matrices) {
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.copy(matrices[0].value);
-        for (int i = 1; i < matrices.length; i++) {
-            out = STORE_FACTORY.copy(out.right(matrices[i].value));
+        int rows = 0;
+        int columns = 0;
+        for (MatComplex matrix : matrices) {
+            rows = Math.max(rows, matrix.getRows());
+            columns += matrix.getCols();
+        }
+
+        MatComplex out = empty(rows, columns);
+        int column = 0;
+        for (MatComplex matrix : matrices) {
+            copyBlock(out, 0, column, matrix);
+            column += matrix.getCols();
         }
-        return new MatComplex(out);
+        return out;
     }
 
     /**
      * Forms a matrix by placing the given matrices vertically
      * <p>
      * Unfilled areas are filled with zeros
-     * 
+     *
      * @param matrices array of the matrices to be combined
      * @return a matrix formed by placing the given matrices vertically
      */
     public static MatComplex vertical(MatComplex... matrices) {
-        PhysicalStore<ComplexNumber> out = STORE_FACTORY.copy(matrices[0].value);
-        for (int i = 1; i < matrices.length; i++) {
-            out = STORE_FACTORY.copy(out.below(matrices[i].value));
+        int rows = 0;
+        int columns = 0;
+        for (MatComplex matrix : matrices) {
+            rows += matrix.getRows();
+            columns = Math.max(columns, matrix.getCols());
+        }
+
+        MatComplex out = empty(rows, columns);
+        int row = 0;
+        for (MatComplex matrix : matrices) {
+            copyBlock(out, row, 0, matrix);
+            row += matrix.getRows();
+        }
+        return out;
+    }
+
+    /**
+     * Gets the index of the real part of the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the index of the real part in the values, the imaginary part follows it
+     */
+    private int index(int row, int column) {
+        return 2 * (row * this.cols + column);
+    }
+
+    /**
+     * Gets the real or imaginary part of the matrix
+     *
+     * @param offset 0 for the real part, 1 for the imaginary part
+     * @return the part of the matrix
+     */
+    private MatReal part(int offset) {
+        double[][] out = new double[this.rows][this.cols];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out[i][j] = this.values[this.index(i, j) + offset];
+            }
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Copies the values into an OjAlgo matrix
+     *
+     * @return an OjAlgo matrix with the values of the matrix
+     */
+    private MatrixC128 toOjAlgo() {
+        PhysicalStore<ComplexNumber> out = STORE_FACTORY.make(this.rows, this.cols);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out.set(i, j, ComplexNumber.of(this.getReal(i, j), this.getImg(i, j)));
+            }
+        }
+        return MATRIX_FACTORY.copy(out);
+    }
+
+    /**
+     * Checks that the matrix has the same dimensions as this matrix
+     *
+     * @param matrix matrix to check
+     */
+    private void checkDimensions(MatComplex matrix) {
+        if (this.rows != matrix.rows || this.cols != matrix.cols) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+
+    /**
+     * Copies a block into a matrix at the given offset
+     *
+     * @param out matrix to copy the block into
+     * @param row row of the top left corner of the block in the matrix
+     * @param column column of the top left corner of the block in the matrix
+     * @param block values to copy
+     */
+    private static void copyBlock(MatComplex out, int row, int column, MatComplex block) {
+        for (int i = 0; i < block.rows; i++) {
+            System.arraycopy(block.values, block.index(i, 0), out.values, out.index(row + i, column), 2 * block.cols);
         }
-        return new MatComplex(out);
     }
 }
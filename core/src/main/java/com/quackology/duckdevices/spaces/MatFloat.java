@@ -0,0 +1,808 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.Arrays;
+
+/**
+ * 2D matrix of single precision real numbers
+ * <p>
+ * Same operations as MatReal with half the memory, for throughput bound workloads such as banks of small filters that do not need the last digits of precision
+ * <p>
+ * Values are stored row by row in a float array and every kernel is a plain loop over it, which the JIT can vectorize with twice the lanes of double precision
+ */
+public class MatFloat implements Mat<MatFloat> {
+
+    /**
+     * Number of rows of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the matrix
+     */
+    private final int cols;
+
+    /**
+     * Values of the matrix row by row
+     */
+    private final float[] value;
+
+    /**
+     * Constructor of a matrix with the given array as values, the array is not copied
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @param value values of the matrix row by row
+     */
+    private MatFloat(int rows, int columns, float[] value) {
+        this.rows = rows;
+        this.cols = columns;
+        this.value = value;
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated(value.length, Float.BYTES);
+        }
+    }
+
+    /**
+     * Constructor of a 1x1 matrix with a value
+     *
+     * @param value value of the matrix
+     */
+    public MatFloat(double value) {
+        this(1, 1, new float[] {(float) value});
+    }
+
+    /**
+     * Constructor of a matrix with a 2D array of doubles, the values are rounded to single precision
+     *
+     * @param matrix 2D array of doubles containing the values of the matrix
+     */
+    public MatFloat(double[][] matrix) {
+        this(matrix.length, matrix.length == 0 ? 0 : matrix[0].length, new float[matrix.length * (matrix.length == 0 ? 0 : matrix[0].length)]);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                this.value[i * this.cols + j] = (float) matrix[i][j];
+            }
+        }
+    }
+
+    /**
+     * Creates a single precision copy of a matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return a single precision matrix with the values of the given matrix rounded
+     */
+    public static MatFloat of(MatReal matrix) {
+        return new MatFloat(matrix.get());
+    }
+
+    /**
+     * Converts the matrix to double precision
+     *
+     * @return a double precision matrix with the values of this matrix
+     */
+    public MatReal toMatReal() {
+        return new MatReal(this.get());
+    }
+
+    /**
+     * Gets a 2D array of doubles representing the matrix values
+     *
+     * @return a 2D array of doubles representing the matrix values
+     */
+    public double[][] get() {
+        double[][] out = new double[this.rows][this.cols];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out[i][j] = this.value[i * this.cols + j];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        return this.value[row * this.cols + column];
+    }
+
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public int getCols() {
+        return this.cols;
+    }
+
+    @Override
+    public MatFloat getRow(int row) {
+        return new MatFloat(1, this.cols, Arrays.copyOfRange(this.value, row * this.cols, (row + 1) * this.cols));
+    }
+
+    @Override
+    public MatFloat getCol(int column) {
+        float[] out = new float[this.rows];
+        for (int i = 0; i < this.rows; i++) {
+            out[i] = this.value[i * this.cols + column];
+        }
+        return new MatFloat(this.rows, 1, out);
+    }
+
+    @Override
+    public MatReal toVector() {
+        double[][] out = new double[this.rows * this.cols][1];
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                out[j * this.rows + i][0] = this.value[i * this.cols + j];
+            }
+        }
+        return new MatReal(out);
+    }
+
+    @Override
+    public MatFloat transpose() {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.TRANSPOSE, 0);
+        }
+        float[] out = new float[this.value.length];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out[j * this.rows + i] = this.value[i * this.cols + j];
+            }
+        }
+        return new MatFloat(this.cols, this.rows, out);
+    }
+
+    @Override
+    public MatFloat subMat(int row, int column, int height, int width) {
+        float[] out = new float[height * width];
+        for (int i = 0; i < height; i++) {
+            System.arraycopy(this.value, (row + i) * this.cols + column, out, i * width, width);
+        }
+        return new MatFloat(height, width, out);
+    }
+
+    /**
+     * Gets a new matrix with the value at the given row and column set to the given value
+     *
+     * @param row row of element getting replaced
+     * @param column column of element getting replaced
+     * @param value value to replace the element with
+     * @return a new matrix with the value at the given row and column set to the given value
+     */
+    public MatFloat set(int row, int column, double value) {
+        float[] out = this.value.clone();
+        out[row * this.cols + column] = (float) value;
+        return new MatFloat(this.rows, this.cols, out);
+    }
+
+    @Override
+    public MatFloat add(MatFloat matrix) {
+        this.checkSameDimensions(matrix);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, this.value.length);
+        }
+        float[] out = new float[this.value.length];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = this.value[i] + matrix.value[i];
+        }
+        return new MatFloat(this.rows, this.cols, out);
+    }
+
+    @Override
+    public MatFloat subtract(MatFloat matrix) {
+        this.checkSameDimensions(matrix);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, this.value.length);
+        }
+        float[] out = new float[this.value.length];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = this.value[i] - matrix.value[i];
+        }
+        return new MatFloat(this.rows, this.cols, out);
+    }
+
+    /**
+     * Matrix multiplication
+     * <p>
+     * Loops in i-k-j order so the innermost loop streams a row of each operand
+     */
+    @Override
+    public MatFloat multiply(MatFloat matrix) {
+        if (this.cols != matrix.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        int m = this.rows;
+        int n = this.cols;
+        int p = matrix.cols;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2L * m * n * p);
+        }
+        float[] out = new float[m * p];
+        float[] b = matrix.value;
+        for (int i = 0; i < m; i++) {
+            int row = i * p;
+            for (int k = 0; k < n; k++) {
+                float aik = this.value[i * n + k];
+                if (aik == 0) {
+                    continue;
+                }
+                int column = k * p;
+                for (int j = 0; j < p; j++) {
+                    out[row + j] += aik * b[column + j];
+                }
+            }
+        }
+        return new MatFloat(m, p, out);
+    }
+
+    @Override
+    public MatFloat multiply(double scalar) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SCALE, this.value.length);
+        }
+        float s = (float) scalar;
+        float[] out = new float[this.value.length];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = this.value[i] * s;
+        }
+        return new MatFloat(this.rows, this.cols, out);
+    }
+
+    @Override
+    public MatFloat hadamardProduct(MatFloat matrix) {
+        if (this.rows != matrix.rows || this.cols != matrix.cols) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, this.value.length);
+        }
+        float[] out = new float[this.value.length];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = this.value[i] * matrix.value[i];
+        }
+        return new MatFloat(this.rows, this.cols, out);
+    }
+
+    /**
+     * Gets the determinant of the matrix
+     *
+     * @return the determinant of the matrix, zero if the matrix is singular
+     */
+    public double determinant() {
+        this.checkSquare();
+        int n = this.rows;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DETERMINANT, 2L * n * n * n / 3);
+        }
+        float[] lu = this.value.clone();
+        int[] pivots = new int[n];
+        if (!luInPlace(lu, n, pivots)) {
+            return 0;
+        }
+        double determinant = 1;
+        for (int i = 0; i < n; i++) {
+            determinant *= lu[i * n + i];
+            if (pivots[i] != i) {
+                determinant = -determinant;
+            }
+        }
+        return determinant;
+    }
+
+    /**
+     * Gets the inverse of the matrix
+     *
+     * @return the inverse of the matrix
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public MatFloat inverse() {
+        this.checkSquare();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.INVERSE, 2L * this.rows * this.rows * this.rows);
+        }
+        return this.solveLU(identity(this.rows));
+    }
+
+    /**
+     * Calculates the lower triangular matrix of the Cholesky decomposition
+     *
+     * @return the lower triangular matrix L where this = L * L^T
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatFloat choleskyDecompose() {
+        this.checkSquare();
+        float[] l = this.value.clone();
+        choleskyInPlace(l, this.rows);
+        return new MatFloat(this.rows, this.rows, l);
+    }
+
+    /**
+     * Solves for x in the equation Ax = b where A is this symmetric positive definite matrix
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation Ax = b
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatFloat solveSPD(MatFloat b) {
+        this.checkSolve(b.rows);
+        int n = this.rows;
+        float[] l = this.value.clone();
+        choleskyInPlace(l, n);
+        float[] x = b.value.clone();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, 2L * n * n * b.cols);
+        }
+        forwardSubInPlace(l, n, x, b.cols);
+        backwardSubTransposedInPlace(l, n, x, b.cols);
+        return new MatFloat(n, b.cols, x);
+    }
+
+    /**
+     * Solves for x in the equation xA = b where A is this symmetric positive definite matrix
+     * <p>
+     * Right division b * A^-1, such as the gain of a kalman filter from the cross covariance and the innovation covariance
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation xA = b
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatFloat rightSolveSPD(MatFloat b) {
+        return this.solveSPD(b.transpose()).transpose();
+    }
+
+    /**
+     * Solves for x in the equation Ax = b where A is this square matrix
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation Ax = b
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public MatFloat solveLU(MatFloat b) {
+        this.checkSolve(b.rows);
+        int n = this.rows;
+        int m = b.cols;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, 2L * n * n * n / 3 + 2L * n * n * m);
+        }
+        float[] lu = this.value.clone();
+        int[] pivots = new int[n];
+        if (!luInPlace(lu, n, pivots)) {
+            throw new ArithmeticException("Matrix is singular");
+        }
+
+        float[] x = b.value.clone();
+        for (int i = 0; i < n; i++) {
+            if (pivots[i] != i) {
+                swapRows(x, m, i, pivots[i]);
+            }
+        }
+        //forward substitution with the unit lower triangle
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < i; k++) {
+                float lik = lu[i * n + k];
+                for (int j = 0; j < m; j++) {
+                    x[i * m + j] -= lik * x[k * m + j];
+                }
+            }
+        }
+        //backward substitution with the upper triangle
+        for (int i = n - 1; i >= 0; i--) {
+            for (int k = i + 1; k < n; k++) {
+                float uik = lu[i * n + k];
+                for (int j = 0; j < m; j++) {
+                    x[i * m + j] -= uik * x[k * m + j];
+                }
+            }
+            float diagonal = lu[i * n + i];
+            for (int j = 0; j < m; j++) {
+                x[i * m + j] /= diagonal;
+            }
+        }
+        return new MatFloat(n, m, x);
+    }
+
+    /**
+     * Solves for x in the equation xA = b where A is this square matrix
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation xA = b
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public MatFloat rightSolveLU(MatFloat b) {
+        return this.transpose().solveLU(b.transpose()).transpose();
+    }
+
+    /**
+     * Gets the trace of the matrix
+     *
+     * @return the trace of the matrix
+     */
+    public double trace() {
+        double trace = 0;
+        for (int i = 0; i < Math.min(this.rows, this.cols); i++) {
+            trace += this.value[i * this.cols + i];
+        }
+        return trace;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < this.rows; i++) {
+            out.append(Arrays.toString(Arrays.copyOfRange(this.value, i * this.cols, (i + 1) * this.cols))).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Forms an identity matrix of the given size
+     *
+     * @param size the size of the identity matrix (size x size)
+     * @return the identity matrix of the given size
+     */
+    public static MatFloat identity(int size) {
+        float[] out = new float[size * size];
+        for (int i = 0; i < size; i++) {
+            out[i * size + i] = 1;
+        }
+        return new MatFloat(size, size, out);
+    }
+
+    /**
+     * Forms a matrix of zeros with the given amount of rows and columns
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @return a matrix of the given size with all elements set to 0
+     */
+    public static MatFloat empty(int rows, int columns) {
+        return new MatFloat(rows, columns, new float[rows * columns]);
+    }
+
+    /**
+     * Forms a matrix by placing the given matrices diagonally
+     * <p>
+     * Unfilled areas are filled with zeros
+     *
+     * @param matrices the matrices to be combined
+     * @return a matrix formed by placing the given matrices along the diagonal
+     */
+    public static MatFloat diagonal(MatFloat... matrices) {
+        int rows = 0;
+        int columns = 0;
+        for (MatFloat matrix : matrices) {
+            rows += matrix.rows;
+            columns += matrix.cols;
+        }
+
+        float[] out = new float[rows * columns];
+        int row = 0;
+        int column = 0;
+        for (MatFloat matrix : matrices) {
+            copyBlock(out, columns, row, column, matrix);
+            row += matrix.rows;
+            column += matrix.cols;
+        }
+        return new MatFloat(rows, columns, out);
+    }
+
+    /**
+     * Forms a matrix by placing the given matrices horizontally
+     * <p>
+     * Unfilled areas are filled with zeros
+     *
+     * @param matrices the matrices to be combined
+     * @return a matrix formed by placing the given matrices horizontally
+     */
+    public static MatFloat horizontal(MatFloat... matrices) {
+        int rows = 0;
+        int columns = 0;
+        for (MatFloat matrix : matrices) {
+            rows = Math.max(rows, matrix.rows);
+            columns += matrix.cols;
+        }
+
+        float[] out = new float[rows * columns];
+        int column = 0;
+        for (MatFloat matrix : matrices) {
+            copyBlock(out, columns, 0, column, matrix);
+            column += matrix.cols;
+        }
+        return new MatFloat(rows, columns, out);
+    }
+
+    /**
+     * Forms a matrix by placing the given matrices vertically
+     * <p>
+     * Unfilled areas are filled with zeros
+     *
+     * @param matrices array of the matrices to be combined
+     * @return a matrix formed by placing the given matrices vertically
+     */
+    public static MatFloat vertical(MatFloat... matrices) {
+        int rows = 0;
+        int columns = 0;
+        for (MatFloat matrix : matrices) {
+            rows += matrix.rows;
+            columns = Math.max(columns, matrix.cols);
+        }
+
+        float[] out = new float[rows * columns];
+        int row = 0;
+        for (MatFloat matrix : matrices) {
+            copyBlock(out, columns, row, 0, matrix);
+            row += matrix.rows;
+        }
+        return new MatFloat(rows, columns, out);
+    }
+
+    /**
+     * Weighted sum of column vectors
+     * <p>
+     * sum_i w_i * a_i
+     *
+     * @param points column vectors a_i of the same size
+     * @param weights weight w_i of each vector
+     * @return the weighted sum of the vectors
+     */
+    public static MatFloat weightedMean(MatFloat[] points, double[] weights) {
+        if (points.length != weights.length) {
+            throw new IllegalArgumentException("Every vector must have a weight");
+        }
+        int n = points[0].rows;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.WEIGHTED_SUM, 2L * points.length * n);
+        }
+        float[] out = new float[n];
+        for (int i = 0; i < points.length; i++) {
+            float weight = (float) weights[i];
+            float[] point = points[i].value;
+            for (int r = 0; r < n; r++) {
+                out[r] += weight * point[r];
+            }
+        }
+        return new MatFloat(n, 1, out);
+    }
+
+    /**
+     * Weighted covariance of column vectors around a mean
+     * <p>
+     * sum_i w_i * (a_i - m)(a_i - m)^T
+     *
+     * @param points column vectors a_i of the same size
+     * @param mean mean m to center the vectors around
+     * @param weights weight w_i of each vector
+     * @return the weighted covariance
+     */
+    public static MatFloat weightedCovariance(MatFloat[] points, MatFloat mean, double[] weights) {
+        return weightedCrossCovariance(points, mean, points, mean, weights);
+    }
+
+    /**
+     * Weighted cross covariance of two sets of column vectors around their means
+     * <p>
+     * sum_i w_i * (a_i - ma)(b_i - mb)^T
+     *
+     * @param a column vectors a_i of the same size
+     * @param meanA mean ma to center a around
+     * @param b column vectors b_i of the same size, one for each a_i
+     * @param meanB mean mb to center b around
+     * @param weights weight w_i of each pair of vectors
+     * @return the weighted cross covariance
+     */
+    public static MatFloat weightedCrossCovariance(MatFloat[] a, MatFloat meanA, MatFloat[] b, MatFloat meanB, double[] weights) {
+        if (a.length != weights.length || b.length != weights.length) {
+            throw new IllegalArgumentException("Every vector must have a weight");
+        }
+        int n = meanA.rows;
+        int m = meanB.rows;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.WEIGHTED_SUM, 2L * a.length * n * m);
+        }
+        float[] out = new float[n * m];
+        float[] da = new float[n];
+        float[] db = new float[m];
+        for (int k = 0; k < weights.length; k++) {
+            for (int i = 0; i < n; i++) {
+                da[i] = (float) weights[k] * (a[k].value[i] - meanA.value[i]);
+            }
+            for (int j = 0; j < m; j++) {
+                db[j] = b[k].value[j] - meanB.value[j];
+            }
+            for (int i = 0; i < n; i++) {
+                float di = da[i];
+                for (int j = 0; j < m; j++) {
+                    out[i * m + j] += di * db[j];
+                }
+            }
+        }
+        return new MatFloat(n, m, out);
+    }
+
+    /**
+     * Copies a matrix into a row major array at the given offset
+     *
+     * @param out array to copy the matrix into
+     * @param stride number of columns of the array
+     * @param row row of the top left corner of the block in the array
+     * @param column column of the top left corner of the block in the array
+     * @param block matrix to copy
+     */
+    private static void copyBlock(float[] out, int stride, int row, int column, MatFloat block) {
+        for (int i = 0; i < block.rows; i++) {
+            System.arraycopy(block.value, i * block.cols, out, (row + i) * stride + column, block.cols);
+        }
+    }
+
+    /**
+     * Replaces a row major symmetric positive definite matrix with its lower triangular cholesky factor
+     *
+     * @param a matrix of size n x n, overwritten by the factor
+     * @param n size of the matrix
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    private static void choleskyInPlace(float[] a, int n) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DECOMPOSITION, (long) n * n * n / 3);
+        }
+        for (int j = 0; j < n; j++) {
+            float diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            if (!(diagonal > 0)) {
+                throw new ArithmeticException("Matrix is not positive definite");
+            }
+            diagonal = (float) Math.sqrt(diagonal);
+            a[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                float sum = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = sum / diagonal;
+            }
+            for (int i = j + 1; i < n; i++) {
+                a[j * n + i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Solves L * x = b in place where L is lower triangular
+     *
+     * @param l lower triangular matrix of size n x n
+     * @param n size of the triangular matrix
+     * @param b right hand side of size n x m, overwritten by x
+     * @param m number of right hand sides
+     */
+    private static void forwardSubInPlace(float[] l, int n, float[] b, int m) {
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < i; k++) {
+                float lik = l[i * n + k];
+                for (int j = 0; j < m; j++) {
+                    b[i * m + j] -= lik * b[k * m + j];
+                }
+            }
+            float diagonal = l[i * n + i];
+            for (int j = 0; j < m; j++) {
+                b[i * m + j] /= diagonal;
+            }
+        }
+    }
+
+    /**
+     * Solves L^T * x = b in place where L is lower triangular
+     *
+     * @param l lower triangular matrix of size n x n
+     * @param n size of the triangular matrix
+     * @param b right hand side of size n x m, overwritten by x
+     * @param m number of right hand sides
+     */
+    private static void backwardSubTransposedInPlace(float[] l, int n, float[] b, int m) {
+        for (int i = n - 1; i >= 0; i--) {
+            for (int k = i + 1; k < n; k++) {
+                float lki = l[k * n + i];
+                for (int j = 0; j < m; j++) {
+                    b[i * m + j] -= lki * b[k * m + j];
+                }
+            }
+            float diagonal = l[i * n + i];
+            for (int j = 0; j < m; j++) {
+                b[i * m + j] /= diagonal;
+            }
+        }
+    }
+
+    /**
+     * Replaces a row major square matrix with its LU decomposition with partial pivoting
+     * <p>
+     * The strictly lower triangle holds L with an implied unit diagonal and the upper triangle holds U
+     *
+     * @param a matrix of size n x n, overwritten by the decomposition
+     * @param n size of the matrix
+     * @param pivots row swapped with each row, in order
+     * @return false if the matrix is singular
+     */
+    private static boolean luInPlace(float[] a, int n, int[] pivots) {
+        for (int k = 0; k < n; k++) {
+            int pivot = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(a[i * n + k]) > Math.abs(a[pivot * n + k])) {
+                    pivot = i;
+                }
+            }
+            pivots[k] = pivot;
+            if (a[pivot * n + k] == 0) {
+                return false;
+            }
+            if (pivot != k) {
+                swapRows(a, n, k, pivot);
+            }
+            float diagonal = a[k * n + k];
+            for (int i = k + 1; i < n; i++) {
+                float factor = a[i * n + k] / diagonal;
+                a[i * n + k] = factor;
+                for (int j = k + 1; j < n; j++) {
+                    a[i * n + j] -= factor * a[k * n + j];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Swaps two rows of a row major array
+     *
+     * @param a array to swap the rows of
+     * @param columns number of columns of the array
+     * @param i first row
+     * @param j second row
+     */
+    private static void swapRows(float[] a, int columns, int i, int j) {
+        for (int c = 0; c < columns; c++) {
+            float value = a[i * columns + c];
+            a[i * columns + c] = a[j * columns + c];
+            a[j * columns + c] = value;
+        }
+    }
+
+    /**
+     * Checks that the matrix has the same dimensions as another
+     *
+     * @param matrix matrix to compare against
+     */
+    private void checkSameDimensions(MatFloat matrix) {
+        if (this.rows != matrix.rows || this.cols != matrix.cols) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+
+    /**
+     * Checks that the matrix is square
+     */
+    private void checkSquare() {
+        if (this.rows != this.cols) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+    }
+
+    /**
+     * Checks that the matrix is square and matches the rows of a right hand side
+     *
+     * @param rows rows of the right hand side
+     */
+    private void checkSolve(int rows) {
+        this.checkSquare();
+        if (this.rows != rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.Arrays;
+
+/**
+ * Opt-in counters of matrix operations, estimated floating point operations and allocated matrices
+ * <p>
+ * Counters are kept per thread, so a measurement only sees the work done by the thread that ran it
+ * <p>
+ * While disabled every instrumented operation only reads a flag, counting starts with {@link #setEnabled(boolean)} or inside {@link #measure(Runnable)}
+ * <p>
+ * Flops are estimates from the dimensions of the operation (for example 2mnp for a product), not measurements of the work done by the underlying library
+ */
+public final class MatProfiler {
+
+    /**
+     * Kinds of counted operations
+     */
+    public enum Op {
+        ADD,
+        SUBTRACT,
+        SCALE,
+        MULTIPLY,
+        HADAMARD,
+        TRANSPOSE,
+        INVERSE,
+        DETERMINANT,
+        DECOMPOSITION,
+        SOLVE,
+        UPDATE,
+        WEIGHTED_SUM
+    }
+
+    /**
+     * Slots of the per thread counters after the operation counts
+     */
+    private static final int FLOPS = Op.values().length;
+    private static final int ALLOCATIONS = FLOPS + 1;
+    private static final int BYTES = FLOPS + 2;
+
+    /**
+     * Counters of the calling thread, operation counts indexed by ordinal followed by flops, allocations and bytes
+     */
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[BYTES + 1]);
+
+    /**
+     * Whether instrumented operations record anything, read by every instrumented operation
+     */
+    static volatile boolean enabled = false;
+
+    /**
+     * Whether counting was enabled explicitly
+     */
+    private static boolean explicit = false;
+
+    /**
+     * Number of measurements running on any thread
+     */
+    private static int measuring = 0;
+
+    private MatProfiler() {}
+
+    /**
+     * Enables or disables counting on every thread
+     * <p>
+     * Measurements count regardless of this setting
+     *
+     * @param enabled whether to count operations
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        explicit = enabled;
+        MatProfiler.enabled = explicit || measuring > 0;
+    }
+
+    /**
+     * Gets whether counting is currently enabled
+     *
+     * @return whether counting is currently enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the counters of the calling thread since it started or was last reset
+     *
+     * @return a snapshot of the counters of the calling thread
+     */
+    public static Counts snapshot() {
+        return new Counts(COUNTERS.get().clone());
+    }
+
+    /**
+     * Sets the counters of the calling thread to zero
+     */
+    public static void reset() {
+        Arrays.fill(COUNTERS.get(), 0);
+    }
+
+    /**
+     * Runs a task on the calling thread with counting enabled and gets what it did
+     *
+     * @param task the task to measure
+     * @return the operations, flops and allocations of the task
+     */
+    public static Counts measure(Runnable task) {
+        synchronized (MatProfiler.class) {
+            measuring++;
+            enabled = true;
+        }
+        try {
+            long[] before = COUNTERS.get().clone();
+            task.run();
+            long[] after = COUNTERS.get().clone();
+            for (int i = 0; i < after.length; i++) {
+                after[i] -= before[i];
+            }
+            return new Counts(after);
+        } finally {
+            synchronized (MatProfiler.class) {
+                measuring--;
+                enabled = explicit || measuring > 0;
+            }
+        }
+    }
+
+    /**
+     * Records an operation on the calling thread, callers check {@link #enabled} first
+     *
+     * @param op kind of operation
+     * @param flops estimated floating point operations
+     */
+    static void record(Op op, long flops) {
+        long[] counters = COUNTERS.get();
+        counters[op.ordinal()]++;
+        counters[FLOPS] += flops;
+    }
+
+    /**
+     * Records an allocated matrix on the calling thread, callers check {@link #enabled} first
+     *
+     * @param elements number of elements of the matrix
+     * @param bytesPerElement size of an element in bytes
+     */
+    static void allocated(long elements, int bytesPerElement) {
+        long[] counters = COUNTERS.get();
+        counters[ALLOCATIONS]++;
+        counters[BYTES] += elements * bytesPerElement;
+    }
+
+    /**
+     * Immutable snapshot of counters
+     */
+    public static final class Counts {
+
+        private final long[] counters;
+
+        private Counts(long[] counters) {
+            this.counters = counters;
+        }
+
+        /**
+         * Gets the number of operations of the given kind
+         *
+         * @param op kind of operation
+         * @return the number of operations of the given kind
+         */
+        public long getCount(Op op) {
+            return this.counters[op.ordinal()];
+        }
+
+        /**
+         * Gets the number of operations of every kind
+         *
+         * @return the total number of operations
+         */
+        public long getTotalCount() {
+            long sum = 0;
+            for (int i = 0; i < FLOPS; i++) {
+                sum += this.counters[i];
+            }
+            return sum;
+        }
+
+        /**
+         * Gets the estimated floating point operations
+         *
+         * @return the estimated floating point operations
+         */
+        public long getFlops() {
+            return this.counters[FLOPS];
+        }
+
+        /**
+         * Gets the number of allocated matrices
+         *
+         * @return the number of allocated matrices
+         */
+        public long getAllocations() {
+            return this.counters[ALLOCATIONS];
+        }
+
+        /**
+         * Gets the bytes of the values of the allocated matrices
+         *
+         * @return the bytes of the values of the allocated matrices
+         */
+        public long getAllocatedBytes() {
+            return this.counters[BYTES];
+        }
+
+        public String toString() {
+            StringBuilder out = new StringBuilder("{");
+            for (Op op : Op.values()) {
+                if (this.getCount(op) != 0) {
+                    out.append(op).append('=').append(this.getCount(op)).append(", ");
+                }
+            }
+            return out.append("flops=").append(this.getFlops())
+                .append(", allocations=").append(this.getAllocations())
+                .append(", bytes=").append(this.getAllocatedBytes())
+                .append('}').toString();
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.quackology.duckdevices.spaces;
 
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+
 import org.ojalgo.matrix.MatrixR064;
 import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
 import org.ojalgo.matrix.decomposition.QR;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.R064Store;
 import org.ojalgo.matrix.store.RawStore;
 
+import com.quackology.duckdevices.utils.ArrayMath;
+
 /**
  * Wrapper class for 2D matrix of real numbers
  * <p>
@@ -23,9 +29,27 @@ public class MatReal implements Mat<MatReal> {
 
     /**
      * OjAlgo's solver instances
+     * <p>
+     * Solvers hold state between decomposing and reading results, so each thread gets its own instances keyed by matrix dimension
+     */
+    private static final ThreadLocal<HashMap<Integer, Cholesky<Double>>> CHOLESKY_SOLVERS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<HashMap<Integer, HashMap<Integer, QR<Double>>>> QR_SOLVERS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<HashMap<Integer, LU<Double>>> LU_SOLVERS = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Workspaces the symmetric positive definite solves factor into, kept per thread and keyed by matrix dimension
      */
-    private static final Cholesky<Double> CHOLESKY_SOLVER = Cholesky.R064.make();
-    private static final QR<Double> QR_SOLVER = QR.R064.make();
+    private static final ThreadLocal<HashMap<Integer, MutableMatReal>> SPD_WORKSPACES = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Smallest dimension at which multiply switches to the parallel tiled product
+     */
+    private static volatile int parallelThreshold = 128;
+
+    /**
+     * Pool the parallel tiled product runs on
+     */
+    private static volatile ForkJoinPool parallelPool = ForkJoinPool.commonPool();
 
     /**
      * Values of the matrix
@@ -37,8 +61,11 @@ public class MatReal implements Mat<MatReal> {
      * 
      * @param matrix MatrixR064 from OjAlgo containing the values of the matrix
      */
-    private MatReal(MatrixR064 matrix) {
+    MatReal(MatrixR064 matrix) {
         this.value = matrix;
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated(this.value.count(), 8);
+        }
     }
 
     /**
@@ -46,8 +73,11 @@ public class MatReal implements Mat<MatReal> {
      *
      * @param matrix MatrixStore from OjAlgo containing the values of the matrix
      */
-    private MatReal(MatrixStore<Double> matrix) {
+    MatReal(MatrixStore<Double> matrix) {
         this.value = MATRIX_FACTORY.copy(matrix);
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated(this.value.count(), 8);
+        }
     }
 
     /**
@@ -66,6 +96,18 @@ public class MatReal implements Mat<MatReal> {
      */
     public MatReal(double[][] matrix) {
 		this.value = MATRIX_FACTORY.copy(RawStore.wrap(matrix));
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated(this.value.count(), 8);
+        }
+    }
+
+    /**
+     * Gets the OjAlgo matrix backing the matrix
+     *
+     * @return the OjAlgo matrix backing the matrix
+     */
+    MatrixR064 value() {
+        return this.value;
     }
 
     /**
@@ -108,17 +150,40 @@ public class MatReal implements Mat<MatReal> {
 		return new MatReal(this.value.column(column));
     }
 
+    /**
+     * Splits the matrix into its columns
+     *
+     * @return the columns of the matrix as column vectors
+     */
+    public MatReal[] toColumns() {
+		MatReal[] columns = new MatReal[this.getCols()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = this.getCol(i);
+		}
+		return columns;
+    }
+
     @Override
     public MatReal toVector() {
-		MatReal[] vectors = new MatReal[this.getCols()];
-		for (int i = 0; i < this.getCols(); i++) {
-			vectors[i] = this.getCol(i);
-		}
-		return MatReal.vertical(vectors);
+		return MatReal.vertical(this.toColumns());
+    }
+
+    /**
+     * Starts a lazily evaluated expression with this matrix
+     * <p>
+     * Chains of operations on the expression are evaluated in one loop without intermediate matrices
+     *
+     * @return an expression with the values of this matrix
+     */
+    public LazyMat lazy() {
+        return LazyMat.of(this);
     }
 
     @Override
     public MatReal transpose() {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.TRANSPOSE, 0);
+        }
 		return new MatReal(this.value.transpose());
     }
 
@@ -143,21 +208,67 @@ public class MatReal implements Mat<MatReal> {
 
     @Override
     public MatReal add(MatReal matrix) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, (long) this.getRows() * this.getCols());
+        }
 		return new MatReal(this.value.add(matrix.value));
     }
 
     @Override
     public MatReal subtract(MatReal matrix) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, (long) this.getRows() * this.getCols());
+        }
 		return new MatReal(this.value.subtract(matrix.value));
     }
 
+    /**
+     * Matrix multiplication
+     * <p>
+     * Uses {@link #multiplyParallel(MatReal)} when every dimension of the product is at least the parallel threshold and the parallel pool has more than one worker
+     */
     @Override
     public MatReal multiply(MatReal matrix) {
+        int threshold = parallelThreshold;
+        if (this.getRows() >= threshold && this.getCols() >= threshold && matrix.getCols() >= threshold && parallelPool.getParallelism() > 1) {
+            return this.multiplyParallel(matrix);
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2L * this.getRows() * this.getCols() * matrix.getCols());
+        }
 		return new MatReal(this.value.multiply(matrix.value));
     }
 
+    /**
+     * Matrix multiplication split into cache sized tiles computed in parallel on the parallel pool
+     * <p>
+     * Worth it only for large matrices, multiply picks this automatically above the parallel threshold
+     *
+     * @param matrix the matrix to multiply against this matrix
+     * @return the product this * matrix
+     */
+    public MatReal multiplyParallel(MatReal matrix) {
+        if (this.getCols() != matrix.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        int m = this.getRows();
+        int p = matrix.getCols();
+        if (m == 0 || p == 0) {
+            return MatReal.empty(m, p);
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2L * m * this.getCols() * p);
+        }
+        R064Store out = STORE_FACTORY.make(m, p);
+        parallelPool.invoke(new TiledMultiply(this.value.toRawCopy1D(), matrix.value.toRawCopy1D(), out.data, m, this.getCols(), 0, TiledMultiply.tiles(m, p)));
+        return new MatReal(out);
+    }
+
     @Override
     public MatReal multiply(double scalar) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SCALE, (long) this.getRows() * this.getCols());
+        }
 		return new MatReal(this.value.multiply(scalar));
     }
 
@@ -166,11 +277,13 @@ public class MatReal implements Mat<MatReal> {
         if (this.getRows() != matrix.getRows() || this.getCols() != matrix.getCols()) {
             throw new IllegalArgumentException("Matrix must have the same dimensions");
         }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, (long) this.getRows() * this.getCols());
+        }
         double[][] out = this.get();
+        double[][] other = matrix.get();
         for(int i = 0; i < out.length; i++) {
-            for(int j = 0; j < out[i].length; j++) {
-                out[i][j] *= matrix.get(i, j);
-            }
+            ArrayMath.multiply(out[i], other[i], out[i]);
         }
 
         return new MatReal(out);
@@ -182,6 +295,9 @@ public class MatReal implements Mat<MatReal> {
      * @return the determinant of the matrix
      */
     public double determinant() {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DETERMINANT, 2L * this.getRows() * this.getRows() * this.getRows() / 3);
+        }
 		return this.value.getDeterminant();
     }
 
@@ -191,6 +307,9 @@ public class MatReal implements Mat<MatReal> {
      * @return the inverse of the matrix
      */
     public MatReal inverse() {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.INVERSE, 2L * this.getRows() * this.getRows() * this.getRows());
+        }
 		return new MatReal(this.value.invert());
     }
 
@@ -200,8 +319,7 @@ public class MatReal implements Mat<MatReal> {
      * @return the lower triangular matrix of the Cholesky decomposition
      */
     public MatReal choleskyDecompose() {
-        CHOLESKY_SOLVER.decompose(this.value);
-        return new MatReal(CHOLESKY_SOLVER.getL());
+        return this.choleskyDecompose(choleskySolver(this.getRows()));
     }
 
     /**
@@ -211,6 +329,9 @@ public class MatReal implements Mat<MatReal> {
      * @return the lower triangular matrix of the Cholesky decomposition
      */
     public MatReal choleskyDecompose(Cholesky<Double> solver) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DECOMPOSITION, (long) this.getRows() * this.getRows() * this.getRows() / 3);
+        }
         solver.decompose(this.value);
         return new MatReal(solver.getL());
     }
@@ -221,8 +342,7 @@ public class MatReal implements Mat<MatReal> {
      * @return an array containing the Q and R matrices respectively from the QR decomposition of the matrix
      */
     public MatReal[] QRDecompose() {
-        QR_SOLVER.decompose(this.value);
-        return new MatReal[] {new MatReal(QR_SOLVER.getQ()), new MatReal(QR_SOLVER.getR())};
+        return this.QRDecompose(qrSolver(this.getRows(), this.getCols()));
     }
 
     /**
@@ -232,10 +352,121 @@ public class MatReal implements Mat<MatReal> {
      * @return an array containing the Q and R matrices respectively from the QR decomposition of the matrix
      */
     public MatReal[] QRDecompose(QR<Double> solver) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DECOMPOSITION, 2L * this.getRows() * this.getCols() * this.getCols());
+        }
         solver.decompose(this.value);
         return new MatReal[] {new MatReal(solver.getQ()), new MatReal(solver.getR())};
     }
 
+    /**
+     * Solves for x in the equation Ax = b where A is this symmetric positive definite matrix
+     * <p>
+     * Factors into the calling thread's cached workspace instead of forming the inverse
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation Ax = b
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatReal solveSPD(MatReal b) {
+        this.checkSolve(b.getRows());
+        MutableMatReal factor = MutableMatReal.choleskyInPlace(spdWorkspace(this.getRows()).copyFrom(this));
+        MutableMatReal x = new MutableMatReal(b);
+        MutableMatReal.forwardSubInPlace(factor, x);
+        return MutableMatReal.backwardSubTransposedInPlace(factor, x).toMatReal();
+    }
+
+    /**
+     * Solves for x in the equation xA = b where A is this symmetric positive definite matrix
+     * <p>
+     * Right division b * A^-1, such as the gain of a kalman filter from the cross covariance and the innovation covariance
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation xA = b
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatReal rightSolveSPD(MatReal b) {
+        this.checkSolve(b.getCols());
+        MutableMatReal factor = MutableMatReal.choleskyInPlace(spdWorkspace(this.getRows()).copyFrom(this));
+        MutableMatReal x = new MutableMatReal(b.getCols(), b.getRows());
+        double[] data = x.store().data;
+        for (int j = 0; j < b.getRows(); j++) {
+            for (int i = 0; i < b.getCols(); i++) {
+                data[i + j * b.getCols()] = b.value.doubleValue(j, i);
+            }
+        }
+        MutableMatReal.forwardSubInPlace(factor, x);
+        MutableMatReal.backwardSubTransposedInPlace(factor, x);
+        return new MatReal(x.store().transpose());
+    }
+
+    /**
+     * Solves for x in the equation Ax = b where A is this square matrix
+     * <p>
+     * Uses the calling thread's cached LU solver instead of forming the inverse
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation Ax = b
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public MatReal solveLU(MatReal b) {
+        this.checkSolve(b.getRows());
+        long n = this.getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, 2 * n * n * n / 3 + 2 * n * n * b.getCols());
+        }
+        LU<Double> solver = luSolver(this.getRows());
+        if (!solver.decompose(this.value) || !solver.isSolvable()) {
+            throw new ArithmeticException("Matrix is singular");
+        }
+        return new MatReal(solver.getSolution(b.value));
+    }
+
+    /**
+     * Solves for x in the equation xA = b where A is this square matrix
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation xA = b
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public MatReal rightSolveLU(MatReal b) {
+        return this.transpose().solveLU(b.transpose()).transpose();
+    }
+
+    /**
+     * Solves for the x minimizing |Ax - b| where A is this matrix with at least as many rows as columns
+     * <p>
+     * Uses the calling thread's cached QR solver
+     *
+     * @param b right hand side b
+     * @return the least squares solution x to the equation Ax = b
+     * @throws ArithmeticException if the columns of the matrix are linearly dependent
+     */
+    public MatReal solveLeastSquares(MatReal b) {
+        if (this.getRows() != b.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, 2L * this.getRows() * this.getCols() * (this.getCols() + b.getCols()));
+        }
+        QR<Double> solver = qrSolver(this.getRows(), this.getCols());
+        if (!solver.decompose(this.value) || !solver.isSolvable()) {
+            throw new ArithmeticException("Matrix does not have full column rank");
+        }
+        return new MatReal(solver.getSolution(b.value));
+    }
+
+    /**
+     * Solves for the x minimizing |xA - b| where A is this matrix with at least as many columns as rows
+     *
+     * @param b right hand side b
+     * @return the least squares solution x to the equation xA = b
+     * @throws ArithmeticException if the rows of the matrix are linearly dependent
+     */
+    public MatReal rightSolveLeastSquares(MatReal b) {
+        return this.transpose().solveLeastSquares(b.transpose()).transpose();
+    }
+
     /**
      * Gets the trace of the matrix
      * 
@@ -249,6 +480,91 @@ public class MatReal implements Mat<MatReal> {
         return this.value.toString();
     }
 
+    /**
+     * Sets the smallest dimension at which multiply switches to the parallel tiled product
+     *
+     * @param threshold the smallest number of rows, inner dimension and columns of a product to run in parallel
+     */
+    public static void setParallelThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Sets the pool the parallel tiled product runs on, the common pool by default
+     *
+     * @param pool the pool to run parallel products on
+     */
+    public static void setParallelPool(ForkJoinPool pool) {
+        parallelPool = pool;
+    }
+
+    /**
+     * Gets the pool the parallel tiled product runs on, shared by other bulk operations so one pool can be configured for all of them
+     *
+     * @return the pool parallel products run on
+     */
+    public static ForkJoinPool getParallelPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Gets the calling thread's Cholesky solver for square matrices of the given size
+     *
+     * @param size the size of the matrices to decompose (size x size)
+     * @return a Cholesky instance confined to the calling thread
+     */
+    private static Cholesky<Double> choleskySolver(int size) {
+        return CHOLESKY_SOLVERS.get().computeIfAbsent(size, key -> Cholesky.R064.make(size, size));
+    }
+
+    /**
+     * Gets the calling thread's QR solver for matrices of the given dimensions
+     *
+     * @param rows the number of rows of the matrices to decompose
+     * @param columns the number of columns of the matrices to decompose
+     * @return a QR instance confined to the calling thread
+     */
+    private static QR<Double> qrSolver(int rows, int columns) {
+        return QR_SOLVERS.get().computeIfAbsent(rows, key -> new HashMap<>()).computeIfAbsent(columns, key -> QR.R064.make(rows, columns));
+    }
+
+    /**
+     * Gets the calling thread's LU solver for square matrices of the given size
+     *
+     * @param size the size of the matrices to decompose (size x size)
+     * @return an LU instance confined to the calling thread
+     */
+    private static LU<Double> luSolver(int size) {
+        return LU_SOLVERS.get().computeIfAbsent(size, key -> LU.R064.make(size, size));
+    }
+
+    /**
+     * Gets the calling thread's workspace for cholesky factors of the given size
+     *
+     * @param size the size of the factors (size x size)
+     * @return a workspace confined to the calling thread
+     */
+    private static MutableMatReal spdWorkspace(int size) {
+        return SPD_WORKSPACES.get().computeIfAbsent(size, key -> new MutableMatReal(size, size));
+    }
+
+    /**
+     * Checks that the matrix is square and matches the rows of a right hand side
+     *
+     * @param rows rows of the right hand side
+     */
+    private void checkSolve(int rows) {
+        if (this.getRows() != this.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        if (this.getRows() != rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+    }
+
     /**
      * Forms an identity matrix of the given size
      * 
@@ -279,9 +595,20 @@ public class MatReal implements Mat<MatReal> {
      * @return a matrix formed by placing the given matrices along the diagonal
      */
     public static MatReal diagonal(MatReal... matrices) {
-        R064Store out = STORE_FACTORY.copy(matrices[0].value);
-        for (int i = 1; i < matrices.length; i++) {
-            out = STORE_FACTORY.copy(out.diagonally(matrices[i].value));
+        int rows = 0;
+        int columns = 0;
+        for (MatReal matrix : matrices) {
+            rows += matrix.getRows();
+            columns += matrix.getCols();
+        }
+
+        R064Store out = STORE_FACTORY.make(rows, columns);
+        int row = 0;
+        int column = 0;
+        for (MatReal matrix : matrices) {
+            copyBlock(out, row, column, matrix.value);
+            row += matrix.getRows();
+            column += matrix.getCols();
         }
         return new MatReal(out);
     }
@@ -295,9 +622,18 @@ public class MatReal implements Mat<MatReal> {
      * @return a matrix formed by placing the given matrices horizontally
      */
     public static MatReal horizontal(MatReal... matrices) {
-        R064Store out = STORE_FACTORY.copy(matrices[0].value);
-        for (int i = 1; i < matrices.length; i++) {
-            out = STORE_FACTORY.copy(out.right(matrices[i].value));
+        int rows = 0;
+        int columns = 0;
+        for (MatReal matrix : matrices) {
+            rows = Math.max(rows, matrix.getRows());
+            columns += matrix.getCols();
+        }
+
+        R064Store out = STORE_FACTORY.make(rows, columns);
+        int column = 0;
+        for (MatReal matrix : matrices) {
+            copyBlock(out, 0, column, matrix.value);
+            column += matrix.getCols();
         }
         return new MatReal(out);
     }
@@ -311,51 +647,223 @@ public class MatReal implements Mat<MatReal> {
      * @return a matrix formed by placing the given matrices vertically
      */
     public static MatReal vertical(MatReal... matrices) {
-        R064Store out = STORE_FACTORY.copy(matrices[0].value);
-        for (int i = 1; i < matrices.length; i++) {
-            out = STORE_FACTORY.copy(out.below(matrices[i].value));
+        int rows = 0;
+        int columns = 0;
+        for (MatReal matrix : matrices) {
+            rows += matrix.getRows();
+            columns = Math.max(columns, matrix.getCols());
+        }
+
+        R064Store out = STORE_FACTORY.make(rows, columns);
+        int row = 0;
+        for (MatReal matrix : matrices) {
+            copyBlock(out, row, 0, matrix.value);
+            row += matrix.getRows();
         }
         return new MatReal(out);
     }
 
     /**
-     * Solves for L + beta*vector*vector.transpose() for every vector in W
-     * 
-     * @param L lower triangular matrix to add to
-     * @param W matrix of vectors to be added
-     * @param beta scalar to multiply the vectors by
-     * @return the sum of matrix L and beta*vector*vector.transpose() for every vector in W
+     * Copies a block into a store at the given offset
+     *
+     * @param out store to copy the block into
+     * @param row row of the top left corner of the block in the store
+     * @param column column of the top left corner of the block in the store
+     * @param block values to copy
      */
-    public static MatReal cholUpdate(MatReal L, MatReal W, double beta) {
-        if (L.getRows() != L.getCols()) {
-            throw new IllegalArgumentException("Matrix must be square");
+    private static void copyBlock(R064Store out, int row, int column, MatrixR064 block) {
+        double[] data = out.data;
+        int stride = out.getRowDim();
+        int rows = block.getRowDim();
+        int columns = block.getColDim();
+        for (int j = 0; j < columns; j++) {
+            int offset = row + (column + j) * stride;
+            for (int i = 0; i < rows; i++) {
+                data[offset + i] = block.doubleValue(i, j);
+            }
         }
-        
-        double[][] out = new double[L.getRows()][L.getCols()];
-        double[][] currentL = L.value.toRawCopy2D();
-        double[][] currentW = W.value.toRawCopy2D();
+    }
 
-        for (int i = 0; i < W.getCols(); i++) {
+    /**
+     * Weighted sum of column vectors
+     * <p>
+     * sum_i w_i * a_i
+     *
+     * @param points column vectors a_i of the same size
+     * @param weights weight w_i of each vector
+     * @return the weighted sum of the vectors
+     */
+    public static MatReal weightedMean(MatReal[] points, double[] weights) {
+        if (points.length != weights.length) {
+            throw new IllegalArgumentException("Every vector must have a weight");
+        }
+        int n = points[0].getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.WEIGHTED_SUM, 2L * points.length * n);
+        }
+        double[] point = new double[n];
+        R064Store out = STORE_FACTORY.make(n, 1);
+        for (int i = 0; i < points.length; i++) {
+            for (int r = 0; r < n; r++) {
+                point[r] = points[i].value.doubleValue(r, 0);
+            }
+            ArrayMath.axpy(weights[i], point, out.data);
+        }
+        return new MatReal(out);
+    }
 
-            out = new double[L.getRows()][L.getCols()];
-            double b = 1;
+    /**
+     * Weighted covariance of column vectors around a mean
+     * <p>
+     * sum_i w_i * (a_i - m)(a_i - m)^T
+     *
+     * @param points column vectors a_i of the same size
+     * @param mean mean m to center the vectors around
+     * @param weights weight w_i of each vector
+     * @return the weighted covariance
+     */
+    public static MatReal weightedCovariance(MatReal[] points, MatReal mean, double[] weights) {
+        MutableMatReal out = new MutableMatReal(mean.getRows(), mean.getRows());
+        return weightedCovariance(points, mean, weights, out).toMatReal();
+    }
 
-            for (int j = 0; j < L.getRows(); j++) {
+    /**
+     * Weighted covariance of column vectors around a mean written into a preallocated matrix
+     * <p>
+     * out = sum_i w_i * (a_i - m)(a_i - m)^T
+     * <p>
+     * Accumulated in a single pass over the upper triangle and mirrored
+     *
+     * @param points column vectors a_i of the same size
+     * @param mean mean m to center the vectors around
+     * @param weights weight w_i of each vector
+     * @param out square matrix the size of the mean to write the covariance into
+     * @return out
+     */
+    public static MutableMatReal weightedCovariance(MatReal[] points, MatReal mean, double[] weights, MutableMatReal out) {
+        if (points.length != weights.length) {
+            throw new IllegalArgumentException("Every vector must have a weight");
+        }
+        int n = mean.getRows();
+        if (out.getRows() != n || out.getCols() != n) {
+            throw new IllegalArgumentException("Output must be square with the size of the mean");
+        }
 
-                out[j][j] = Math.sqrt(currentL[j][j]*currentL[j][j] + (beta / b) * currentW[j][i]*currentW[j][i]);
-                double upsilon = (currentL[j][j]*currentL[j][j] * b) + (beta * currentW[j][i]*currentW[j][i]);
+        double[] data = out.store().data;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.WEIGHTED_SUM, (long) points.length * n * (n + 2));
+        }
+        double[] centered = new double[n];
+        out.fill(0);
 
-                for (int k = j+1; k < L.getRows(); k++) {
-                    currentW[k][i] -= (currentW[j][i] / currentL[j][j]) * currentL[k][j];
-                    out[k][j] = ((out[j][j] / currentL[j][j]) * currentL[k][j]) + (out[j][j] * beta * currentW[j][i] * currentW[k][i] / upsilon);
-                }
+        for (int i = 0; i < points.length; i++) {
+            for (int r = 0; r < n; r++) {
+                centered[r] = points[i].value.doubleValue(r, 0) - mean.value.doubleValue(r, 0);
+            }
+            double w = weights[i];
+            for (int c = 0; c < n; c++) {
+                ArrayMath.axpy(w * centered[c], centered, 0, data, c * n, c + 1);
+            }
+        }
 
-                b += beta * (currentW[j][i]*currentW[j][i] / currentL[j][j]/currentL[j][j]);
+        for (int c = 0; c < n; c++) {
+            for (int r = c + 1; r < n; r++) {
+                data[r + c * n] = data[c + r * n];
             }
+        }
+        return out;
+    }
+
+    /**
+     * Weighted cross covariance of two sets of column vectors around their means
+     * <p>
+     * sum_i w_i * (a_i - m_a)(b_i - m_b)^T
+     *
+     * @param a column vectors a_i of the same size
+     * @param meanA mean m_a to center a_i around
+     * @param b column vectors b_i of the same size
+     * @param meanB mean m_b to center b_i around
+     * @param weights weight w_i of each pair of vectors
+     * @return the weighted cross covariance
+     */
+    public static MatReal weightedCrossCovariance(MatReal[] a, MatReal meanA, MatReal[] b, MatReal meanB, double[] weights) {
+        MutableMatReal out = new MutableMatReal(meanA.getRows(), meanB.getRows());
+        return weightedCrossCovariance(a, meanA, b, meanB, weights, out).toMatReal();
+    }
 
-            currentL = out;
+    /**
+     * Weighted cross covariance of two sets of column vectors around their means written into a preallocated matrix
+     * <p>
+     * out = sum_i w_i * (a_i - m_a)(b_i - m_b)^T
+     *
+     * @param a column vectors a_i of the same size
+     * @param meanA mean m_a to center a_i around
+     * @param b column vectors b_i of the same size
+     * @param meanB mean m_b to center b_i around
+     * @param weights weight w_i of each pair of vectors
+     * @param out matrix of size (rows of a_i) x (rows of b_i) to write the cross covariance into
+     * @return out
+     */
+    public static MutableMatReal weightedCrossCovariance(MatReal[] a, MatReal meanA, MatReal[] b, MatReal meanB, double[] weights, MutableMatReal out) {
+        if (a.length != weights.length || b.length != weights.length) {
+            throw new IllegalArgumentException("Every pair of vectors must have a weight");
         }
-        return new MatReal(out);
+        int n = meanA.getRows();
+        int m = meanB.getRows();
+        if (out.getRows() != n || out.getCols() != m) {
+            throw new IllegalArgumentException("Output must be sized to the means");
+        }
+
+        double[] data = out.store().data;
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.WEIGHTED_SUM, (long) weights.length * (n + 2L * n * m + 2L * m));
+        }
+        double[] centeredA = new double[n];
+        out.fill(0);
+
+        for (int i = 0; i < weights.length; i++) {
+            for (int r = 0; r < n; r++) {
+                centeredA[r] = a[i].value.doubleValue(r, 0) - meanA.value.doubleValue(r, 0);
+            }
+            double w = weights[i];
+            for (int c = 0; c < m; c++) {
+                double wc = w * (b[i].value.doubleValue(c, 0) - meanB.value.doubleValue(c, 0));
+                ArrayMath.axpy(wc, centeredA, 0, data, c * n, n);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Solves for L + beta*vector*vector.transpose() for every vector in W
+     * <p>
+     * Negative beta downdates the factor
+     * 
+     * @param L lower triangular matrix to add to
+     * @param W matrix of vectors to be added
+     * @param beta scalar to multiply the vectors by
+     * @return the sum of matrix L and beta*vector*vector.transpose() for every vector in W
+     */
+    public static MatReal cholUpdate(MatReal L, MatReal W, double beta) {
+        MutableMatReal out = new MutableMatReal(L);
+        MutableMatReal vectors = new MutableMatReal(W).scaleInPlace(Math.sqrt(Math.abs(beta)));
+        if (beta < 0) {
+            MutableMatReal.cholDowndateInPlace(out, vectors);
+        } else {
+            MutableMatReal.cholUpdateInPlace(out, vectors);
+        }
+        return out.toMatReal();
+    }
+
+    /**
+     * Solves for L - vector*vector.transpose() for every vector in W
+     * 
+     * @param L lower triangular matrix to subtract from
+     * @param W matrix of vectors to be removed
+     * @return the factor of L*L.transpose() - W*W.transpose()
+     */
+    public static MatReal cholDowndate(MatReal L, MatReal W) {
+        return cholUpdate(L, W, -1);
     }
 
     /**
@@ -368,20 +876,7 @@ public class MatReal implements Mat<MatReal> {
      * @return the solution x to the equation Ax = b
      */
     public static MatReal forwardSub(MatReal A, MatReal b) {
-        double[][] out = new double[b.getRows()][b.getCols()];
-
-        for (int k = 0; k < b.getCols(); k++) {
-            for (int i = 0; i < A.getRows(); i++) {
-                double sum = b.get(i, k);
-                for (int j = 0; j < i; j++) {
-                    sum -= A.value.get(i, j) * out[j][k];
-                }
-
-                out[i][k] = sum / A.get(i, i);
-            }
-        }
-
-        return new MatReal(out);
+        return MutableMatReal.forwardSubInPlace(new MutableMatReal(A), new MutableMatReal(b)).toMatReal();
     }
 
     /**
@@ -394,19 +889,6 @@ public class MatReal implements Mat<MatReal> {
      * @return the solution x to the equation Ax = b
      */
     public static MatReal backwardSub(MatReal A, MatReal b) {
-        double[][] out = new double[b.getRows()][b.getCols()];
-
-        for (int k = 0; k < b.getCols(); k++) {
-            for (int i = A.getRows()-1; i >= 0; i--) {
-                double sum = b.value.get(i, k);
-                for (int j = A.getRows()-1; j >= i+1; j--) {
-                    sum -= A.value.get(i, j) * out[j][k];
-                }
-
-                out[i][k] = sum / A.value.get(i, i);
-            }
-        }
-
-        return new MatReal(out);
+        return MutableMatReal.backwardSubInPlace(new MutableMatReal(A), new MutableMatReal(b)).toMatReal();
     }
 }
@@ -0,0 +1,462 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.Arrays;
+
+/**
+ * Batch of 2D matrices of real numbers that all have the same shape
+ * <p>
+ * Values of every matrix are stored in one array, grouped by element so that the same element of every matrix is contiguous
+ * <p>
+ * Element (row, column) of matrix k is at index (row + column * rows) * count + k, so every batched operation runs its innermost loop over the whole batch
+ */
+public class MatRealBatch {
+
+    /**
+     * Number of matrices in the batch
+     */
+    private final int count;
+
+    /**
+     * Number of rows of every matrix
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of every matrix
+     */
+    private final int cols;
+
+    /**
+     * Values of every matrix in the batch
+     */
+    private final double[] data;
+
+    /**
+     * Constructor of a batch of matrices of zeros
+     *
+     * @param count the number of matrices in the batch
+     * @param rows the number of rows of every matrix
+     * @param columns the number of columns of every matrix
+     */
+    public MatRealBatch(int count, int rows, int columns) {
+        this.count = count;
+        this.rows = rows;
+        this.cols = columns;
+        this.data = new double[count * rows * columns];
+    }
+
+    /**
+     * Creates a batch from a copy of the given matrices
+     *
+     * @param matrices the matrices to copy into the batch, must all have the same shape
+     * @return a batch holding a copy of the given matrices
+     */
+    public static MatRealBatch of(MatReal... matrices) {
+        MatRealBatch batch = new MatRealBatch(matrices.length, matrices[0].getRows(), matrices[0].getCols());
+        for (int k = 0; k < matrices.length; k++) {
+            batch.set(k, matrices[k]);
+        }
+        return batch;
+    }
+
+    /**
+     * Gets the number of matrices in the batch
+     *
+     * @return the number of matrices in the batch
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the number of rows of every matrix
+     *
+     * @return the number of rows of every matrix
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the number of columns of every matrix
+     *
+     * @return the number of columns of every matrix
+     */
+    public int getCols() {
+        return this.cols;
+    }
+
+    /**
+     * Gets the value at the given row and column of a matrix in the batch
+     *
+     * @param index index of the matrix in the batch
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column of the matrix
+     */
+    public double get(int index, int row, int column) {
+        return this.data[(row + column * this.rows) * this.count + index];
+    }
+
+    /**
+     * Sets the value at the given row and column of a matrix in the batch
+     *
+     * @param index index of the matrix in the batch
+     * @param row row of the element getting replaced
+     * @param column column of the element getting replaced
+     * @param value value to replace the element with
+     * @return this batch
+     */
+    public MatRealBatch set(int index, int row, int column, double value) {
+        this.data[(row + column * this.rows) * this.count + index] = value;
+        return this;
+    }
+
+    /**
+     * Gets a copy of a matrix in the batch
+     *
+     * @param index index of the matrix in the batch
+     * @return a copy of the matrix
+     */
+    public MatReal get(int index) {
+        double[][] out = new double[this.rows][this.cols];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out[i][j] = this.get(index, i, j);
+            }
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Replaces a matrix in the batch with a copy of the given matrix
+     *
+     * @param index index of the matrix in the batch
+     * @param matrix the matrix to copy the values from
+     * @return this batch
+     */
+    public MatRealBatch set(int index, MatReal matrix) {
+        if (matrix.getRows() != this.rows || matrix.getCols() != this.cols) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                this.set(index, i, j, matrix.get(i, j));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Copies the values of the given batch into this batch
+     *
+     * @param batch the batch to copy the values from
+     * @return this batch
+     */
+    public MatRealBatch copyFrom(MatRealBatch batch) {
+        checkDimensions(batch, this.rows, this.cols);
+        System.arraycopy(batch.data, 0, this.data, 0, this.data.length);
+        return this;
+    }
+
+    /**
+     * Adds every matrix of the given batch to the matching matrix of this batch
+     *
+     * @param batch the batch to add to this batch
+     * @return this batch
+     */
+    public MatRealBatch addInPlace(MatRealBatch batch) {
+        return this.addScaledInPlace(1, batch);
+    }
+
+    /**
+     * Adds every matrix of the given batch multiplied by a scalar to the matching matrix of this batch
+     *
+     * @param scalar the scalar to multiply the given batch by
+     * @param batch the batch to add to this batch
+     * @return this batch
+     */
+    public MatRealBatch addScaledInPlace(double scalar, MatRealBatch batch) {
+        checkDimensions(batch, this.rows, this.cols);
+        double[] other = batch.data;
+        for (int i = 0; i < this.data.length; i++) {
+            this.data[i] += scalar * other[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts every matrix of the given batch from the matching matrix of this batch
+     *
+     * @param batch the batch to subtract from this batch
+     * @return this batch
+     */
+    public MatRealBatch subtractInPlace(MatRealBatch batch) {
+        return this.addScaledInPlace(-1, batch);
+    }
+
+    /**
+     * Multiplies every matrix of this batch by a scalar
+     *
+     * @param scalar the scalar to multiply the batch by
+     * @return this batch
+     */
+    public MatRealBatch scaleInPlace(double scalar) {
+        for (int i = 0; i < this.data.length; i++) {
+            this.data[i] *= scalar;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies every matrix of this batch with the matching matrix of the given batch and writes the products into the destination
+     * <p>
+     * dst_k = this_k * batch_k
+     * <p>
+     * The destination must not be either of the operands
+     *
+     * @param batch the batch to multiply against this batch
+     * @param dst the batch to write the products into
+     * @return the destination batch
+     */
+    public MatRealBatch multiplyInto(MatRealBatch batch, MatRealBatch dst) {
+        if (this.count != batch.count || this.cols != batch.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        if (dst == this || dst == batch) {
+            throw new IllegalArgumentException("Destination must not be an operand");
+        }
+        checkDimensions(dst, this.rows, batch.cols);
+
+        int n = this.count;
+        double[] a = this.data;
+        double[] b = batch.data;
+        double[] out = dst.data;
+        Arrays.fill(out, 0);
+
+        for (int j = 0; j < batch.cols; j++) {
+            for (int l = 0; l < this.cols; l++) {
+                int bOffset = (l + j * batch.rows) * n;
+                for (int i = 0; i < this.rows; i++) {
+                    int aOffset = (i + l * this.rows) * n;
+                    int outOffset = (i + j * dst.rows) * n;
+                    for (int k = 0; k < n; k++) {
+                        out[outOffset + k] += a[aOffset + k] * b[bOffset + k];
+                    }
+                }
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Multiplies the given matrix with every matrix of this batch and writes the products into the destination
+     * <p>
+     * dst_k = matrix * this_k
+     * <p>
+     * The destination must not be this batch
+     *
+     * @param matrix the matrix to multiply every matrix of this batch by from the left
+     * @param dst the batch to write the products into
+     * @return the destination batch
+     */
+    public MatRealBatch leftMultiplyInto(MatReal matrix, MatRealBatch dst) {
+        if (matrix.getCols() != this.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        if (dst == this) {
+            throw new IllegalArgumentException("Destination must not be an operand");
+        }
+        checkDimensions(dst, matrix.getRows(), this.cols);
+
+        int n = this.count;
+        double[] b = this.data;
+        double[] out = dst.data;
+        Arrays.fill(out, 0);
+
+        for (int j = 0; j < this.cols; j++) {
+            for (int l = 0; l < this.rows; l++) {
+                int bOffset = (l + j * this.rows) * n;
+                for (int i = 0; i < dst.rows; i++) {
+                    double a = matrix.get(i, l);
+                    int outOffset = (i + j * dst.rows) * n;
+                    for (int k = 0; k < n; k++) {
+                        out[outOffset + k] += a * b[bOffset + k];
+                    }
+                }
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes the transpose of every matrix of this batch into the destination
+     * <p>
+     * The destination must not be this batch
+     *
+     * @param dst the batch to write the transposes into
+     * @return the destination batch
+     */
+    public MatRealBatch transposeInto(MatRealBatch dst) {
+        if (dst == this) {
+            throw new IllegalArgumentException("Destination must not be an operand");
+        }
+        checkDimensions(dst, this.cols, this.rows);
+
+        int n = this.count;
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                System.arraycopy(this.data, (i + j * this.rows) * n, dst.data, (j + i * this.cols) * n, n);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Replaces every matrix of this batch with the lower triangular factor L of its cholesky decomposition
+     * <p>
+     * this_k = L_k where L_k * L_k^T = this_k
+     * <p>
+     * Only the lower triangle of every matrix is read, the upper triangle is set to zero
+     *
+     * @return this batch
+     */
+    public MatRealBatch choleskyInPlace() {
+        if (this.rows != this.cols) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+
+        int n = this.count;
+        int size = this.rows;
+        double[] a = this.data;
+
+        for (int j = 0; j < size; j++) {
+            int jj = (j + j * size) * n;
+            for (int l = 0; l < j; l++) {
+                int jl = (j + l * size) * n;
+                for (int k = 0; k < n; k++) {
+                    a[jj + k] -= a[jl + k] * a[jl + k];
+                }
+            }
+            for (int k = 0; k < n; k++) {
+                if (!(a[jj + k] > 0)) {
+                    throw new ArithmeticException("Matrix is not positive definite");
+                }
+                a[jj + k] = Math.sqrt(a[jj + k]);
+            }
+
+            for (int i = j + 1; i < size; i++) {
+                int ij = (i + j * size) * n;
+                for (int l = 0; l < j; l++) {
+                    int il = (i + l * size) * n;
+                    int jl = (j + l * size) * n;
+                    for (int k = 0; k < n; k++) {
+                        a[ij + k] -= a[il + k] * a[jl + k];
+                    }
+                }
+                for (int k = 0; k < n; k++) {
+                    a[ij + k] /= a[jj + k];
+                }
+                Arrays.fill(a, (j + i * size) * n, (j + i * size) * n + n, 0);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Solves for x in the equation Ax = b for every matrix of the batch in place
+     * <p>
+     * A is lower triangular, b is overwritten by x
+     *
+     * @param A batch of lower triangular matrices A
+     * @param b batch of right hand sides b, overwritten by the solutions x
+     * @return b
+     */
+    public static MatRealBatch forwardSubInPlace(MatRealBatch A, MatRealBatch b) {
+        if (A.rows != A.cols || A.count != b.count || A.rows != b.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+
+        int n = A.count;
+        int size = A.rows;
+        double[] a = A.data;
+        double[] x = b.data;
+
+        for (int c = 0; c < b.cols; c++) {
+            for (int i = 0; i < size; i++) {
+                int xi = (i + c * size) * n;
+                for (int j = 0; j < i; j++) {
+                    int aij = (i + j * size) * n;
+                    int xj = (j + c * size) * n;
+                    for (int k = 0; k < n; k++) {
+                        x[xi + k] -= a[aij + k] * x[xj + k];
+                    }
+                }
+                int aii = (i + i * size) * n;
+                for (int k = 0; k < n; k++) {
+                    x[xi + k] /= a[aii + k];
+                }
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Solves for x in the equation Ax = b for every matrix of the batch in place
+     * <p>
+     * A is upper triangular, b is overwritten by x
+     *
+     * @param A batch of upper triangular matrices A
+     * @param b batch of right hand sides b, overwritten by the solutions x
+     * @return b
+     */
+    public static MatRealBatch backwardSubInPlace(MatRealBatch A, MatRealBatch b) {
+        if (A.rows != A.cols || A.count != b.count || A.rows != b.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+
+        int n = A.count;
+        int size = A.rows;
+        double[] a = A.data;
+        double[] x = b.data;
+
+        for (int c = 0; c < b.cols; c++) {
+            for (int i = size - 1; i >= 0; i--) {
+                int xi = (i + c * size) * n;
+                for (int j = i + 1; j < size; j++) {
+                    int aij = (i + j * size) * n;
+                    int xj = (j + c * size) * n;
+                    for (int k = 0; k < n; k++) {
+                        x[xi + k] -= a[aij + k] * x[xj + k];
+                    }
+                }
+                int aii = (i + i * size) * n;
+                for (int k = 0; k < n; k++) {
+                    x[xi + k] /= a[aii + k];
+                }
+            }
+        }
+        return b;
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int k = 0; k < this.count; k++) {
+            builder.append(this.get(k)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks that the batch has the same count as this batch and the given dimensions
+     *
+     * @param batch batch to check
+     * @param rows expected number of rows
+     * @param columns expected number of columns
+     */
+    private void checkDimensions(MatRealBatch batch, int rows, int columns) {
+        if (batch.count != this.count || batch.rows != rows || batch.cols != columns) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+}
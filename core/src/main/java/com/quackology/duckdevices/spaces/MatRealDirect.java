@@ -0,0 +1,458 @@
+package com.quackology.duckdevices.spaces;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 2D matrix of real numbers stored outside of the Java heap
+ * <p>
+ * Values are stored row by row in a direct buffer, or in a memory mapped file, so large matrices do not add pressure to the garbage collector
+ * <p>
+ * Operations from Mat return new matrices, block operations write into this matrix
+ * <p>
+ * Files hold a magic number and the number of rows and columns as three little endian ints followed by the values as little endian doubles
+ */
+public class MatRealDirect implements Mat<MatRealDirect> {
+
+    /**
+     * First int of every file, "MATD" in ASCII
+     */
+    private static final int MAGIC = 0x4D415444;
+
+    /**
+     * Size of the file header in bytes
+     */
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    /**
+     * Number of rows of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the matrix
+     */
+    private final int cols;
+
+    /**
+     * Values of the matrix
+     */
+    private final DoubleBuffer value;
+
+    /**
+     * Constructor of a matrix with the given buffer as values
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @param value buffer holding the values of the matrix row by row
+     */
+    private MatRealDirect(int rows, int columns, DoubleBuffer value) {
+        this.rows = rows;
+        this.cols = columns;
+        this.value = value;
+    }
+
+    /**
+     * Constructor of a matrix of zeros with the given amount of rows and columns
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     */
+    public MatRealDirect(int rows, int columns) {
+        this(rows, columns, ByteBuffer.allocateDirect(bytes(rows, columns)).order(ByteOrder.nativeOrder()).asDoubleBuffer());
+    }
+
+    /**
+     * Gets the number of bytes of the values of a matrix, which must fit in a single direct buffer
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @return the number of bytes of the values
+     */
+    private static int bytes(int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Matrix dimensions must not be negative");
+        }
+        long bytes = (long) rows * columns * Double.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Matrix of " + rows + "x" + columns + " needs " + bytes + " bytes, more than a direct buffer can hold (" + Integer.MAX_VALUE + ")");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Creates a matrix with a copy of the values of the given matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return a matrix stored outside of the Java heap with the values of the given matrix
+     */
+    public static MatRealDirect of(MatReal matrix) {
+        return new MatRealDirect(matrix.getRows(), matrix.getCols()).setBlock(0, 0, matrix);
+    }
+
+    /**
+     * Forms an identity matrix of the given size
+     *
+     * @param size the size of the identity matrix (size x size)
+     * @return the identity matrix of the given size
+     */
+    public static MatRealDirect identity(int size) {
+        MatRealDirect out = new MatRealDirect(size, size);
+        for (int i = 0; i < size; i++) {
+            out.set(i, i, 1);
+        }
+        return out;
+    }
+
+    /**
+     * Memory maps a matrix saved to a file
+     * <p>
+     * Changes to the returned matrix are written through to the file
+     *
+     * @param path path of the file to map
+     * @return a matrix backed by the file
+     * @throws IOException if the file cannot be read or does not hold a matrix saved by {@link #save(Path)}
+     */
+    public static MatRealDirect map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("File " + path + " of " + size + " bytes is too short for a matrix header");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("File " + path + " does not hold a saved matrix");
+            }
+            int rows = header.getInt(Integer.BYTES);
+            int columns = header.getInt(2 * Integer.BYTES);
+            if (rows < 0 || columns < 0) {
+                throw new IOException("File " + path + " has negative matrix dimensions " + rows + "x" + columns);
+            }
+            long bytes = (long) rows * columns * Double.BYTES;
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Matrix of " + rows + "x" + columns + " in " + path + " needs " + bytes + " bytes, more than a mapped buffer can hold (" + Integer.MAX_VALUE + ")");
+            }
+            if (size < HEADER_BYTES + bytes) {
+                throw new IOException("File " + path + " of " + size + " bytes is too short for a " + rows + "x" + columns + " matrix (" + (HEADER_BYTES + bytes) + " bytes)");
+            }
+
+            MappedByteBuffer values = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, bytes);
+            return new MatRealDirect(rows, columns, values.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
+        }
+    }
+
+    /**
+     * Saves the matrix to a file so it can later be mapped with {@link #map(Path)}
+     *
+     * @param path path of the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) this.rows * this.cols * Double.BYTES);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC);
+            out.putInt(this.rows);
+            out.putInt(this.cols);
+            out.asDoubleBuffer().put(this.value.duplicate());
+            out.force();
+        }
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        return this.value.get(row * this.cols + column);
+    }
+
+    /**
+     * Sets the value at the given row and column of this matrix
+     *
+     * @param row row of the element getting replaced
+     * @param column column of the element getting replaced
+     * @param value value to replace the element with
+     * @return this matrix
+     */
+    public MatRealDirect set(int row, int column, double value) {
+        this.value.put(row * this.cols + column, value);
+        return this;
+    }
+
+    /**
+     * Replaces a block of this matrix with the values of the given matrix
+     *
+     * @param row row of the top left corner of the block
+     * @param column column of the top left corner of the block
+     * @param block the matrix to copy into the block
+     * @return this matrix
+     */
+    public MatRealDirect setBlock(int row, int column, MatReal block) {
+        checkBlock(row, column, block.getRows(), block.getCols());
+        double[][] values = block.get();
+        for (int i = 0; i < values.length; i++) {
+            write(this.value, (row + i) * this.cols + column, values[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the given matrix to a block of this matrix
+     *
+     * @param row row of the top left corner of the block
+     * @param column column of the top left corner of the block
+     * @param block the matrix to add to the block
+     * @return this matrix
+     */
+    public MatRealDirect addBlock(int row, int column, MatReal block) {
+        checkBlock(row, column, block.getRows(), block.getCols());
+        for (int i = 0; i < block.getRows(); i++) {
+            int offset = (row + i) * this.cols + column;
+            for (int j = 0; j < block.getCols(); j++) {
+                this.value.put(offset + j, this.value.get(offset + j) + block.get(i, j));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Gets a copy of a block of the matrix on the Java heap
+     *
+     * @param row row of the top left corner of the block
+     * @param column column of the top left corner of the block
+     * @param height height of the block from top down
+     * @param width width of the block from left to right
+     * @return a copy of the block
+     */
+    public MatReal getBlock(int row, int column, int height, int width) {
+        checkBlock(row, column, height, width);
+        double[][] out = new double[height][width];
+        for (int i = 0; i < height; i++) {
+            read(this.value, (row + i) * this.cols + column, out[i]);
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Adds the given matrix to this matrix
+     *
+     * @param matrix the matrix to add to this matrix
+     * @return this matrix
+     */
+    public MatRealDirect addInPlace(MatRealDirect matrix) {
+        checkDimensions(matrix);
+        for (int i = 0; i < this.rows * this.cols; i++) {
+            this.value.put(i, this.value.get(i) + matrix.value.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by a scalar
+     *
+     * @param scalar the scalar to multiply this matrix by
+     * @return this matrix
+     */
+    public MatRealDirect scaleInPlace(double scalar) {
+        for (int i = 0; i < this.rows * this.cols; i++) {
+            this.value.put(i, this.value.get(i) * scalar);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a copy of the matrix on the Java heap
+     *
+     * @return a copy of the matrix on the Java heap
+     */
+    public MatReal toMatReal() {
+        return this.getBlock(0, 0, this.rows, this.cols);
+    }
+
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public int getCols() {
+        return this.cols;
+    }
+
+    @Override
+    public MatRealDirect getRow(int row) {
+        return this.subMat(row, 0, 1, this.cols);
+    }
+
+    @Override
+    public MatRealDirect getCol(int column) {
+        return this.subMat(0, column, this.rows, 1);
+    }
+
+    @Override
+    public MatReal toVector() {
+        double[][] out = new double[this.rows * this.cols][1];
+        for (int j = 0; j < this.cols; j++) {
+            for (int i = 0; i < this.rows; i++) {
+                out[j * this.rows + i][0] = this.get(i, j);
+            }
+        }
+        return new MatReal(out);
+    }
+
+    @Override
+    public MatRealDirect transpose() {
+        MatRealDirect out = new MatRealDirect(this.cols, this.rows);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                out.value.put(j * this.rows + i, this.value.get(i * this.cols + j));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public MatRealDirect subMat(int row, int column, int height, int width) {
+        checkBlock(row, column, height, width);
+        MatRealDirect out = new MatRealDirect(height, width);
+        double[] line = new double[width];
+        for (int i = 0; i < height; i++) {
+            read(this.value, (row + i) * this.cols + column, line);
+            write(out.value, i * width, line);
+        }
+        return out;
+    }
+
+    @Override
+    public MatRealDirect add(MatRealDirect matrix) {
+        return this.copy().addInPlace(matrix);
+    }
+
+    @Override
+    public MatRealDirect subtract(MatRealDirect matrix) {
+        checkDimensions(matrix);
+        MatRealDirect out = this.copy();
+        for (int i = 0; i < this.rows * this.cols; i++) {
+            out.value.put(i, out.value.get(i) - matrix.value.get(i));
+        }
+        return out;
+    }
+
+    @Override
+    public MatRealDirect multiply(MatRealDirect matrix) {
+        if (this.cols != matrix.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        MatRealDirect out = new MatRealDirect(this.rows, matrix.cols);
+        double[] line = new double[matrix.cols];
+        double[] sum = new double[matrix.cols];
+        for (int i = 0; i < this.rows; i++) {
+            Arrays.fill(sum, 0);
+            for (int k = 0; k < this.cols; k++) {
+                double a = this.value.get(i * this.cols + k);
+                if (a == 0) {
+                    continue;
+                }
+                read(matrix.value, k * matrix.cols, line);
+                for (int j = 0; j < line.length; j++) {
+                    sum[j] += a * line[j];
+                }
+            }
+            write(out.value, i * matrix.cols, sum);
+        }
+        return out;
+    }
+
+    @Override
+    public MatRealDirect multiply(double scalar) {
+        return this.copy().scaleInPlace(scalar);
+    }
+
+    @Override
+    public MatRealDirect hadamardProduct(MatRealDirect matrix) {
+        checkDimensions(matrix);
+        MatRealDirect out = this.copy();
+        for (int i = 0; i < this.rows * this.cols; i++) {
+            out.value.put(i, out.value.get(i) * matrix.value.get(i));
+        }
+        return out;
+    }
+
+    public String toString() {
+        return this.toMatReal().toString();
+    }
+
+    /**
+     * Gets a copy of the matrix outside of the Java heap
+     *
+     * @return a copy of the matrix
+     */
+    private MatRealDirect copy() {
+        MatRealDirect out = new MatRealDirect(this.rows, this.cols);
+        out.value.duplicate().put(this.value.duplicate());
+        return out;
+    }
+
+    /**
+     * Reads consecutive values of a buffer into an array
+     *
+     * @param buffer buffer to read from
+     * @param offset index of the first value to read
+     * @param dst array to fill with the values
+     */
+    private static void read(DoubleBuffer buffer, int offset, double[] dst) {
+        DoubleBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(dst);
+    }
+
+    /**
+     * Writes an array into consecutive values of a buffer
+     *
+     * @param buffer buffer to write to
+     * @param offset index of the first value to write
+     * @param src array of the values to write
+     */
+    private static void write(DoubleBuffer buffer, int offset, double[] src) {
+        DoubleBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.put(src);
+    }
+
+    /**
+     * Checks that the matrix has the same dimensions as this matrix
+     *
+     * @param matrix matrix to check
+     */
+    private void checkDimensions(MatRealDirect matrix) {
+        if (this.rows != matrix.rows || this.cols != matrix.cols) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+
+    /**
+     * Checks that a block lies inside the matrix
+     *
+     * @param row row of the top left corner of the block
+     * @param column column of the top left corner of the block
+     * @param height height of the block
+     * @param width width of the block
+     */
+    private void checkBlock(int row, int column, int height, int width) {
+        if (row < 0 || column < 0 || row + height > this.rows || column + width > this.cols) {
+            throw new IllegalArgumentException("Block must lie inside the matrix");
+        }
+    }
+}
@@ -0,0 +1,563 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.Arrays;
+
+/**
+ * Sparse 2D matrix of real numbers
+ * <p>
+ * Stored in compressed sparse row (CSR) form, only non zero values are kept along with their column and where each row starts
+ * <p>
+ * Operations cost time proportional to the number of non zero values instead of the full size of the matrix
+ */
+public class MatRealSparse implements Mat<MatRealSparse> {
+
+    /**
+     * Number of rows of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the matrix
+     */
+    private final int cols;
+
+    /**
+     * Index in columnIndices and values where each row starts, with one extra entry marking the end of the last row
+     */
+    private final int[] rowPointers;
+
+    /**
+     * Column of each non zero value, increasing within each row
+     */
+    private final int[] columnIndices;
+
+    /**
+     * Non zero values of the matrix row by row
+     */
+    private final double[] values;
+
+    /**
+     * Constructor of a matrix from its compressed sparse row arrays
+     * <p>
+     * The arrays are used as is and must not be modified afterwards
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     * @param rowPointers index where each row starts, followed by the number of non zero values
+     * @param columnIndices column of each non zero value, increasing within each row
+     * @param values non zero values row by row
+     */
+    private MatRealSparse(int rows, int columns, int[] rowPointers, int[] columnIndices, double[] values) {
+        this.rows = rows;
+        this.cols = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Constructor of a matrix of zeros with the given amount of rows and columns
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     */
+    public MatRealSparse(int rows, int columns) {
+        this(rows, columns, new int[rows + 1], new int[0], new double[0]);
+    }
+
+    /**
+     * Creates a sparse matrix holding the non zero values of the given matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return a sparse matrix with the values of the given matrix
+     */
+    public static MatRealSparse of(MatReal matrix) {
+        int rows = matrix.getRows();
+        int columns = matrix.getCols();
+        double[][] dense = matrix.get();
+
+        int[] rowPointers = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            rowPointers[i + 1] = rowPointers[i];
+            for (int j = 0; j < columns; j++) {
+                if (dense[i][j] != 0) {
+                    rowPointers[i + 1]++;
+                }
+            }
+        }
+
+        int[] columnIndices = new int[rowPointers[rows]];
+        double[] values = new double[rowPointers[rows]];
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (dense[i][j] != 0) {
+                    columnIndices[index] = j;
+                    values[index] = dense[i][j];
+                    index++;
+                }
+            }
+        }
+        return new MatRealSparse(rows, columns, rowPointers, columnIndices, values);
+    }
+
+    /**
+     * Forms an identity matrix of the given size
+     *
+     * @param size the size of the identity matrix (size x size)
+     * @return the identity matrix of the given size
+     */
+    public static MatRealSparse identity(int size) {
+        double[] values = new double[size];
+        Arrays.fill(values, 1);
+        return diagonal(values);
+    }
+
+    /**
+     * Forms a diagonal matrix with the given values along the diagonal
+     *
+     * @param values the values along the diagonal
+     * @return a square matrix with the given values along the diagonal
+     */
+    public static MatRealSparse diagonal(double... values) {
+        MatReal[] blocks = new MatReal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            blocks[i] = new MatReal(values[i]);
+        }
+        return diagonal(blocks);
+    }
+
+    /**
+     * Forms a sparse matrix by placing the given matrices diagonally
+     * <p>
+     * Only the non zero values of the blocks are stored
+     *
+     * @param matrices the matrices to be combined
+     * @return a sparse matrix formed by placing the given matrices along the diagonal
+     */
+    public static MatRealSparse diagonal(MatReal... matrices) {
+        int rows = 0;
+        int columns = 0;
+        int nonZeros = 0;
+        MatRealSparse[] blocks = new MatRealSparse[matrices.length];
+        for (int b = 0; b < matrices.length; b++) {
+            blocks[b] = of(matrices[b]);
+            rows += blocks[b].rows;
+            columns += blocks[b].cols;
+            nonZeros += blocks[b].getNonZeros();
+        }
+
+        int[] rowPointers = new int[rows + 1];
+        int[] columnIndices = new int[nonZeros];
+        double[] values = new double[nonZeros];
+        int row = 0;
+        int column = 0;
+        for (MatRealSparse block : blocks) {
+            int start = rowPointers[row];
+            for (int i = 0; i < block.rows; i++) {
+                rowPointers[row + i + 1] = start + block.rowPointers[i + 1];
+            }
+            for (int k = 0; k < block.getNonZeros(); k++) {
+                columnIndices[start + k] = block.columnIndices[k] + column;
+                values[start + k] = block.values[k];
+            }
+            row += block.rows;
+            column += block.cols;
+        }
+        return new MatRealSparse(rows, columns, rowPointers, columnIndices, values);
+    }
+
+    /**
+     * Gets the number of non zero values stored in the matrix
+     *
+     * @return the number of non zero values stored in the matrix
+     */
+    public int getNonZeros() {
+        return this.rowPointers[this.rows];
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        int index = Arrays.binarySearch(this.columnIndices, this.rowPointers[row], this.rowPointers[row + 1], column);
+        return index >= 0 ? this.values[index] : 0;
+    }
+
+    /**
+     * Gets a dense copy of the matrix
+     *
+     * @return a dense copy of the matrix
+     */
+    public MatReal toMatReal() {
+        double[][] out = new double[this.rows][this.cols];
+        for (int i = 0; i < this.rows; i++) {
+            for (int k = this.rowPointers[i]; k < this.rowPointers[i + 1]; k++) {
+                out[i][this.columnIndices[k]] = this.values[k];
+            }
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Adds this matrix to a dense matrix
+     *
+     * @param matrix the dense matrix to add this matrix to
+     * @return a dense matrix that is the sum of the two matrices
+     */
+    public MatReal addTo(MatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, this.getNonZeros());
+        }
+        double[][] out = matrix.get();
+        for (int i = 0; i < this.rows; i++) {
+            for (int k = this.rowPointers[i]; k < this.rowPointers[i + 1]; k++) {
+                out[i][this.columnIndices[k]] += this.values[k];
+            }
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Multiplies this matrix with a dense matrix
+     * <p>
+     * this * matrix
+     *
+     * @param matrix the dense matrix to multiply against this matrix
+     * @return a dense matrix that is the product of the two matrices
+     */
+    public MatReal multiply(MatReal matrix) {
+        if (this.cols != matrix.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2L * this.getNonZeros() * matrix.getCols());
+        }
+        double[][] dense = matrix.get();
+        double[][] out = new double[this.rows][matrix.getCols()];
+        for (int i = 0; i < this.rows; i++) {
+            double[] row = out[i];
+            for (int k = this.rowPointers[i]; k < this.rowPointers[i + 1]; k++) {
+                double a = this.values[k];
+                double[] other = dense[this.columnIndices[k]];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] += a * other[j];
+                }
+            }
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Multiplies a dense matrix with this matrix
+     * <p>
+     * matrix * this
+     *
+     * @param matrix the dense matrix to multiply this matrix against
+     * @return a dense matrix that is the product of the two matrices
+     */
+    public MatReal premultiply(MatReal matrix) {
+        if (matrix.getCols() != this.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2L * this.getNonZeros() * matrix.getRows());
+        }
+        double[][] dense = matrix.get();
+        double[][] out = new double[matrix.getRows()][this.cols];
+        for (int r = 0; r < dense.length; r++) {
+            double[] row = out[r];
+            for (int i = 0; i < this.rows; i++) {
+                double a = dense[r][i];
+                if (a == 0) {
+                    continue;
+                }
+                for (int k = this.rowPointers[i]; k < this.rowPointers[i + 1]; k++) {
+                    row[this.columnIndices[k]] += a * this.values[k];
+                }
+            }
+        }
+        return new MatReal(out);
+    }
+
+    /**
+     * Propagates a dense matrix through this matrix on both sides
+     * <p>
+     * this * matrix * this^T, such as F * P * F^T for a covariance P
+     *
+     * @param matrix the dense square matrix to propagate
+     * @return a dense matrix that is this * matrix * this^T
+     */
+    public MatReal quadraticForm(MatReal matrix) {
+        return this.multiply(this.multiply(matrix).transpose()).transpose();
+    }
+
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public int getCols() {
+        return this.cols;
+    }
+
+    @Override
+    public MatRealSparse getRow(int row) {
+        return this.subMat(row, 0, 1, this.cols);
+    }
+
+    @Override
+    public MatRealSparse getCol(int column) {
+        return this.subMat(0, column, this.rows, 1);
+    }
+
+    @Override
+    public MatReal toVector() {
+        return this.toMatReal().toVector();
+    }
+
+    @Override
+    public MatRealSparse transpose() {
+        int nonZeros = this.getNonZeros();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.TRANSPOSE, 0);
+        }
+        int[] rowPointers = new int[this.cols + 1];
+        for (int k = 0; k < nonZeros; k++) {
+            rowPointers[this.columnIndices[k] + 1]++;
+        }
+        for (int j = 0; j < this.cols; j++) {
+            rowPointers[j + 1] += rowPointers[j];
+        }
+
+        int[] next = Arrays.copyOf(rowPointers, this.cols);
+        int[] columnIndices = new int[nonZeros];
+        double[] values = new double[nonZeros];
+        for (int i = 0; i < this.rows; i++) {
+            for (int k = this.rowPointers[i]; k < this.rowPointers[i + 1]; k++) {
+                int index = next[this.columnIndices[k]]++;
+                columnIndices[index] = i;
+                values[index] = this.values[k];
+            }
+        }
+        return new MatRealSparse(this.cols, this.rows, rowPointers, columnIndices, values);
+    }
+
+    @Override
+    public MatRealSparse subMat(int row, int column, int height, int width) {
+        if (row < 0 || column < 0 || row + height > this.rows || column + width > this.cols) {
+            throw new IllegalArgumentException("Submatrix must lie inside the matrix");
+        }
+        int[] rowPointers = new int[height + 1];
+        for (int i = 0; i < height; i++) {
+            rowPointers[i + 1] = rowPointers[i];
+            for (int k = this.rowPointers[row + i]; k < this.rowPointers[row + i + 1]; k++) {
+                if (this.columnIndices[k] >= column && this.columnIndices[k] < column + width) {
+                    rowPointers[i + 1]++;
+                }
+            }
+        }
+
+        int[] columnIndices = new int[rowPointers[height]];
+        double[] values = new double[rowPointers[height]];
+        int index = 0;
+        for (int i = 0; i < height; i++) {
+            for (int k = this.rowPointers[row + i]; k < this.rowPointers[row + i + 1]; k++) {
+                if (this.columnIndices[k] >= column && this.columnIndices[k] < column + width) {
+                    columnIndices[index] = this.columnIndices[k] - column;
+                    values[index] = this.values[k];
+                    index++;
+                }
+            }
+        }
+        return new MatRealSparse(height, width, rowPointers, columnIndices, values);
+    }
+
+    @Override
+    public MatRealSparse add(MatRealSparse matrix) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, (long) this.getNonZeros() + matrix.getNonZeros());
+        }
+        return this.addScaled(1, matrix);
+    }
+
+    @Override
+    public MatRealSparse subtract(MatRealSparse matrix) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, (long) this.getNonZeros() + matrix.getNonZeros());
+        }
+        return this.addScaled(-1, matrix);
+    }
+
+    @Override
+    public MatRealSparse multiply(MatRealSparse matrix) {
+        if (this.cols != matrix.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+
+        if (MatProfiler.enabled) {
+            long products = 0;
+            for (int k = 0; k < this.getNonZeros(); k++) {
+                products += matrix.rowPointers[this.columnIndices[k] + 1] - matrix.rowPointers[this.columnIndices[k]];
+            }
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2 * products);
+        }
+
+        double[] accumulator = new double[matrix.cols];
+        int[] marker = new int[matrix.cols];
+        Arrays.fill(marker, -1);
+        int[] pattern = new int[matrix.cols];
+
+        int[] rowPointers = new int[this.rows + 1];
+        int[] columnIndices = new int[this.getNonZeros() + matrix.getNonZeros()];
+        double[] values = new double[columnIndices.length];
+        int nonZeros = 0;
+
+        for (int i = 0; i < this.rows; i++) {
+            int count = 0;
+            for (int k = this.rowPointers[i]; k < this.rowPointers[i + 1]; k++) {
+                int l = this.columnIndices[k];
+                double a = this.values[k];
+                for (int m = matrix.rowPointers[l]; m < matrix.rowPointers[l + 1]; m++) {
+                    int j = matrix.columnIndices[m];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        pattern[count++] = j;
+                        accumulator[j] = 0;
+                    }
+                    accumulator[j] += a * matrix.values[m];
+                }
+            }
+
+            Arrays.sort(pattern, 0, count);
+            if (nonZeros + count > columnIndices.length) {
+                int capacity = Math.max(2 * columnIndices.length, nonZeros + count);
+                columnIndices = Arrays.copyOf(columnIndices, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            for (int c = 0; c < count; c++) {
+                double value = accumulator[pattern[c]];
+                if (value != 0) {
+                    columnIndices[nonZeros] = pattern[c];
+                    values[nonZeros] = value;
+                    nonZeros++;
+                }
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new MatRealSparse(this.rows, matrix.cols, rowPointers, Arrays.copyOf(columnIndices, nonZeros), Arrays.copyOf(values, nonZeros));
+    }
+
+    @Override
+    public MatRealSparse multiply(double scalar) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SCALE, this.getNonZeros());
+        }
+        if (scalar == 0) {
+            return new MatRealSparse(this.rows, this.cols);
+        }
+        double[] values = new double[this.values.length];
+        for (int k = 0; k < values.length; k++) {
+            values[k] = this.values[k] * scalar;
+        }
+        return new MatRealSparse(this.rows, this.cols, this.rowPointers, this.columnIndices, values);
+    }
+
+    @Override
+    public MatRealSparse hadamardProduct(MatRealSparse matrix) {
+        checkDimensions(matrix.rows, matrix.cols);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, Math.min(this.getNonZeros(), matrix.getNonZeros()));
+        }
+        int[] rowPointers = new int[this.rows + 1];
+        int[] columnIndices = new int[Math.min(this.getNonZeros(), matrix.getNonZeros())];
+        double[] values = new double[columnIndices.length];
+        int nonZeros = 0;
+        for (int i = 0; i < this.rows; i++) {
+            int a = this.rowPointers[i];
+            int b = matrix.rowPointers[i];
+            while (a < this.rowPointers[i + 1] && b < matrix.rowPointers[i + 1]) {
+                if (this.columnIndices[a] < matrix.columnIndices[b]) {
+                    a++;
+                } else if (this.columnIndices[a] > matrix.columnIndices[b]) {
+                    b++;
+                } else {
+                    double value = this.values[a] * matrix.values[b];
+                    if (value != 0) {
+                        columnIndices[nonZeros] = this.columnIndices[a];
+                        values[nonZeros] = value;
+                        nonZeros++;
+                    }
+                    a++;
+                    b++;
+                }
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new MatRealSparse(this.rows, this.cols, rowPointers, Arrays.copyOf(columnIndices, nonZeros), Arrays.copyOf(values, nonZeros));
+    }
+
+    public String toString() {
+        return this.toMatReal().toString();
+    }
+
+    /**
+     * Adds the given matrix multiplied by a scalar to this matrix by merging the rows of both matrices
+     *
+     * @param scalar the scalar to multiply the given matrix by
+     * @param matrix the matrix to add
+     * @return a matrix that is this + scalar * matrix
+     */
+    private MatRealSparse addScaled(double scalar, MatRealSparse matrix) {
+        checkDimensions(matrix.rows, matrix.cols);
+        int[] rowPointers = new int[this.rows + 1];
+        int[] columnIndices = new int[this.getNonZeros() + matrix.getNonZeros()];
+        double[] values = new double[columnIndices.length];
+        int nonZeros = 0;
+        for (int i = 0; i < this.rows; i++) {
+            int a = this.rowPointers[i];
+            int b = matrix.rowPointers[i];
+            int aEnd = this.rowPointers[i + 1];
+            int bEnd = matrix.rowPointers[i + 1];
+            while (a < aEnd || b < bEnd) {
+                int column;
+                double value;
+                if (b >= bEnd || (a < aEnd && this.columnIndices[a] < matrix.columnIndices[b])) {
+                    column = this.columnIndices[a];
+                    value = this.values[a++];
+                } else if (a >= aEnd || this.columnIndices[a] > matrix.columnIndices[b]) {
+                    column = matrix.columnIndices[b];
+                    value = scalar * matrix.values[b++];
+                } else {
+                    column = this.columnIndices[a];
+                    value = this.values[a++] + scalar * matrix.values[b++];
+                }
+                if (value != 0) {
+                    columnIndices[nonZeros] = column;
+                    values[nonZeros] = value;
+                    nonZeros++;
+                }
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new MatRealSparse(this.rows, this.cols, rowPointers, Arrays.copyOf(columnIndices, nonZeros), Arrays.copyOf(values, nonZeros));
+    }
+
+    /**
+     * Checks that the matrix has the given dimensions
+     *
+     * @param rows expected number of rows
+     * @param columns expected number of columns
+     */
+    private void checkDimensions(int rows, int columns) {
+        if (this.rows != rows || this.cols != columns) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+}
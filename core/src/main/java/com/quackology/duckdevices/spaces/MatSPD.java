@@ -0,0 +1,187 @@
+package com.quackology.duckdevices.spaces;
+
+/**
+ * Symmetric positive definite matrix of real numbers, such as a covariance
+ * <p>
+ * The cholesky factor, inverse and log determinant are computed the first time they are needed and cached
+ * <p>
+ * The matrix is immutable so the cache is valid for its whole lifetime, a changed value is a new MatSPD with an empty cache
+ * <p>
+ * Cached values are fully built before they are published through volatile fields, so the matrix can be shared between threads, two threads may both compute a value the first time but read the same result
+ * <p>
+ * The factorization and solves are recorded in {@link MatProfiler} by the {@link MutableMatReal} operations they run
+ */
+public class MatSPD {
+
+    /**
+     * Values of the matrix
+     */
+    private final MatReal value;
+
+    /**
+     * Lower triangular cholesky factor L where value = L * L^T, null until first needed
+     */
+    private volatile MutableMatReal cholesky;
+
+    /**
+     * Inverse of the matrix, null until first needed
+     */
+    private volatile MatReal inverse;
+
+    /**
+     * Natural logarithm of the determinant, NaN until first needed
+     */
+    private volatile double logDeterminant = Double.NaN;
+
+    /**
+     * Constructor of a symmetric positive definite matrix
+     * <p>
+     * Positive definiteness is checked when the cholesky factor is first computed
+     *
+     * @param value symmetric positive definite matrix
+     */
+    public MatSPD(MatReal value) {
+        if (value.getRows() != value.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        this.value = value;
+    }
+
+    /**
+     * Gets the values of the matrix
+     *
+     * @return the values of the matrix
+     */
+    public MatReal getValue() {
+        return this.value;
+    }
+
+    /**
+     * Gets the size of the matrix (size x size)
+     *
+     * @return the size of the matrix
+     */
+    public int getSize() {
+        return this.value.getRows();
+    }
+
+    /**
+     * Gets the lower triangular matrix of the cholesky decomposition
+     *
+     * @return the lower triangular matrix L where value = L * L^T
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatReal getCholesky() {
+        return this.cholesky().toMatReal();
+    }
+
+    /**
+     * Gets the inverse of the matrix
+     *
+     * @return the inverse of the matrix
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatReal inverse() {
+        MatReal inverse = this.inverse;
+        if (inverse == null) {
+            MutableMatReal out = new MutableMatReal(this.getSize(), this.getSize()).setToIdentity();
+            inverse = this.solveInPlace(out).toMatReal();
+            this.inverse = inverse;
+        }
+        return inverse;
+    }
+
+    /**
+     * Gets the natural logarithm of the determinant of the matrix
+     * <p>
+     * Stays finite for large matrices where the determinant itself would overflow or underflow
+     *
+     * @return the natural logarithm of the determinant of the matrix
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public double logDeterminant() {
+        double logDeterminant = this.logDeterminant;
+        if (Double.isNaN(logDeterminant)) {
+            MutableMatReal factor = this.cholesky();
+            double sum = 0;
+            for (int i = 0; i < this.getSize(); i++) {
+                sum += Math.log(factor.get(i, i));
+            }
+            logDeterminant = 2 * sum;
+            this.logDeterminant = logDeterminant;
+        }
+        return logDeterminant;
+    }
+
+    /**
+     * Gets the determinant of the matrix
+     *
+     * @return the determinant of the matrix
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public double determinant() {
+        return Math.exp(this.logDeterminant());
+    }
+
+    /**
+     * Solves for x in the equation Ax = b where A is this matrix
+     *
+     * @param b right hand side b
+     * @return the solution x to the equation Ax = b
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MatReal solve(MatReal b) {
+        return this.solveInPlace(new MutableMatReal(b)).toMatReal();
+    }
+
+    /**
+     * Solves for x in the equation Ax = b where A is this matrix in place
+     *
+     * @param b right hand side b, overwritten by the solution x
+     * @return b
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public MutableMatReal solveInPlace(MutableMatReal b) {
+        MutableMatReal factor = this.cholesky();
+        MutableMatReal.forwardSubInPlace(factor, b);
+        return MutableMatReal.backwardSubTransposedInPlace(factor, b);
+    }
+
+    /**
+     * Gets the squared Mahalanobis distance of a vector
+     * <p>
+     * x^T * A^-1 * x, computed with one triangular solve
+     *
+     * @param x column vector
+     * @return the squared Mahalanobis distance of x
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public double mahalanobis(MatReal x) {
+        MutableMatReal y = MutableMatReal.forwardSubInPlace(this.cholesky(), new MutableMatReal(x));
+        double sum = 0;
+        for (int i = 0; i < y.getRows(); i++) {
+            sum += y.get(i, 0) * y.get(i, 0);
+        }
+        return sum;
+    }
+
+    public String toString() {
+        return this.value.toString();
+    }
+
+    /**
+     * Gets the cached cholesky factor, computing it if needed
+     * <p>
+     * The factor is only published once it is complete and is never written after, solves only read it
+     *
+     * @return the lower triangular cholesky factor
+     */
+    private MutableMatReal cholesky() {
+        MutableMatReal cholesky = this.cholesky;
+        if (cholesky == null) {
+            cholesky = MutableMatReal.choleskyInPlace(new MutableMatReal(this.value));
+            this.cholesky = cholesky;
+        }
+        return cholesky;
+    }
+}
@@ -0,0 +1,279 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.Arrays;
+
+import com.quackology.duckdevices.utils.ArrayMath;
+
+/**
+ * Mutable 2D matrix of complex numbers for allocation free hot loops
+ * <p>
+ * Values are stored like MatComplex, row by row with the real and imaginary parts interleaved
+ * <p>
+ * Every operation writes into an existing matrix, so a workspace can be allocated once and reused every iteration
+ */
+public class MutableMatComplex {
+
+    /**
+     * Number of rows of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the matrix
+     */
+    private final int cols;
+
+    /**
+     * Values of the matrix, real and imaginary parts interleaved row by row
+     */
+    private final double[] values;
+
+    /**
+     * Constructor of a matrix of zeros with the given amount of rows and columns
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     */
+    public MutableMatComplex(int rows, int columns) {
+        this.rows = rows;
+        this.cols = columns;
+        this.values = new double[2 * rows * columns];
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated((long) rows * columns, 16);
+        }
+    }
+
+    /**
+     * Constructor of a matrix with a copy of the values of the given matrix
+     *
+     * @param matrix the matrix to copy the values from
+     */
+    public MutableMatComplex(MatComplex matrix) {
+        this(matrix.getRows(), matrix.getCols());
+        this.copyFrom(matrix);
+    }
+
+    /**
+     * Gets the number of rows of the matrix
+     *
+     * @return the number of rows of the matrix
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the number of columns of the matrix
+     *
+     * @return the number of columns of the matrix
+     */
+    public int getCols() {
+        return this.cols;
+    }
+
+    /**
+     * Gets the real part of the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the real part of the value at the given row and column
+     */
+    public double getReal(int row, int column) {
+        return this.values[2 * (row * this.cols + column)];
+    }
+
+    /**
+     * Gets the imaginary part of the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the imaginary part of the value at the given row and column
+     */
+    public double getImg(int row, int column) {
+        return this.values[2 * (row * this.cols + column) + 1];
+    }
+
+    /**
+     * Sets the value at the given row and column
+     *
+     * @param row row of the element getting replaced
+     * @param column column of the element getting replaced
+     * @param real real part of complex number to replace the element with
+     * @param img imaginary part of complex number to replace the element with
+     * @return this matrix
+     */
+    public MutableMatComplex set(int row, int column, double real, double img) {
+        int index = 2 * (row * this.cols + column);
+        this.values[index] = real;
+        this.values[index + 1] = img;
+        return this;
+    }
+
+    /**
+     * Sets every element of the matrix to the given value
+     *
+     * @param real real part of the value to fill the matrix with
+     * @param img imaginary part of the value to fill the matrix with
+     * @return this matrix
+     */
+    public MutableMatComplex fill(double real, double img) {
+        for (int i = 0; i < this.values.length; i += 2) {
+            this.values[i] = real;
+            this.values[i + 1] = img;
+        }
+        return this;
+    }
+
+    /**
+     * Copies the values of the given matrix into this matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return this matrix
+     */
+    public MutableMatComplex copyFrom(MatComplex matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        System.arraycopy(matrix.values(), 0, this.values, 0, this.values.length);
+        return this;
+    }
+
+    /**
+     * Copies the values of the given matrix into this matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return this matrix
+     */
+    public MutableMatComplex copyFrom(MutableMatComplex matrix) {
+        checkDimensions(matrix.rows, matrix.cols);
+        System.arraycopy(matrix.values, 0, this.values, 0, this.values.length);
+        return this;
+    }
+
+    /**
+     * Adds the given matrix to this matrix
+     *
+     * @param matrix the matrix to add to this matrix
+     * @return this matrix
+     */
+    public MutableMatComplex addInPlace(MutableMatComplex matrix) {
+        checkDimensions(matrix.rows, matrix.cols);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, 2L * this.rows * this.cols);
+        }
+        ArrayMath.add(this.values, matrix.values, this.values);
+        return this;
+    }
+
+    /**
+     * Adds the given matrix to this matrix
+     *
+     * @param matrix the matrix to add to this matrix
+     * @return this matrix
+     */
+    public MutableMatComplex addInPlace(MatComplex matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, 2L * this.rows * this.cols);
+        }
+        ArrayMath.add(this.values, matrix.values(), this.values);
+        return this;
+    }
+
+    /**
+     * Subtracts the given matrix from this matrix
+     *
+     * @param matrix the matrix to subtract from this matrix
+     * @return this matrix
+     */
+    public MutableMatComplex subtractInPlace(MutableMatComplex matrix) {
+        checkDimensions(matrix.rows, matrix.cols);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, 2L * this.rows * this.cols);
+        }
+        ArrayMath.subtract(this.values, matrix.values, this.values);
+        return this;
+    }
+
+    /**
+     * Subtracts the given matrix from this matrix
+     *
+     * @param matrix the matrix to subtract from this matrix
+     * @return this matrix
+     */
+    public MutableMatComplex subtractInPlace(MatComplex matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, 2L * this.rows * this.cols);
+        }
+        ArrayMath.subtract(this.values, matrix.values(), this.values);
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by a real scalar
+     *
+     * @param scalar the scalar to multiply this matrix by
+     * @return this matrix
+     */
+    public MutableMatComplex scaleInPlace(double scalar) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SCALE, 2L * this.rows * this.cols);
+        }
+        ArrayMath.scale(scalar, this.values);
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by the given matrix element by element
+     *
+     * @param matrix the matrix to multiply this matrix by
+     * @return this matrix
+     */
+    public MutableMatComplex hadamardInPlace(MutableMatComplex matrix) {
+        checkDimensions(matrix.rows, matrix.cols);
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, 6L * this.rows * this.cols);
+        }
+        ArrayMath.complexMultiply(this.values, matrix.values, this.values);
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by the given matrix element by element
+     *
+     * @param matrix the matrix to multiply this matrix by
+     * @return this matrix
+     */
+    public MutableMatComplex hadamardInPlace(MatComplex matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.HADAMARD, 6L * this.rows * this.cols);
+        }
+        ArrayMath.complexMultiply(this.values, matrix.values(), this.values);
+        return this;
+    }
+
+    /**
+     * Gets an immutable copy of the matrix
+     *
+     * @return an immutable copy of the matrix
+     */
+    public MatComplex toMatComplex() {
+        return new MatComplex(this.rows, this.cols, Arrays.copyOf(this.values, this.values.length));
+    }
+
+    public String toString() {
+        return this.toMatComplex().toString();
+    }
+
+    /**
+     * Checks that the matrix has the given dimensions
+     *
+     * @param rows expected number of rows
+     * @param columns expected number of columns
+     */
+    private void checkDimensions(int rows, int columns) {
+        if (this.rows != rows || this.cols != columns) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package com.quackology.duckdevices.spaces;
+
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.R064Store;
+
+/**
+ * Mutable 2D matrix of real numbers for allocation free hot loops
+ * <p>
+ * Based on OjAlgo's dense physical store (R064Store), values are stored column by column
+ * <p>
+ * Every operation writes into an existing matrix, so a workspace can be allocated once and reused every iteration
+ */
+public class MutableMatReal {
+
+    /**
+     * OjAlgo's factory for creating physical stores
+     */
+    private static final PhysicalStore.Factory<Double, R064Store> STORE_FACTORY = R064Store.FACTORY;
+
+    /**
+     * Number of right hand side columns solved together so each column of the triangular matrix is reused while it is in cache
+     */
+    private static final int BLOCK_SIZE = 32;
+
+    /**
+     * Values of the matrix
+     */
+    private final R064Store value;
+
+    /**
+     * Constructor of a matrix of zeros with the given amount of rows and columns
+     *
+     * @param rows the number of rows in the matrix
+     * @param columns the number of columns in the matrix
+     */
+    public MutableMatReal(int rows, int columns) {
+        this.value = STORE_FACTORY.make(rows, columns);
+        if (MatProfiler.enabled) {
+            MatProfiler.allocated((long) rows * columns, 8);
+        }
+    }
+
+    /**
+     * Constructor of a matrix with a copy of the values of the given matrix
+     *
+     * @param matrix the matrix to copy the values from
+     */
+    public MutableMatReal(MatReal matrix) {
+        this(matrix.getRows(), matrix.getCols());
+        this.copyFrom(matrix);
+    }
+
+    /**
+     * Gets the OjAlgo store backing the matrix
+     *
+     * @return the OjAlgo store backing the matrix
+     */
+    R064Store store() {
+        return this.value;
+    }
+
+    /**
+     * Gets the number of rows of the matrix
+     *
+     * @return the number of rows of the matrix
+     */
+    public int getRows() {
+        return this.value.getRowDim();
+    }
+
+    /**
+     * Gets the number of columns of the matrix
+     *
+     * @return the number of columns of the matrix
+     */
+    public int getCols() {
+        return this.value.getColDim();
+    }
+
+    /**
+     * Gets the value at the given row and column
+     *
+     * @param row row of the value
+     * @param column column of the value
+     * @return the value at the given row and column
+     */
+    public double get(int row, int column) {
+        return this.value.data[row + column * this.getRows()];
+    }
+
+    /**
+     * Sets the value at the given row and column
+     *
+     * @param row row of the element getting replaced
+     * @param column column of the element getting replaced
+     * @param value value to replace the element with
+     * @return this matrix
+     */
+    public MutableMatReal set(int row, int column, double value) {
+        this.value.data[row + column * this.getRows()] = value;
+        return this;
+    }
+
+    /**
+     * Sets every element of the matrix to the given value
+     *
+     * @param value value to fill the matrix with
+     * @return this matrix
+     */
+    public MutableMatReal fill(double value) {
+        double[] data = this.value.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = value;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the matrix to the identity (ones along the diagonal, zeros elsewhere)
+     *
+     * @return this matrix
+     */
+    public MutableMatReal setToIdentity() {
+        this.fill(0);
+        for (int i = 0; i < Math.min(this.getRows(), this.getCols()); i++) {
+            this.set(i, i, 1);
+        }
+        return this;
+    }
+
+    /**
+     * Copies the values of the given matrix into this matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return this matrix
+     */
+    public MutableMatReal copyFrom(MatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        this.value.fillMatching(matrix.value());
+        return this;
+    }
+
+    /**
+     * Copies the values of the given matrix into this matrix
+     *
+     * @param matrix the matrix to copy the values from
+     * @return this matrix
+     */
+    public MutableMatReal copyFrom(MutableMatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        System.arraycopy(matrix.value.data, 0, this.value.data, 0, this.value.data.length);
+        return this;
+    }
+
+    /**
+     * Adds the given matrix to this matrix
+     *
+     * @param matrix the matrix to add to this matrix
+     * @return this matrix
+     */
+    public MutableMatReal addInPlace(MutableMatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, (long) this.getRows() * this.getCols());
+        }
+        double[] data = this.value.data;
+        double[] other = matrix.value.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] += other[i];
+        }
+        return this;
+    }
+
+    /**
+     * Adds the given matrix to this matrix
+     *
+     * @param matrix the matrix to add to this matrix
+     * @return this matrix
+     */
+    public MutableMatReal addInPlace(MatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, (long) this.getRows() * this.getCols());
+        }
+        double[] data = this.value.data;
+        int rows = this.getRows();
+        for (int j = 0; j < this.getCols(); j++) {
+            for (int i = 0; i < rows; i++) {
+                data[i + j * rows] += matrix.get(i, j);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the given matrix multiplied by a scalar to this matrix
+     * <p>
+     * this = this + scalar * matrix
+     *
+     * @param scalar the scalar to multiply the given matrix by
+     * @param matrix the matrix to add to this matrix
+     * @return this matrix
+     */
+    public MutableMatReal addScaledInPlace(double scalar, MutableMatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.ADD, 2L * this.getRows() * this.getCols());
+        }
+        double[] data = this.value.data;
+        double[] other = matrix.value.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] += scalar * other[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts the given matrix from this matrix
+     *
+     * @param matrix the matrix to subtract from this matrix
+     * @return this matrix
+     */
+    public MutableMatReal subtractInPlace(MutableMatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, (long) this.getRows() * this.getCols());
+        }
+        double[] data = this.value.data;
+        double[] other = matrix.value.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] -= other[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts the given matrix from this matrix
+     *
+     * @param matrix the matrix to subtract from this matrix
+     * @return this matrix
+     */
+    public MutableMatReal subtractInPlace(MatReal matrix) {
+        checkDimensions(matrix.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SUBTRACT, (long) this.getRows() * this.getCols());
+        }
+        double[] data = this.value.data;
+        int rows = this.getRows();
+        for (int j = 0; j < this.getCols(); j++) {
+            for (int i = 0; i < rows; i++) {
+                data[i + j * rows] -= matrix.get(i, j);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix by a scalar
+     *
+     * @param scalar the scalar to multiply this matrix by
+     * @return this matrix
+     */
+    public MutableMatReal scaleInPlace(double scalar) {
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SCALE, (long) this.getRows() * this.getCols());
+        }
+        double[] data = this.value.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] *= scalar;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix with the given matrix and writes the product into the destination
+     * <p>
+     * dst = this * matrix
+     * <p>
+     * The destination must not be either of the operands
+     *
+     * @param matrix the matrix to multiply against this matrix
+     * @param dst the matrix to write the product into
+     * @return the destination matrix
+     */
+    public MutableMatReal multiplyInto(MutableMatReal matrix, MutableMatReal dst) {
+        if (this.getCols() != matrix.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication");
+        }
+        if (dst == this || dst == matrix) {
+            throw new IllegalArgumentException("Destination must not be an operand");
+        }
+        dst.checkDimensions(this.getRows(), matrix.getCols());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.MULTIPLY, 2L * this.getRows() * this.getCols() * matrix.getCols());
+        }
+        dst.value.fillByMultiplying(this.value, matrix.value);
+        return dst;
+    }
+
+    /**
+     * Writes the transpose of this matrix into the destination
+     * <p>
+     * The destination must not be this matrix
+     *
+     * @param dst the matrix to write the transpose into
+     * @return the destination matrix
+     */
+    public MutableMatReal transposeInto(MutableMatReal dst) {
+        if (dst == this) {
+            throw new IllegalArgumentException("Destination must not be an operand");
+        }
+        dst.checkDimensions(this.getCols(), this.getRows());
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.TRANSPOSE, 0);
+        }
+        int rows = this.getRows();
+        int cols = this.getCols();
+        double[] data = this.value.data;
+        double[] out = dst.value.data;
+        for (int j = 0; j < cols; j++) {
+            for (int i = 0; i < rows; i++) {
+                out[j + i * cols] = data[i + j * rows];
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Replaces a symmetric positive definite matrix with the lower triangular factor L of its cholesky decomposition in place
+     * <p>
+     * A = L * L^T, only the lower triangle of A is read and the upper triangle is set to zero
+     *
+     * @param A symmetric positive definite matrix, overwritten by L
+     * @return A
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public static MutableMatReal choleskyInPlace(MutableMatReal A) {
+        if (A.getRows() != A.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        int n = A.getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.DECOMPOSITION, (long) n * n * n / 3);
+        }
+        double[] a = A.value.data;
+
+        for (int j = 0; j < n; j++) {
+            int column = j * n;
+            for (int k = 0; k < j; k++) {
+                double ajk = a[j + k * n];
+                if (ajk == 0) {
+                    continue;
+                }
+                for (int i = j; i < n; i++) {
+                    a[i + column] -= a[i + k * n] * ajk;
+                }
+            }
+            double diagonal = a[j + column];
+            if (!(diagonal > 0)) {
+                throw new ArithmeticException("Matrix is not positive definite");
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[j + column] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                a[i + column] /= diagonal;
+            }
+            for (int i = 0; i < j; i++) {
+                a[i + column] = 0;
+            }
+        }
+        return A;
+    }
+
+    /**
+     * Solves for x in the equation Ax = b in place
+     * <p>
+     * A is lower triangular, only its lower triangle is read
+     * <p>
+     * b is overwritten by x, right hand side columns are solved in blocks that share each column of A
+     *
+     * @param A lower triangular matrix A
+     * @param b right hand side b, overwritten by the solution x
+     * @return b
+     */
+    public static MutableMatReal forwardSubInPlace(MutableMatReal A, MutableMatReal b) {
+        checkTriangular(A, b);
+        int n = A.getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, (long) n * n * b.getCols());
+        }
+        double[] a = A.value.data;
+        double[] x = b.value.data;
+
+        for (int start = 0; start < b.getCols(); start += BLOCK_SIZE) {
+            int end = Math.min(start + BLOCK_SIZE, b.getCols());
+            for (int j = 0; j < n; j++) {
+                int column = j * n;
+                double diagonal = a[j + column];
+                for (int c = start; c < end; c++) {
+                    int offset = c * n;
+                    double value = x[j + offset] / diagonal;
+                    x[j + offset] = value;
+                    for (int i = j + 1; i < n; i++) {
+                        x[i + offset] -= a[i + column] * value;
+                    }
+                }
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Solves for x in the equation Ax = b in place
+     * <p>
+     * A is upper triangular, only its upper triangle is read
+     * <p>
+     * b is overwritten by x, right hand side columns are solved in blocks that share each column of A
+     *
+     * @param A upper triangular matrix A
+     * @param b right hand side b, overwritten by the solution x
+     * @return b
+     */
+    public static MutableMatReal backwardSubInPlace(MutableMatReal A, MutableMatReal b) {
+        checkTriangular(A, b);
+        int n = A.getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, (long) n * n * b.getCols());
+        }
+        double[] a = A.value.data;
+        double[] x = b.value.data;
+
+        for (int start = 0; start < b.getCols(); start += BLOCK_SIZE) {
+            int end = Math.min(start + BLOCK_SIZE, b.getCols());
+            for (int j = n - 1; j >= 0; j--) {
+                int column = j * n;
+                double diagonal = a[j + column];
+                for (int c = start; c < end; c++) {
+                    int offset = c * n;
+                    double value = x[j + offset] / diagonal;
+                    x[j + offset] = value;
+                    for (int i = 0; i < j; i++) {
+                        x[i + offset] -= a[i + column] * value;
+                    }
+                }
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Solves for x in the equation A^T x = b in place without forming the transpose
+     * <p>
+     * A is lower triangular (so A^T is upper triangular), only its lower triangle is read
+     * <p>
+     * b is overwritten by x
+     *
+     * @param A lower triangular matrix A
+     * @param b right hand side b, overwritten by the solution x
+     * @return b
+     */
+    public static MutableMatReal backwardSubTransposedInPlace(MutableMatReal A, MutableMatReal b) {
+        checkTriangular(A, b);
+        int n = A.getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.SOLVE, (long) n * n * b.getCols());
+        }
+        double[] a = A.value.data;
+        double[] x = b.value.data;
+
+        for (int start = 0; start < b.getCols(); start += BLOCK_SIZE) {
+            int end = Math.min(start + BLOCK_SIZE, b.getCols());
+            for (int i = n - 1; i >= 0; i--) {
+                int column = i * n;
+                for (int c = start; c < end; c++) {
+                    int offset = c * n;
+                    double sum = x[i + offset];
+                    for (int j = i + 1; j < n; j++) {
+                        sum -= a[j + column] * x[j + offset];
+                    }
+                    x[i + offset] = sum / a[i + column];
+                }
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Updates a cholesky factor in place with every column of W
+     * <p>
+     * L * L^T becomes L * L^T + W * W^T, only the lower triangle of L is read and written
+     * <p>
+     * W is used as workspace and overwritten, every column of W is applied to a column of L before moving on to the next column of L
+     *
+     * @param L lower triangular cholesky factor, overwritten by the updated factor
+     * @param W matrix of vectors to be added, overwritten
+     * @return L
+     */
+    public static MutableMatReal cholUpdateInPlace(MutableMatReal L, MutableMatReal W) {
+        return rotate(L, W, 1);
+    }
+
+    /**
+     * Downdates a cholesky factor in place with every column of W
+     * <p>
+     * L * L^T becomes L * L^T - W * W^T, only the lower triangle of L is read and written
+     * <p>
+     * W is used as workspace and overwritten
+     *
+     * @param L lower triangular cholesky factor, overwritten by the downdated factor
+     * @param W matrix of vectors to be removed, overwritten
+     * @return L
+     * @throws ArithmeticException if the downdated matrix is not positive definite
+     */
+    public static MutableMatReal cholDowndateInPlace(MutableMatReal L, MutableMatReal W) {
+        return rotate(L, W, -1);
+    }
+
+    /**
+     * Applies a rank-k update or downdate to a cholesky factor with hyperbolic or regular rotations
+     *
+     * @param L lower triangular cholesky factor, overwritten
+     * @param W matrix of vectors, overwritten
+     * @param sign 1 for an update, -1 for a downdate
+     * @return L
+     */
+    private static MutableMatReal rotate(MutableMatReal L, MutableMatReal W, int sign) {
+        if (L.getRows() != L.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        if (W.getRows() != L.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+        int n = L.getRows();
+        if (MatProfiler.enabled) {
+            MatProfiler.record(MatProfiler.Op.UPDATE, 2L * n * n * W.getCols());
+        }
+        double[] l = L.value.data;
+        double[] w = W.value.data;
+
+        for (int k = 0; k < n; k++) {
+            int column = k * n;
+            for (int c = 0; c < W.getCols(); c++) {
+                int offset = c * n;
+                double diagonal = l[k + column];
+                double wk = w[k + offset];
+                double squared = diagonal * diagonal + sign * wk * wk;
+                if (!(squared > 0)) {
+                    throw new ArithmeticException("Matrix is not positive definite");
+                }
+                double r = Math.sqrt(squared);
+                double cos = r / diagonal;
+                double sin = wk / diagonal;
+                l[k + column] = r;
+                for (int i = k + 1; i < n; i++) {
+                    double updated = (l[i + column] + sign * sin * w[i + offset]) / cos;
+                    l[i + column] = updated;
+                    w[i + offset] = cos * w[i + offset] - sin * updated;
+                }
+            }
+        }
+        return L;
+    }
+
+    /**
+     * Starts a lazily evaluated expression reading this matrix
+     * <p>
+     * The matrix is read when the expression is evaluated, so the same expression can be evaluated again after this matrix changes
+     *
+     * @return an expression with the values of this matrix
+     */
+    public LazyMat lazy() {
+        return LazyMat.of(this);
+    }
+
+    /**
+     * Gets an immutable copy of the matrix
+     *
+     * @return an immutable copy of the matrix
+     */
+    public MatReal toMatReal() {
+        return new MatReal(this.value);
+    }
+
+    public String toString() {
+        return this.value.toString();
+    }
+
+    /**
+     * Checks that the matrix has the given dimensions
+     *
+     * @param rows expected number of rows
+     * @param columns expected number of columns
+     */
+    private void checkDimensions(int rows, int columns) {
+        if (this.getRows() != rows || this.getCols() != columns) {
+            throw new IllegalArgumentException("Matrix must have the same dimensions");
+        }
+    }
+
+    /**
+     * Checks that A is square and matches the rows of b
+     *
+     * @param A triangular matrix
+     * @param b right hand side
+     */
+    private static void checkTriangular(MutableMatReal A, MutableMatReal b) {
+        if (A.getRows() != A.getCols()) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        if (A.getRows() != b.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.quackology.duckdevices.spaces;
+
+import java.util.concurrent.RecursiveAction;
+
+import com.quackology.duckdevices.utils.ArrayMath;
+
+/**
+ * Cache tiled matrix multiplication split across a fork/join pool
+ * <p>
+ * Matrices are column-major arrays, C = A * B is cut into tiles of rows and columns of C that are computed independently
+ * <p>
+ * Each tile walks the inner dimension in panels so the panel of A it reads stays in cache while every column of the tile is updated
+ * <p>
+ * Tiles record nothing in {@link MatProfiler} since they run on pool threads, the caller records the whole product once
+ */
+class TiledMultiply extends RecursiveAction {
+
+    /**
+     * Number of rows of C in a tile
+     */
+    private static final int TILE_ROWS = 64;
+
+    /**
+     * Number of columns of C in a tile
+     */
+    private static final int TILE_COLS = 64;
+
+    /**
+     * Length of the inner dimension read per panel
+     */
+    private static final int PANEL = 256;
+
+    private final double[] a;
+    private final double[] b;
+    private final double[] c;
+
+    /**
+     * Rows of A and C
+     */
+    private final int m;
+
+    /**
+     * Columns of A and rows of B
+     */
+    private final int n;
+
+    /**
+     * Range of tiles computed by this task, tiles are numbered row of tiles first
+     */
+    private final int firstTile;
+    private final int lastTile;
+
+    /**
+     * Constructor of a task computing a range of tiles
+     *
+     * @param a column-major values of A (m x n)
+     * @param b column-major values of B (n x p)
+     * @param c column-major values of C (m x p), written by the task
+     * @param m rows of A and C
+     * @param n columns of A and rows of B
+     * @param firstTile first tile to compute
+     * @param lastTile one past the last tile to compute
+     */
+    TiledMultiply(double[] a, double[] b, double[] c, int m, int n, int firstTile, int lastTile) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.m = m;
+        this.n = n;
+        this.firstTile = firstTile;
+        this.lastTile = lastTile;
+    }
+
+    /**
+     * Gets the number of tiles needed to cover C
+     *
+     * @param m rows of C
+     * @param p columns of C
+     * @return the number of tiles
+     */
+    static int tiles(int m, int p) {
+        return ceilDiv(m, TILE_ROWS) * ceilDiv(p, TILE_COLS);
+    }
+
+    @Override
+    protected void compute() {
+        if (this.lastTile - this.firstTile > 1) {
+            int middle = (this.firstTile + this.lastTile) >>> 1;
+            invokeAll(
+                new TiledMultiply(this.a, this.b, this.c, this.m, this.n, this.firstTile, middle),
+                new TiledMultiply(this.a, this.b, this.c, this.m, this.n, middle, this.lastTile)
+            );
+            return;
+        }
+
+        int p = this.c.length / this.m;
+        int rowTiles = ceilDiv(this.m, TILE_ROWS);
+        int rowStart = (this.firstTile % rowTiles) * TILE_ROWS;
+        int colStart = (this.firstTile / rowTiles) * TILE_COLS;
+        int height = Math.min(TILE_ROWS, this.m - rowStart);
+        int colEnd = Math.min(colStart + TILE_COLS, p);
+
+        for (int k0 = 0; k0 < this.n; k0 += PANEL) {
+            int k1 = Math.min(k0 + PANEL, this.n);
+            for (int j = colStart; j < colEnd; j++) {
+                int column = rowStart + j * this.m;
+                for (int k = k0; k < k1; k++) {
+                    double bkj = this.b[k + j * this.n];
+                    if (bkj != 0) {
+                        ArrayMath.axpy(bkj, this.a, rowStart + k * this.m, this.c, column, height);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Divides rounding up
+     *
+     * @param a dividend
+     * @param b divisor
+     * @return a / b rounded up
+     */
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -0,0 +1,148 @@
+package com.quackology.duckdevices.spaces;
+
+/**
+ * Fixed size 2D vector of doubles
+ */
+public final class Vec2 {
+
+    /**
+     * Zero vector (0, 0)
+     */
+    public static final Vec2 ZERO = new Vec2(0, 0);
+
+    /**
+     * unitX vector (1, 0)
+     */
+    public static final Vec2 UNIT_X = new Vec2(1, 0);
+
+    /**
+     * unitY vector (0, 1)
+     */
+    public static final Vec2 UNIT_Y = new Vec2(0, 1);
+
+    private final double x;
+    private final double y;
+
+    /**
+     * Constructor of a vector from its elements
+     *
+     * @param x first element
+     * @param y second element
+     */
+    public Vec2(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Constructor of a vector from a 2x1 MatReal
+     *
+     * @param vec 2x1 MatReal containing the elements
+     * @return the vector with the elements of vec
+     */
+    public static Vec2 of(MatReal vec) {
+        if (vec.getRows() != 2 || vec.getCols() != 1) {
+            throw new IllegalArgumentException("Matrix must be 2x1");
+        }
+        return new Vec2(vec.get(0, 0), vec.get(1, 0));
+    }
+
+    /**
+     * Gets the first element
+     *
+     * @return the first element
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the second element
+     *
+     * @return the second element
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Adds the vectors together
+     *
+     * @param vec the vector to add to the current vector
+     * @return the sum of the two vectors
+     */
+    public Vec2 add(Vec2 vec) {
+        return new Vec2(this.x + vec.x, this.y + vec.y);
+    }
+
+    /**
+     * Subtracts the vectors from each other
+     *
+     * @param vec the vector to subtract from the current vector
+     * @return the difference of the two vectors
+     */
+    public Vec2 subtract(Vec2 vec) {
+        return new Vec2(this.x - vec.x, this.y - vec.y);
+    }
+
+    /**
+     * Multiplies the vector by a scalar
+     *
+     * @param scalar the scalar to multiply against the current vector
+     * @return the product of the vector and the scalar
+     */
+    public Vec2 multiply(double scalar) {
+        return new Vec2(this.x * scalar, this.y * scalar);
+    }
+
+    /**
+     * Gets the dot product between the vectors
+     *
+     * @param vec the other vector
+     * @return the dot product between both vectors
+     */
+    public double dot(Vec2 vec) {
+        return this.x * vec.x + this.y * vec.y;
+    }
+
+    /**
+     * Gets the z component of the cross product between the vectors embedded in 3D
+     *
+     * @param vec the other vector
+     * @return the z component of the cross product
+     */
+    public double cross(Vec2 vec) {
+        return this.x * vec.y - this.y * vec.x;
+    }
+
+    /**
+     * Gets the magnitude of the vector
+     *
+     * @return the magnitude of the vector
+     */
+    public double magnitude() {
+        return Math.sqrt(this.x * this.x + this.y * this.y);
+    }
+
+    /**
+     * Gets the normalized vector
+     *
+     * @return the normalized vector
+     */
+    public Vec2 normalize() {
+        return this.multiply(1 / this.magnitude());
+    }
+
+    /**
+     * Gets the vector as a vertical MatReal
+     *
+     * @return 2x1 MatReal of the vector
+     */
+    public MatReal toMatReal() {
+        return new MatReal(new double[][] {{this.x}, {this.y}});
+    }
+
+    public String toString() {
+        return "(" + this.x + ", " + this.y + ")";
+    }
+}
@@ -0,0 +1,169 @@
+package com.quackology.duckdevices.spaces;
+
+/**
+ * Fixed size 3D vector of doubles
+ */
+public final class Vec3 {
+
+    /**
+     * Zero vector (0, 0, 0)
+     */
+    public static final Vec3 ZERO = new Vec3(0, 0, 0);
+
+    /**
+     * unitX vector (1, 0, 0)
+     */
+    public static final Vec3 UNIT_X = new Vec3(1, 0, 0);
+
+    /**
+     * unitY vector (0, 1, 0)
+     */
+    public static final Vec3 UNIT_Y = new Vec3(0, 1, 0);
+
+    /**
+     * unitZ vector (0, 0, 1)
+     */
+    public static final Vec3 UNIT_Z = new Vec3(0, 0, 1);
+
+    private final double x;
+    private final double y;
+    private final double z;
+
+    /**
+     * Constructor of a vector from its elements
+     *
+     * @param x first element
+     * @param y second element
+     * @param z third element
+     */
+    public Vec3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructor of a vector from a 3x1 MatReal
+     *
+     * @param vec 3x1 MatReal containing the elements
+     * @return the vector with the elements of vec
+     */
+    public static Vec3 of(MatReal vec) {
+        if (vec.getRows() != 3 || vec.getCols() != 1) {
+            throw new IllegalArgumentException("Matrix must be 3x1");
+        }
+        return new Vec3(vec.get(0, 0), vec.get(1, 0), vec.get(2, 0));
+    }
+
+    /**
+     * Gets the first element
+     *
+     * @return the first element
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the second element
+     *
+     * @return the second element
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the third element
+     *
+     * @return the third element
+     */
+    public double getZ() {
+        return this.z;
+    }
+
+    /**
+     * Adds the vectors together
+     *
+     * @param vec the vector to add to the current vector
+     * @return the sum of the two vectors
+     */
+    public Vec3 add(Vec3 vec) {
+        return new Vec3(this.x + vec.x, this.y + vec.y, this.z + vec.z);
+    }
+
+    /**
+     * Subtracts the vectors from each other
+     *
+     * @param vec the vector to subtract from the current vector
+     * @return the difference of the two vectors
+     */
+    public Vec3 subtract(Vec3 vec) {
+        return new Vec3(this.x - vec.x, this.y - vec.y, this.z - vec.z);
+    }
+
+    /**
+     * Multiplies the vector by a scalar
+     *
+     * @param scalar the scalar to multiply against the current vector
+     * @return the product of the vector and the scalar
+     */
+    public Vec3 multiply(double scalar) {
+        return new Vec3(this.x * scalar, this.y * scalar, this.z * scalar);
+    }
+
+    /**
+     * Gets the dot product between the vectors
+     *
+     * @param vec the other vector
+     * @return the dot product between both vectors
+     */
+    public double dot(Vec3 vec) {
+        return this.x * vec.x + this.y * vec.y + this.z * vec.z;
+    }
+
+    /**
+     * Gets the cross product between the vectors
+     *
+     * @param vec the other vector
+     * @return the cross product this x vec
+     */
+    public Vec3 cross(Vec3 vec) {
+        return new Vec3(
+            this.y * vec.z - this.z * vec.y,
+            this.z * vec.x - this.x * vec.z,
+            this.x * vec.y - this.y * vec.x
+        );
+    }
+
+    /**
+     * Gets the magnitude of the vector
+     *
+     * @return the magnitude of the vector
+     */
+    public double magnitude() {
+        return Math.sqrt(this.x * this.x + this.y * this.y + this.z * this.z);
+    }
+
+    /**
+     * Gets the normalized vector
+     *
+     * @return the normalized vector
+     */
+    public Vec3 normalize() {
+        return this.multiply(1 / this.magnitude());
+    }
+
+    /**
+     * Gets the vector as a vertical MatReal
+     *
+     * @return 3x1 MatReal of the vector
+     */
+    public MatReal toMatReal() {
+        return new MatReal(new double[][] {{this.x}, {this.y}, {this.z}});
+    }
+
+    public String toString() {
+        return "(" + this.x + ", " + this.y + ", " + this.z + ")";
+    }
+}
@@ -1,6 +1,7 @@
 package com.quackology.duckdevices.spaces;
 
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.utils.ArrayMath;
 
 /**
  * Vector operations on MatReal
@@ -33,11 +34,7 @@ public class Vector {
      * @return magnitude of vec
      */
     public static double magnitude(MatReal vec) {
-        double mag = 0;
-        for(int i = 0; i < vec.getRows(); i++) {
-            mag += vec.get(i, 0)*vec.get(i, 0);
-        }
-        return Math.sqrt(mag);
+        return ArrayMath.norm(vec.value());
     }
 
     /**
@@ -59,11 +56,7 @@ public class Vector {
      * @return the dot product between both vectors
      */
     public static double dot(MatReal vec1, MatReal vec2) {
-        double result = 0;
-        for(int i = 0; i < vec1.getRows(); i++) {
-            result += vec1.get(i, 0)*vec2.get(i, 0);
-        }
-        return result;
+        return ArrayMath.dot(vec1.value(), vec2.value());
     }
 
     /**
@@ -63,12 +63,10 @@ public class CompoundManifold implements Space {
         
         Manifold[] out = new Manifold[this.manifolds.length];
 
+        MatReal vector = tangent.toVector();
         int index = 0;
         for (int i = 0; i < this.manifolds.length; i++) {
-            MatReal other = tangent.toVector().getRow(index);
-            for (int j = 1; j < this.manifolds[i].getDimensions(); j++) {
-                other = MatReal.vertical(new MatReal[] {other, tangent.toVector().getRow(index+j)});
-            }
+            MatReal other = vector.subMat(index, 0, this.manifolds[i].getDimensions(), 1);
             index += this.manifolds[i].getDimensions();
 
             out[i] = this.manifolds[i].phi(other);
@@ -112,13 +110,13 @@ public class CompoundManifold implements Space {
             throw new IllegalArgumentException("Compound manifolds must be of the same dimensions");
         }
 
-        MatReal out = this.manifolds[0].phi_inverse(compoundManifold.manifolds[0]).toVector();
+        MatReal[] out = new MatReal[this.manifolds.length];
 
-        for (int i = 1; i < this.manifolds.length; i++) {
-            out = MatReal.vertical(new MatReal[] {out, this.manifolds[i].phi_inverse(compoundManifold.manifolds[i]).toVector()});
+        for (int i = 0; i < this.manifolds.length; i++) {
+            out[i] = this.manifolds[i].phi_inverse(compoundManifold.manifolds[i]).toVector();
         }
 
-        return out;
+        return MatReal.vertical(out);
     }
 
     /**
@@ -59,7 +59,7 @@ public abstract class Manifold<T extends Manifold<T, U>, U extends Space> implem
      * @return the dimensions of the manifold is embedded in
      */
     public int getEmbeddedDim() {
-        return value.getDimensions();
+        return this.getValue().getDimensions();
     }
 
     /**
@@ -73,6 +73,6 @@ public abstract class Manifold<T extends Manifold<T, U>, U extends Space> implem
     }
 
     public String toString() {
-        return value.toString();
+        return this.getValue().toString();
     }
 }
\ No newline at end of file
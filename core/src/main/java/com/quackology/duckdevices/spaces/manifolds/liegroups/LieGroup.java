@@ -1,6 +1,7 @@
 package com.quackology.duckdevices.spaces.manifolds.liegroups;
 
 import com.quackology.duckdevices.spaces.Linear;
+import com.quackology.duckdevices.spaces.MatReal;
 import com.quackology.duckdevices.spaces.Space;
 import com.quackology.duckdevices.spaces.manifolds.Manifold;
 
@@ -10,6 +11,9 @@ import com.quackology.duckdevices.spaces.manifolds.Manifold;
  * Note: must create a static factory field for the lie group implementations
  * <p>
  * Note: the exp and log mappings should work with the element rather than the lie algebra
+ * <p>
+ * Jacobians follow "A micro Lie theory for state estimation in robotics" by Joan Sola, Jeremie Deray, and Dinesh Atchuthan,
+ * perturbations are applied on the right like phi, M * exp(dx)
  */
 public abstract class LieGroup <T extends LieGroup<T, U>, U extends Space> extends Manifold<T, U> {
 
@@ -68,6 +72,105 @@ public abstract class LieGroup <T extends LieGroup<T, U>, U extends Space> exten
      * @return a lie group of the identity of the lie group
      */
     public abstract T identity();
+
+    /**
+     * Gets the left jacobian of the exponential map
+     * <p>
+     * exp(x + dx) = exp(J_l dx) * exp(x) to first order
+     * 
+     * @param element the tangent element to evaluate the jacobian at
+     * @return the left jacobian at the given tangent element
+     */
+    public abstract Linear leftJacobian(Linear element);
+
+    /**
+     * Gets the inverse of the left jacobian of the exponential map
+     * 
+     * @param element the tangent element to evaluate the jacobian at
+     * @return the inverse of the left jacobian at the given tangent element
+     */
+    public abstract Linear leftJacobianInverse(Linear element);
+
+    /**
+     * Gets the right jacobian of the exponential map
+     * <p>
+     * exp(x + dx) = exp(x) * exp(J_r dx) to first order, J_r(x) = J_l(-x)
+     * 
+     * @param element the tangent element to evaluate the jacobian at
+     * @return the right jacobian at the given tangent element
+     */
+    public Linear rightJacobian(Linear element) {
+        return this.leftJacobian(element.toVector().multiply(-1));
+    }
+
+    /**
+     * Gets the inverse of the right jacobian of the exponential map
+     * 
+     * @param element the tangent element to evaluate the jacobian at
+     * @return the inverse of the right jacobian at the given tangent element
+     */
+    public Linear rightJacobianInverse(Linear element) {
+        return this.leftJacobianInverse(element.toVector().multiply(-1));
+    }
+
+    /**
+     * Gets the jacobian of the composition with respect to the current lie group
+     * <p>
+     * d(M * N)/dM = Ad(N^-1)
+     * 
+     * @param lieGroup the other lie group of the composition
+     * @return the jacobian of the composition with respect to the current lie group
+     */
+    public Linear composeJacobian(T lieGroup) {
+        return lieGroup.inverse().adjoint();
+    }
+
+    /**
+     * Gets the jacobian of the composition with respect to the other lie group
+     * <p>
+     * d(M * N)/dN = I
+     * 
+     * @param lieGroup the other lie group of the composition
+     * @return the jacobian of the composition with respect to the other lie group
+     */
+    public Linear composeJacobianOther(T lieGroup) {
+        return MatReal.identity(this.getDimensions());
+    }
+
+    /**
+     * Gets the jacobian of the inverse with respect to the current lie group
+     * <p>
+     * d(M^-1)/dM = -Ad(M)
+     * 
+     * @return the jacobian of the inverse
+     */
+    public abstract Linear inverseJacobian();
+
+    /**
+     * Action of the lie group on a point, such as rotating or transforming it
+     * <p>
+     * The matrix lie groups also act on every column of a matrix of points at once
+     * 
+     * @param point the point to act on
+     * @return the point after the action
+     */
+    public abstract Linear act(Linear point);
+
+    /**
+     * Gets the jacobian of the action with respect to the current lie group
+     * 
+     * @param point the point acted on
+     * @return the jacobian of the action with respect to the current lie group
+     */
+    public abstract Linear actJacobian(Linear point);
+
+    /**
+     * Gets the jacobian of the action with respect to the point
+     * 
+     * @param point the point acted on
+     * @return the jacobian of the action with respect to the point
+     */
+    public abstract Linear actJacobianPoint(Linear point);
  
     /**
      * Gets the inverse of the lie group
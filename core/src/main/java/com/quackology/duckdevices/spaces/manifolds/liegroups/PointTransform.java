@@ -0,0 +1,228 @@
+package com.quackology.duckdevices.spaces.manifolds.liegroups;
+
+import java.util.concurrent.RecursiveAction;
+
+import com.quackology.duckdevices.spaces.Linear;
+import com.quackology.duckdevices.spaces.MatReal;
+
+/**
+ * Rigid transform p' = R * p + t of a set of 2D or 3D points, the bulk action of the lie groups
+ * <p>
+ * Points are stored as one array per coordinate so the loop streams through each array without allocating per point, and the output arrays may be the input arrays
+ * <p>
+ * Sets of at least {@link #PARALLEL_THRESHOLD} points are split into chunks computed on the parallel pool of MatReal, smaller sets are transformed on the calling thread without allocating
+ */
+class PointTransform extends RecursiveAction {
+
+    /**
+     * Smallest number of points transformed in parallel
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Number of points a task transforms without splitting
+     */
+    private static final int CHUNK = 1 << 12;
+
+    /**
+     * Row-major rotation (2x2 or 3x3)
+     */
+    private final double[] r;
+
+    /**
+     * Translation
+     */
+    private final double[] t;
+
+    /**
+     * Coordinates of the points, zs is null for 2D points
+     */
+    private final double[] xs, ys, zs;
+
+    /**
+     * Coordinates of the transformed points, outZs is null for 2D points
+     */
+    private final double[] outXs, outYs, outZs;
+
+    /**
+     * Range of points transformed by this task
+     */
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructor of a task transforming a range of points
+     *
+     * @param r row-major rotation (2x2 or 3x3)
+     * @param t translation
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param zs z of the points, null for 2D points
+     * @param outXs x of the transformed points, written by the task
+     * @param outYs y of the transformed points, written by the task
+     * @param outZs z of the transformed points, written by the task, null for 2D points
+     * @param from first point to transform
+     * @param to one past the last point to transform
+     */
+    private PointTransform(double[] r, double[] t, double[] xs, double[] ys, double[] zs, double[] outXs, double[] outYs, double[] outZs, int from, int to) {
+        this.r = r;
+        this.t = t;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.outXs = outXs;
+        this.outYs = outYs;
+        this.outZs = outZs;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Transforms 2D points
+     *
+     * @param cos cosine of the rotation
+     * @param sin sine of the rotation
+     * @param tx x of the translation
+     * @param ty y of the translation
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param outXs array to write the x of the transformed points into, may be xs
+     * @param outYs array to write the y of the transformed points into, may be ys
+     */
+    static void transform(double cos, double sin, double tx, double ty, double[] xs, double[] ys, double[] outXs, double[] outYs) {
+        int length = xs.length;
+        check(length, ys);
+        check(length, outXs);
+        check(length, outYs);
+        if (parallel(length)) {
+            MatReal.getParallelPool().invoke(new PointTransform(new double[] {cos, -sin, sin, cos}, new double[] {tx, ty}, xs, ys, null, outXs, outYs, null, 0, length));
+        } else {
+            transform(cos, -sin, sin, cos, tx, ty, xs, ys, outXs, outYs, 0, length);
+        }
+    }
+
+    /**
+     * Transforms 3D points
+     *
+     * @param w scalar part of the quaternion of the rotation
+     * @param x i part of the quaternion of the rotation
+     * @param y j part of the quaternion of the rotation
+     * @param z k part of the quaternion of the rotation
+     * @param tx x of the translation
+     * @param ty y of the translation
+     * @param tz z of the translation
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param zs z of the points
+     * @param outXs array to write the x of the transformed points into, may be xs
+     * @param outYs array to write the y of the transformed points into, may be ys
+     * @param outZs array to write the z of the transformed points into, may be zs
+     */
+    static void transform(double w, double x, double y, double z, double tx, double ty, double tz, double[] xs, double[] ys, double[] zs, double[] outXs, double[] outYs, double[] outZs) {
+        int length = xs.length;
+        check(length, ys);
+        check(length, zs);
+        check(length, outXs);
+        check(length, outYs);
+        check(length, outZs);
+
+        //rotation matrix of the quaternion, built once rather than rotating every point by the quaternion
+        double xx = x*x, yy = y*y, zz = z*z;
+        double xy = x*y, xz = x*z, yz = y*z;
+        double wx = w*x, wy = w*y, wz = w*z;
+        double r00 = 1 - 2*(yy + zz), r01 = 2*(xy - wz), r02 = 2*(xz + wy);
+        double r10 = 2*(xy + wz), r11 = 1 - 2*(xx + zz), r12 = 2*(yz - wx);
+        double r20 = 2*(xz - wy), r21 = 2*(yz + wx), r22 = 1 - 2*(xx + yy);
+
+        if (parallel(length)) {
+            double[] rotation = {r00, r01, r02, r10, r11, r12, r20, r21, r22};
+            MatReal.getParallelPool().invoke(new PointTransform(rotation, new double[] {tx, ty, tz}, xs, ys, zs, outXs, outYs, outZs, 0, length));
+        } else {
+            transform(r00, r01, r02, r10, r11, r12, r20, r21, r22, tx, ty, tz, xs, ys, zs, outXs, outYs, outZs, 0, length);
+        }
+    }
+
+    /**
+     * Gets the points of a matrix with a point in each column
+     *
+     * @param points the points, a single point may be any Linear of the right dimension
+     * @param dimension the dimension of the points
+     * @return the points as columns of a matrix
+     */
+    static MatReal points(Linear points, int dimension) {
+        MatReal matrix = points instanceof MatReal ? (MatReal) points : points.toVector();
+        if (matrix.getRows() != dimension) {
+            throw new IllegalArgumentException("Points must have " + dimension + " rows");
+        }
+        return matrix;
+    }
+
+    /**
+     * Checks a coordinate array has one value per point
+     *
+     * @param length number of points
+     * @param array the coordinate array
+     */
+    private static void check(int length, double[] array) {
+        if (array.length != length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+    }
+
+    /**
+     * Whether a set of points is large enough to transform on the parallel pool
+     *
+     * @param length number of points
+     * @return whether to transform the points in parallel
+     */
+    private static boolean parallel(int length) {
+        return length >= PARALLEL_THRESHOLD && MatReal.getParallelPool().getParallelism() > 1;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.to - this.from > CHUNK && getPool() != null) {
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(
+                new PointTransform(this.r, this.t, this.xs, this.ys, this.zs, this.outXs, this.outYs, this.outZs, this.from, mid),
+                new PointTransform(this.r, this.t, this.xs, this.ys, this.zs, this.outXs, this.outYs, this.outZs, mid, this.to)
+            );
+            return;
+        }
+        double[] r = this.r;
+        double[] t = this.t;
+        if (this.zs == null) {
+            transform(r[0], r[1], r[2], r[3], t[0], t[1], this.xs, this.ys, this.outXs, this.outYs, this.from, this.to);
+        } else {
+            transform(r[0], r[1], r[2], r[3], r[4], r[5], r[6], r[7], r[8], t[0], t[1], t[2], this.xs, this.ys, this.zs, this.outXs, this.outYs, this.outZs, this.from, this.to);
+        }
+    }
+
+    /**
+     * Transforms a range of 2D points by a row-major rotation and a translation
+     */
+    private static void transform(double r00, double r01, double r10, double r11, double tx, double ty,
+            double[] xs, double[] ys, double[] outXs, double[] outYs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            outXs[i] = r00*x + r01*y + tx;
+            outYs[i] = r10*x + r11*y + ty;
+        }
+    }
+
+    /**
+     * Transforms a range of 3D points by a row-major rotation and a translation
+     */
+    private static void transform(double r00, double r01, double r02, double r10, double r11, double r12, double r20, double r21, double r22,
+            double tx, double ty, double tz, double[] xs, double[] ys, double[] zs, double[] outXs, double[] outYs, double[] outZs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            double z = zs[i];
+            outXs[i] = r00*x + r01*y + r02*z + tx;
+            outYs[i] = r10*x + r11*y + r12*z + ty;
+            outZs[i] = r20*x + r21*y + r22*z + tz;
+        }
+    }
+}
@@ -57,6 +57,86 @@ public class S1 extends LieGroup<S1, Complex> {
         return new MatReal(1);
     }
 
+    /**
+     * Gets the left jacobian of the exponential map, which is 1 since S1 is commutative
+     *
+     * @param element the tangent element
+     * @return the 1x1 left jacobian
+     */
+    @Override
+    public Linear leftJacobian(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public Linear leftJacobianInverse(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public Linear rightJacobian(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public Linear rightJacobianInverse(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public Linear composeJacobian(S1 lieGroup) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public Linear composeJacobianOther(S1 lieGroup) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public Linear inverseJacobian() {
+        return new MatReal(-1);
+    }
+
+    /**
+     * Rotates a point in the plane, the same as multiplying it as a complex number
+     *
+     * @param point the 2x1 point or complex number
+     * @return the rotated point as a 2x1 vector
+     */
+    @Override
+    public Linear act(Linear point) {
+        MatReal p = point.toVector();
+        double px = p.get(0, 0);
+        double py = p.get(1, 0);
+        double c = this.value.getReal();
+        double s = this.value.getImg();
+        return new MatReal(new double[][] {{c*px - s*py}, {s*px + c*py}});
+    }
+
+    /**
+     * Gets the jacobian of the rotation of a point with respect to the rotation
+     *
+     * @param point the 2x1 point or complex number
+     * @return the 2x1 jacobian
+     */
+    @Override
+    public Linear actJacobian(Linear point) {
+        MatReal p = point.toVector();
+        double px = p.get(0, 0);
+        double py = p.get(1, 0);
+        double c = this.value.getReal();
+        double s = this.value.getImg();
+        return new MatReal(new double[][] {{-s*px - c*py}, {c*px - s*py}});
+    }
+
+    @Override
+    public Linear actJacobianPoint(Linear point) {
+        double c = this.value.getReal();
+        double s = this.value.getImg();
+        return new MatReal(new double[][] {{c, -s}, {s, c}});
+    }
+
     @Override
     public S1 identity() {
         return new S1(new Complex(1, 0));
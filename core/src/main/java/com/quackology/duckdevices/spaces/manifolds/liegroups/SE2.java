@@ -1,32 +1,80 @@
 package com.quackology.duckdevices.spaces.manifolds.liegroups;
 
 import com.quackology.duckdevices.spaces.Linear;
+import com.quackology.duckdevices.spaces.Mat3;
 import com.quackology.duckdevices.spaces.MatReal;
 
 /**
  * Special Euclidean group in 2D
+ * <p>
+ * Stored as the cosine and sine of the rotation and the position, every map is closed form on those values and the homogeneous matrix is only built when {@link #getValue()} is called
  */
 public class SE2 extends MatLieGroup<SE2, MatReal> {
 
     /**
      * Factory for the SE2 lie group for creating new instances - including exp and log maps or wedge and vee maps
      */
-    public static final SE2 FACTORY = new SE2(MatReal.identity(3));
+    public static final SE2 FACTORY = new SE2(1, 0, 0, 0);
+
+    /**
+     * Angle below which the coefficients of the V matrix are evaluated with their taylor series
+     */
+    private static final double SMALL_ANGLE = 1e-4;
+
+    /**
+     * Cosine of the rotation
+     */
+    private final double cos;
+
+    /**
+     * Sine of the rotation
+     */
+    private final double sin;
+
+    /**
+     * X position
+     */
+    private final double x;
+
+    /**
+     * Y position
+     */
+    private final double y;
 
     /**
      * Protected constructor for the SE2 lie group
-     * 
+     *
      * @param value value of the lie group
      */
     protected SE2(MatReal value) {
         super(value);
+        this.cos = value.get(0, 0);
+        this.sin = value.get(1, 0);
+        this.x = value.get(0, 2);
+        this.y = value.get(1, 2);
+    }
+
+    /**
+     * Constructor for the SE2 lie group from the rotation and position
+     *
+     * @param cos cosine of the rotation
+     * @param sin sine of the rotation
+     * @param x x position
+     * @param y y position
+     */
+    protected SE2(double cos, double sin, double x, double y) {
+        super(null);
+        this.cos = cos;
+        this.sin = sin;
+        this.x = x;
+        this.y = y;
     }
 
     /**
      * Makes a new Manifold with the same structure but the given value
      * <p>
      * TODO: Implement constraints and conditions for lie group SE2
-     * 
+     *
      * @param value value of the element in the manifold
      * @return a new Manifold with the same structure but the given value
      */
@@ -34,17 +82,82 @@ public class SE2 extends MatLieGroup<SE2, MatReal> {
     public SE2 make(MatReal value) {
         return new SE2(value);
     }
-    
+
 
     /**
      * Makes a new SE2 lie group with the given rotation and position
-     * 
+     *
      * @param rot the rotation of the lie group
      * @param pos the position of the lie group
      * @return a new Manifold with the same structure but the given value
      */
     public SE2 make(SO2 rot, MatReal pos) {
-        return SE2.FACTORY.make(MatReal.vertical(MatReal.horizontal(rot.getValue(), pos), new MatReal(new double[][] {{0, 0, 1}})));
+        return new SE2(rot.getCos(), rot.getSin(), pos.get(0, 0), pos.get(1, 0));
+    }
+
+    /**
+     * Makes a new SE2 lie group with the given angle and position
+     *
+     * @param theta the angle of the rotation
+     * @param x the x position
+     * @param y the y position
+     * @return a new SE2 lie group with the given angle and position
+     */
+    public SE2 make(double theta, double x, double y) {
+        return new SE2(Math.cos(theta), Math.sin(theta), x, y);
+    }
+
+    /**
+     * Gets the homogeneous matrix, built on the first call
+     *
+     * @return the homogeneous matrix
+     */
+    @Override
+    public MatReal getValue() {
+        if (this.value == null) {
+            this.value = new Mat3(
+                this.cos, -this.sin, this.x,
+                this.sin, this.cos, this.y,
+                0, 0, 1
+            ).toMatReal();
+        }
+        return this.value;
+    }
+
+    /**
+     * Gets the rotation
+     *
+     * @return the rotation
+     */
+    public SO2 getRotation() {
+        return new SO2(this.cos, this.sin);
+    }
+
+    /**
+     * Gets the angle of the rotation
+     *
+     * @return the angle in (-pi, pi]
+     */
+    public double getAngle() {
+        return Math.atan2(this.sin, this.cos);
+    }
+
+    /**
+     * Gets the x position
+     *
+     * @return the x position
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position
+     *
+     * @return the y position
+     */
+    public double getY() {
+        return this.y;
     }
 
     @Override
@@ -59,48 +172,68 @@ public class SE2 extends MatLieGroup<SE2, MatReal> {
         return MatReal.vertical(MatReal.horizontal(SO2.FACTORY.wedge(element.get(2, 0)), element.subMat(0, 0, 2, 1)), new MatReal(new double[][] {{0, 0, 0}}));
     }
 
+    /**
+     * V = a * I + b * wedge(1) with a = sin(theta)/theta and b = (1-cos(theta))/theta
+     * <p>
+     * Also the coefficients f = (theta-sin(theta))/theta^2 and g = (1-cos(theta))/theta^2 of the coupling column of the left jacobian
+     *
+     * @param theta angle
+     * @param cos cosine of the angle
+     * @param sin sine of the angle
+     * @return the coefficients {a, b, f, g}
+     */
+    private static double[] v(double theta, double cos, double sin) {
+        if (Math.abs(theta) <= SMALL_ANGLE) {
+            double theta2 = theta*theta;
+            return new double[] {1 - theta2/6, theta/2 - theta*theta2/24, theta/6 - theta*theta2/120, 0.5 - theta2/24};
+        }
+        return new double[] {sin/theta, (1-cos)/theta, (theta-sin)/(theta*theta), (1-cos)/(theta*theta)};
+    }
+
     @Override
     public SE2 exp(Linear element) {
-        MatReal pos = element.toVector().subMat(0, 0, 2, 1);
-        double theta = element.toVector().get(2, 0);
-
-        MatReal V;
-        if (Math.abs(theta) <= 1e-4) {
-            V = MatReal.identity(2);
-        } else {
-            V = MatReal.identity(2).multiply(Math.sin(theta)/theta).add(SO2.FACTORY.wedge(1).multiply((1-Math.cos(theta))/theta));
-        }
+        MatReal tangent = element.toVector();
+        return this.exp(tangent.get(0, 0), tangent.get(1, 0), tangent.get(2, 0));
+    }
 
-        return new SE2(MatReal.vertical(MatReal.horizontal(SO2.FACTORY.exp(theta).getValue(), V.multiply(pos)), new MatReal(new double[][] {{0, 0, 1}})));
+    /**
+     * Exponential map from the tangent element to the lie group
+     *
+     * @param vx x velocity of the twist
+     * @param vy y velocity of the twist
+     * @param theta angle of the twist
+     * @return a lie group from the mapping of the given tangent element
+     */
+    public SE2 exp(double vx, double vy, double theta) {
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        double[] v = v(theta, cos, sin);
+        return new SE2(cos, sin, v[0]*vx - v[1]*vy, v[1]*vx + v[0]*vy);
     }
 
     /**
      * Modified exp map for SE2 lie group
      * <P>
      * Represents the pose instead of the twist
-     * 
+     *
      * @param element the tangent element to map with
      * @return a lie group from the mapping of the given tangent element
      */
     public SE2 pseudo_exp(MatReal element) {
-        MatReal pos = element.subMat(0, 0, 2, 1);
-        double rot = element.get(2, 0);
-        return new SE2(MatReal.vertical(MatReal.horizontal(SO2.FACTORY.exp(rot).getValue(), pos), new MatReal(new double[][] {{0, 0, 1}})));
+        return this.make(element.get(2, 0), element.get(0, 0), element.get(1, 0));
     }
 
     @Override
     public MatReal log(SE2 lieGroup) {
-        MatReal pos = lieGroup.value.subMat(0, 2, 2, 1);
-        double theta = SO2.FACTORY.log(SO2.FACTORY.make(lieGroup.value.subMat(0, 0, 2, 2))).get(0, 0);
-
-        MatReal V;
-        if (Math.abs(theta) <= 1e-4) {
-            V = MatReal.identity(2);
-        } else {
-            V = MatReal.identity(2).multiply(Math.sin(theta)/theta).add(SO2.FACTORY.wedge(1).multiply((1-Math.cos(theta))/theta));
-        }
+        double theta = lieGroup.getAngle();
+        double[] v = v(theta, lieGroup.cos, lieGroup.sin);
+        double determinant = v[0]*v[0] + v[1]*v[1];
 
-        return MatReal.vertical(V.inverse().multiply(pos), new MatReal(theta));
+        return new MatReal(new double[][] {
+            {(v[0]*lieGroup.x + v[1]*lieGroup.y) / determinant},
+            {(v[0]*lieGroup.y - v[1]*lieGroup.x) / determinant},
+            {theta}
+        });
     }
 
     /**
@@ -109,38 +242,168 @@ public class SE2 extends MatLieGroup<SE2, MatReal> {
      * Calculates the pose instead of the twist
      * <p>
      * Inverse of the exponential map
-     * 
+     *
      * @param lieGroup the lie group to map with
      * @return a tangent element from the mapping of the given lie group
      */
     public MatReal pseudo_log(SE2 lieGroup) {
-        MatReal rot = SO2.FACTORY.log(SO2.FACTORY.make(lieGroup.value.subMat(0, 0, 2, 2)));
-        MatReal pos = lieGroup.value.subMat(0, 2, 2, 1);
-        return MatReal.vertical(pos, rot);
+        return new MatReal(new double[][] {{lieGroup.x}, {lieGroup.y}, {lieGroup.getAngle()}});
     }
 
     @Override
     public SE2 compose(SE2 other) {
-        return new SE2(this.value.multiply(other.value));
+        return new SE2(
+            this.cos*other.cos - this.sin*other.sin,
+            this.sin*other.cos + this.cos*other.sin,
+            this.x + this.cos*other.x - this.sin*other.y,
+            this.y + this.sin*other.x + this.cos*other.y
+        );
     }
 
     @Override
     public SE2 inverse() {
-        MatReal rot_inv = SO2.FACTORY.make(this.value.subMat(0, 0, 2, 2)).inverse().getValue();
-        MatReal pos = this.value.subMat(0, 2, 2, 1);
-        return new SE2(MatReal.vertical(MatReal.horizontal(rot_inv, rot_inv.multiply(pos).multiply(-1)), new MatReal(new double[][] {{0, 0, 1}})));
+        return new SE2(this.cos, -this.sin, -this.cos*this.x - this.sin*this.y, this.sin*this.x - this.cos*this.y);
     }
 
     @Override
     public MatReal adjoint() {
-        MatReal rot = this.value.subMat(0, 0, 2, 2);
-        MatReal pos = SO2.FACTORY.wedge(1).multiply(-1).multiply(new MatReal(new double[][] {{this.value.get(0, 2), this.value.get(1, 2)}}).transpose());
-        return MatReal.vertical(MatReal.horizontal(rot, pos), new MatReal(new double[][] {{0, 0, 1}}));
+        return new MatReal(new double[][] {
+            {this.cos, -this.sin, this.y},
+            {this.sin, this.cos, -this.x},
+            {0, 0, 1}
+        });
+    }
+
+    /**
+     * Gets the left jacobian of the exponential map
+     * <p>
+     * [[V, f * (x, y) + g * wedge(1) * (x, y)], [0, 1]] with V the matrix of the exponential map
+     *
+     * @param element the tangent element (x, y, theta)
+     * @return the 3x3 left jacobian
+     */
+    @Override
+    public MatReal leftJacobian(Linear element) {
+        MatReal tangent = element.toVector();
+        double x = tangent.get(0, 0);
+        double y = tangent.get(1, 0);
+        double theta = tangent.get(2, 0);
+        double[] v = v(theta, Math.cos(theta), Math.sin(theta));
+        return new MatReal(new double[][] {
+            {v[0], -v[1], v[2]*x + v[3]*y},
+            {v[1], v[0], v[2]*y - v[3]*x},
+            {0, 0, 1}
+        });
+    }
+
+    /**
+     * Gets the inverse of the left jacobian of the exponential map
+     * <p>
+     * [[V^-1, -V^-1 * c], [0, 1]] with c the coupling column of the left jacobian
+     *
+     * @param element the tangent element (x, y, theta)
+     * @return the 3x3 inverse of the left jacobian
+     */
+    @Override
+    public MatReal leftJacobianInverse(Linear element) {
+        MatReal tangent = element.toVector();
+        double x = tangent.get(0, 0);
+        double y = tangent.get(1, 0);
+        double theta = tangent.get(2, 0);
+        double[] v = v(theta, Math.cos(theta), Math.sin(theta));
+        double determinant = v[0]*v[0] + v[1]*v[1];
+        double a = v[0]/determinant;
+        double b = v[1]/determinant;
+        double cx = v[2]*x + v[3]*y;
+        double cy = v[2]*y - v[3]*x;
+        return new MatReal(new double[][] {
+            {a, b, -a*cx - b*cy},
+            {-b, a, b*cx - a*cy},
+            {0, 0, 1}
+        });
+    }
+
+    @Override
+    public MatReal rightJacobian(Linear element) {
+        return this.leftJacobian(element.toVector().multiply(-1));
+    }
+
+    @Override
+    public MatReal rightJacobianInverse(Linear element) {
+        return this.leftJacobianInverse(element.toVector().multiply(-1));
+    }
+
+    @Override
+    public MatReal composeJacobian(SE2 lieGroup) {
+        return lieGroup.inverse().adjoint();
+    }
+
+    @Override
+    public MatReal composeJacobianOther(SE2 lieGroup) {
+        return MatReal.identity(3);
+    }
+
+    @Override
+    public MatReal inverseJacobian() {
+        return new MatReal(new double[][] {
+            {-this.cos, this.sin, -this.y},
+            {-this.sin, -this.cos, this.x},
+            {0, 0, -1}
+        });
+    }
+
+    /**
+     * Transforms a set of points, R * p + t
+     *
+     * @param point the 2xN points, one in each column
+     * @return the transformed points
+     */
+    @Override
+    public MatReal act(Linear point) {
+        double[][] points = PointTransform.points(point, 2).get();
+        this.act(points[0], points[1], points[0], points[1]);
+        return new MatReal(points);
+    }
+
+    /**
+     * Transforms a set of points, R * p + t, into caller provided arrays without allocating per point
+     *
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param outXs array to write the x of the transformed points into, may be xs
+     * @param outYs array to write the y of the transformed points into, may be ys
+     */
+    public void act(double[] xs, double[] ys, double[] outXs, double[] outYs) {
+        PointTransform.transform(this.cos, this.sin, this.x, this.y, xs, ys, outXs, outYs);
+    }
+
+    /**
+     * Gets the jacobian of the transformation of a point with respect to the transformation
+     * <p>
+     * [R, R * wedge(1) * p]
+     *
+     * @param point the 2x1 point
+     * @return the 2x3 jacobian
+     */
+    @Override
+    public MatReal actJacobian(Linear point) {
+        MatReal p = point.toVector();
+        double px = p.get(0, 0);
+        double py = p.get(1, 0);
+        return new MatReal(new double[][] {
+            {this.cos, -this.sin, -this.sin*px - this.cos*py},
+            {this.sin, this.cos, this.cos*px - this.sin*py}
+        });
+    }
+
+    @Override
+    public MatReal actJacobianPoint(Linear point) {
+        return this.getRotation().getValue();
     }
 
     @Override
     public SE2 identity() {
-        return new SE2(MatReal.identity(3));
+        return new SE2(1, 0, 0, 0);
     }
-    
-}
\ No newline at end of file
+
+}
@@ -1,32 +1,79 @@
 package com.quackology.duckdevices.spaces.manifolds.liegroups;
 
 import com.quackology.duckdevices.spaces.Linear;
+import com.quackology.duckdevices.spaces.Mat3;
+import com.quackology.duckdevices.spaces.Mat4;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.Vec3;
 
 /**
  * Special Euclidean group in 3D
+ * <p>
+ * Stored as a unit quaternion for the rotation and the position, every map is closed form on those values and the homogeneous matrix is only built when {@link #getValue()} is called
+ * <p>
+ * Tangent elements are ordered (x, y, z, pitch, yaw, roll) like the tangent elements of SO3
  */
 public class SE3 extends MatLieGroup<SE3, MatReal> {
-    
+
     /**
      * Factory for the SE3 lie group for creating new instances - including exp and log maps or wedge and vee maps
      */
-    public static final SE3 FACTORY = new SE3(MatReal.identity(4));
+    public static final SE3 FACTORY = new SE3(1, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Rotation as a unit quaternion w + xi + yj + zk
+     */
+    private final double qw, qx, qy, qz;
+
+    /**
+     * Position
+     */
+    private final double x, y, z;
 
     /**
      * Protected constructor for the SE3 lie group
-     * 
+     *
      * @param value
      */
     protected SE3(MatReal value) {
         super(value);
+        double[] q = SO3.quaternion(value);
+        this.qw = q[0];
+        this.qx = q[1];
+        this.qy = q[2];
+        this.qz = q[3];
+        this.x = value.get(0, 3);
+        this.y = value.get(1, 3);
+        this.z = value.get(2, 3);
+    }
+
+    /**
+     * Constructor for the SE3 lie group from the rotation and position
+     *
+     * @param qw scalar part of the unit quaternion of the rotation
+     * @param qx i part of the unit quaternion of the rotation
+     * @param qy j part of the unit quaternion of the rotation
+     * @param qz k part of the unit quaternion of the rotation
+     * @param x x position
+     * @param y y position
+     * @param z z position
+     */
+    protected SE3(double qw, double qx, double qy, double qz, double x, double y, double z) {
+        super(null);
+        this.qw = qw;
+        this.qx = qx;
+        this.qy = qy;
+        this.qz = qz;
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
      * Makes a new Manifold with the same structure but the given value
      * <p>
      * TODO: Implement constraints and conditions for lie group SE3
-     * 
+     *
      * @param value value of the element in the manifold
      * @return a new Manifold with the same structure but the given value
      */
@@ -34,22 +81,71 @@ public class SE3 extends MatLieGroup<SE3, MatReal> {
     public SE3 make(MatReal value) {
         return new SE3(value);
     }
-    
+
     /**
      * Makes a new SE3 lie group with the given rotation and position
-     * 
+     *
      * @param rot the rotation of the lie group
      * @param pos the position of the lie group
      * @return a new Manifold with the same structure but the given value
      */
     public SE3 make(SO3 rot, MatReal pos) {
-        return SE3.FACTORY.make(MatReal.vertical(MatReal.horizontal(rot.getValue(), pos), new MatReal(new double[][] {{0, 0, 0, 1}})));
+        return new SE3(rot.getW(), rot.getX(), rot.getY(), rot.getZ(), pos.get(0, 0), pos.get(1, 0), pos.get(2, 0));
+    }
+
+    /**
+     * Gets the homogeneous matrix, built on the first call
+     *
+     * @return the homogeneous matrix
+     */
+    @Override
+    public MatReal getValue() {
+        if (this.value == null) {
+            this.value = Mat4.transformation(SO3.rotation(this.qw, this.qx, this.qy, this.qz), new Vec3(this.x, this.y, this.z)).toMatReal();
+        }
+        return this.value;
+    }
+
+    /**
+     * Gets the rotation
+     *
+     * @return the rotation
+     */
+    public SO3 getRotation() {
+        return new SO3(this.qw, this.qx, this.qy, this.qz);
+    }
+
+    /**
+     * Gets the x position
+     *
+     * @return the x position
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position
+     *
+     * @return the y position
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position
+     *
+     * @return the z position
+     */
+    public double getZ() {
+        return this.z;
     }
 
     @Override
     public MatReal vee(MatReal lieAlgebra) {
         MatReal pos = lieAlgebra.subMat(0, 3, 3, 1);
-        MatReal rot = SO3.FACTORY.vee(lieAlgebra.subMat(0, 0, 3, 1));
+        MatReal rot = SO3.FACTORY.vee(lieAlgebra.subMat(0, 0, 3, 3));
         return MatReal.vertical(pos, rot);
     }
 
@@ -60,56 +156,49 @@ public class SE3 extends MatLieGroup<SE3, MatReal> {
 
     @Override
     public SE3 exp(Linear element) {
-        MatReal pos = element.toVector().subMat(0, 0, 3, 1);
-        MatReal rot = element.toVector().subMat(3, 0, 3, 1);
-
-        double pitch = rot.get(0, 0);
-        double yaw = rot.get(1, 0);
-        double roll = rot.get(2, 0);
-        double theta = Math.sqrt(pitch*pitch + yaw*yaw + roll*roll);
-
-        MatReal V;
-        if (Math.abs(theta) <= 1e-4) {
-            V = MatReal.identity(3);
-        } else {
-            V = MatReal.identity(3).add(SO3.FACTORY.wedge(rot).multiply((1-Math.cos(theta))/(theta*theta))).add(SO3.FACTORY.wedge(rot).multiply(SO3.FACTORY.wedge(rot)).multiply((theta-Math.sin(theta))/(theta*theta*theta)));
-        }
+        MatReal tangent = element.toVector();
+        return this.exp(tangent.get(0, 0), tangent.get(1, 0), tangent.get(2, 0), tangent.get(3, 0), tangent.get(4, 0), tangent.get(5, 0));
+    }
 
-        return new SE3(MatReal.vertical(MatReal.horizontal(SO3.FACTORY.exp(rot).getValue(), V.multiply(pos)), new MatReal(new double[][] {{0, 0, 0, 1}})));
+    /**
+     * Exponential map from the tangent element to the lie group
+     *
+     * @param vx x velocity of the twist
+     * @param vy y velocity of the twist
+     * @param vz z velocity of the twist
+     * @param pitch pitch of the twist
+     * @param yaw yaw of the twist
+     * @param roll roll of the twist
+     * @return a lie group from the mapping of the given tangent element
+     */
+    public SE3 exp(double vx, double vy, double vz, double pitch, double yaw, double roll) {
+        SO3 rot = SO3.FACTORY.exp(pitch, yaw, roll);
+        Vec3 w = new Vec3(roll, pitch, yaw);
+        double[] k = SO3.coefficients(w.magnitude());
+        Vec3 t = SO3.series(w, 1, k[0], k[1]).multiply(new Vec3(vx, vy, vz));
+        return new SE3(rot.getW(), rot.getX(), rot.getY(), rot.getZ(), t.getX(), t.getY(), t.getZ());
     }
 
     /**
      * Modified exp map for SE3 lie group
      * <p>
      * Represents the pose instead of the twist
-     * 
+     *
      * @param element the tangent element to map with
      * @return a lie group from the mapping of the given tangent element
      */
     public SE3 pseudo_exp(MatReal element) {
-        MatReal pos = element.subMat(0, 0, 3, 1);
-        MatReal rot = element.subMat(3, 0, 3, 1);
-        return new SE3(MatReal.vertical(MatReal.horizontal(SO3.FACTORY.exp(rot).getValue(), pos), new MatReal(new double[][] {{0, 0, 0, 1}})));
+        SO3 rot = SO3.FACTORY.exp(element.get(3, 0), element.get(4, 0), element.get(5, 0));
+        return new SE3(rot.getW(), rot.getX(), rot.getY(), rot.getZ(), element.get(0, 0), element.get(1, 0), element.get(2, 0));
     }
 
     @Override
     public MatReal log(SE3 lieGroup) {
-        MatReal pos = lieGroup.value.subMat(0, 3, 3, 1);
-        MatReal rot = SO3.FACTORY.log(SO3.FACTORY.make(lieGroup.value.subMat(0, 0, 3, 3)));
-        
-        double pitch = rot.get(0, 0);
-        double yaw = rot.get(1, 0);
-        double roll = rot.get(2, 0);
-        double theta = Math.sqrt(pitch*pitch + yaw*yaw + roll*roll);
-
-        MatReal V;
-        if (Math.abs(theta) <= 1e-4) {
-            V = MatReal.identity(3);
-        } else {
-            V = MatReal.identity(3).add(SO3.FACTORY.wedge(rot).multiply((1-Math.cos(theta))/(theta*theta))).add(SO3.FACTORY.wedge(rot).multiply(SO3.FACTORY.wedge(rot)).multiply((theta-Math.sin(theta))/(theta*theta*theta)));
-        }
-
-        return MatReal.vertical(V.inverse().multiply(pos), rot);
+        double[] rot = lieGroup.getRotation().log();
+        Vec3 w = new Vec3(rot[2], rot[0], rot[1]);
+        double[] k = SO3.coefficients(w.magnitude());
+        Vec3 v = SO3.series(w, 1, -0.5, k[2]).multiply(new Vec3(lieGroup.x, lieGroup.y, lieGroup.z));
+        return new MatReal(new double[][] {{v.getX()}, {v.getY()}, {v.getZ()}, {rot[0]}, {rot[1]}, {rot[2]}});
     }
 
     /**
@@ -118,38 +207,216 @@ public class SE3 extends MatLieGroup<SE3, MatReal> {
      * Calculates the pose instead of the twist
      * <p>
      * Inverse of the exponential map
-     * 
+     *
      * @param lieGroup the lie group to map with
      * @return a tangent element from the mapping of the given lie group
      */
-    public SE3 pseudo_log(SE3 lieGroup) {
-        MatReal pos = lieGroup.value.subMat(0, 3, 3, 1);
-        MatReal rot = SO3.FACTORY.log(SO3.FACTORY.make(lieGroup.value.subMat(0, 0, 3, 3)));
-        return new SE3(MatReal.vertical(pos, rot));
+    public MatReal pseudo_log(SE3 lieGroup) {
+        double[] rot = lieGroup.getRotation().log();
+        return new MatReal(new double[][] {{lieGroup.x}, {lieGroup.y}, {lieGroup.z}, {rot[0]}, {rot[1]}, {rot[2]}});
     }
 
     @Override
     public SE3 compose(SE3 other) {
-        return new SE3(this.value.multiply(other.value));
+        double[] t = new double[3];
+        SO3.rotate(this.qw, this.qx, this.qy, this.qz, other.x, other.y, other.z, t, 0);
+        return new SE3(
+            this.qw*other.qw - this.qx*other.qx - this.qy*other.qy - this.qz*other.qz,
+            this.qw*other.qx + this.qx*other.qw + this.qy*other.qz - this.qz*other.qy,
+            this.qw*other.qy - this.qx*other.qz + this.qy*other.qw + this.qz*other.qx,
+            this.qw*other.qz + this.qx*other.qy - this.qy*other.qx + this.qz*other.qw,
+            this.x + t[0],
+            this.y + t[1],
+            this.z + t[2]
+        );
     }
 
     @Override
     public SE3 inverse() {
-        MatReal rot_inv = SO3.FACTORY.make(this.value.subMat(0, 0, 3, 3)).inverse().getValue();
-        MatReal pos = this.value.subMat(0, 3, 3, 1);
-        return new SE3(MatReal.vertical(MatReal.horizontal(rot_inv, rot_inv.multiply(pos).multiply(-1)), new MatReal(new double[][] {{0, 0, 0, 1}})));
+        double[] t = new double[3];
+        SO3.rotate(this.qw, -this.qx, -this.qy, -this.qz, this.x, this.y, this.z, t, 0);
+        return new SE3(this.qw, -this.qx, -this.qy, -this.qz, -t[0], -t[1], -t[2]);
     }
 
+    /**
+     * Gets the adjoint of the lie group
+     * <p>
+     * [[R, wedge(t) * R], [0, R]] in (x, y, z) axes, reordered to the tangent element order
+     *
+     * @return the adjoint of the lie group
+     */
     @Override
     public MatReal adjoint() {
-        MatReal rot = this.value.subMat(0, 0, 3, 3);
-        MatReal pos = SO3.FACTORY.wedge(this.value.subMat(3, 0, 3, 1)).multiply(rot);
-        return MatReal.vertical(MatReal.horizontal(rot, pos), MatReal.horizontal(MatReal.empty(3, 3), rot));
+        Mat3 r = SO3.rotation(this.qw, this.qx, this.qy, this.qz);
+        return new MatReal(SO3.reorder(block(r, Mat3.skew(new Vec3(this.x, this.y, this.z)).multiply(r), r), 3));
+    }
+
+    /**
+     * Gets the left jacobian of the exponential map
+     * <p>
+     * exp(x + dx) = exp(J_l dx) * exp(x) to first order
+     *
+     * @param element the tangent element (x, y, z, pitch, yaw, roll)
+     * @return the 6x6 left jacobian
+     */
+    @Override
+    public MatReal leftJacobian(Linear element) {
+        MatReal tangent = element.toVector();
+        Vec3 rho = new Vec3(tangent.get(0, 0), tangent.get(1, 0), tangent.get(2, 0));
+        Vec3 w = SO3.axes(tangent, 3);
+        double[] k = SO3.coefficients(w.magnitude());
+        Mat3 J = SO3.series(w, 1, k[0], k[1]);
+        return new MatReal(SO3.reorder(block(J, coupling(rho, w, k), J), 3));
+    }
+
+    /**
+     * Gets the inverse of the left jacobian of the exponential map
+     * <p>
+     * [[J^-1, -J^-1 * Q * J^-1], [0, J^-1]] from the blocks of the left jacobian
+     *
+     * @param element the tangent element (x, y, z, pitch, yaw, roll)
+     * @return the 6x6 inverse of the left jacobian
+     */
+    @Override
+    public MatReal leftJacobianInverse(Linear element) {
+        MatReal tangent = element.toVector();
+        Vec3 rho = new Vec3(tangent.get(0, 0), tangent.get(1, 0), tangent.get(2, 0));
+        Vec3 w = SO3.axes(tangent, 3);
+        double[] k = SO3.coefficients(w.magnitude());
+        Mat3 inverse = SO3.series(w, 1, -0.5, k[2]);
+        Mat3 coupling = inverse.multiply(coupling(rho, w, k)).multiply(inverse).multiply(-1);
+        return new MatReal(SO3.reorder(block(inverse, coupling, inverse), 3));
+    }
+
+    @Override
+    public MatReal rightJacobian(Linear element) {
+        return this.leftJacobian(element.toVector().multiply(-1));
+    }
+
+    @Override
+    public MatReal rightJacobianInverse(Linear element) {
+        return this.leftJacobianInverse(element.toVector().multiply(-1));
+    }
+
+    @Override
+    public MatReal composeJacobian(SE3 lieGroup) {
+        return lieGroup.inverse().adjoint();
+    }
+
+    @Override
+    public MatReal composeJacobianOther(SE3 lieGroup) {
+        return MatReal.identity(6);
+    }
+
+    @Override
+    public MatReal inverseJacobian() {
+        return this.adjoint().multiply(-1);
+    }
+
+    /**
+     * Transforms a set of points, R * p + t
+     *
+     * @param point the 3xN points in (x, y, z), one in each column
+     * @return the transformed points
+     */
+    @Override
+    public MatReal act(Linear point) {
+        double[][] points = PointTransform.points(point, 3).get();
+        this.act(points[0], points[1], points[2], points[0], points[1], points[2]);
+        return new MatReal(points);
+    }
+
+    /**
+     * Transforms a set of points, R * p + t, into caller provided arrays without allocating per point
+     * <p>
+     * Builds the rotation matrix once, which is cheaper per point than rotating by the quaternion
+     *
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param zs z of the points
+     * @param outXs array to write the x of the transformed points into, may be xs
+     * @param outYs array to write the y of the transformed points into, may be ys
+     * @param outZs array to write the z of the transformed points into, may be zs
+     */
+    public void act(double[] xs, double[] ys, double[] zs, double[] outXs, double[] outYs, double[] outZs) {
+        PointTransform.transform(this.qw, this.qx, this.qy, this.qz, this.x, this.y, this.z, xs, ys, zs, outXs, outYs, outZs);
+    }
+
+    /**
+     * Gets the jacobian of the transformation of a point with respect to the transformation
+     * <p>
+     * [R, -R * wedge(p)] with the rotation columns reordered to the (pitch, yaw, roll) order of the tangent elements
+     *
+     * @param point the 3x1 point in (x, y, z)
+     * @return the 3x6 jacobian
+     */
+    @Override
+    public MatReal actJacobian(Linear point) {
+        Mat3 r = SO3.rotation(this.qw, this.qx, this.qy, this.qz);
+        double[][] rot = SO3.actJacobian(r, Vec3.of(point.toVector()));
+        double[][] out = new double[3][6];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                out[i][j] = r.get(i, j);
+                out[i][3 + j] = rot[i][j];
+            }
+        }
+        return new MatReal(out);
+    }
+
+    @Override
+    public MatReal actJacobianPoint(Linear point) {
+        return SO3.rotation(this.qw, this.qx, this.qy, this.qz).toMatReal();
+    }
+
+    /**
+     * Coupling block Q of the left jacobian [[J, Q], [0, J]] in (x, y, z) axes, from "State Estimation for Robotics" by Timothy D. Barfoot
+     *
+     * @param rho position part of the tangent element
+     * @param w rotation part of the tangent element in (x, y, z) axes
+     * @param k the coefficients of the angle of w
+     * @return the 3x3 coupling block
+     */
+    private static Mat3 coupling(Vec3 rho, Vec3 w, double[] k) {
+        Mat3 W = Mat3.skew(w);
+        Mat3 P = Mat3.skew(rho);
+        Mat3 WP = W.multiply(P);
+        Mat3 PW = P.multiply(W);
+        Mat3 WPW = WP.multiply(W);
+        Mat3 WWP = W.multiply(WP);
+        Mat3 PWW = PW.multiply(W);
+        Mat3 WPWW = WPW.multiply(W);
+        Mat3 WWPW = W.multiply(WPW);
+
+        return P.multiply(0.5)
+            .add(WP.add(PW).add(WPW).multiply(k[1]))
+            .add(WWP.add(PWW).subtract(WPW.multiply(3)).multiply(k[3]))
+            .add(WPWW.add(WWPW).multiply(k[4]));
+    }
+
+    /**
+     * Forms the 6x6 block upper triangular matrix [[a, b], [0, d]]
+     *
+     * @param a top left block
+     * @param b top right block
+     * @param d bottom right block
+     * @return the 6x6 matrix
+     */
+    private static double[][] block(Mat3 a, Mat3 b, Mat3 d) {
+        double[][] out = new double[6][6];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                out[i][j] = a.get(i, j);
+                out[i][3 + j] = b.get(i, j);
+                out[3 + i][3 + j] = d.get(i, j);
+            }
+        }
+        return out;
     }
 
     @Override
     public SE3 identity() {
-        return new SE3(MatReal.identity(4));
+        return new SE3(1, 0, 0, 0, 0, 0, 0);
     }
-    
-}
\ No newline at end of file
+
+}
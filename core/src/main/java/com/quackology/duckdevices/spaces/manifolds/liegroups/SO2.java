@@ -1,25 +1,53 @@
 package com.quackology.duckdevices.spaces.manifolds.liegroups;
 
 import com.quackology.duckdevices.spaces.Linear;
+import com.quackology.duckdevices.spaces.Mat2;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.Vec2;
 
 /**
  * Special orthogonal group in 2D
+ * <p>
+ * Stored as the cosine and sine of the angle, the rotation matrix is only built when {@link #getValue()} is called
  */
 public class SO2 extends MatLieGroup<SO2, MatReal> {
-    
+
     /**
      * Factory for the SO2 lie group for creating new instances - including exp and log maps or wedge and vee maps
      */
-    public static final SO2 FACTORY = new SO2(MatReal.identity(2));
+    public static final SO2 FACTORY = new SO2(1, 0);
+
+    /**
+     * Cosine of the angle
+     */
+    private final double cos;
+
+    /**
+     * Sine of the angle
+     */
+    private final double sin;
 
     /**
      * Protected constructor for the SO2 lie group
-     * 
+     *
      * @param value value of the lie group
      */
     protected SO2(MatReal value) {
-        super(value);        
+        super(value);
+        this.cos = value.get(0, 0);
+        this.sin = value.get(1, 0);
+    }
+
+    /**
+     * Constructor for the SO2 lie group from the cosine and sine of the angle
+     *
+     * @param cos cosine of the angle
+     * @param sin sine of the angle
+     */
+    protected SO2(double cos, double sin) {
+        super(null);
+        this.cos = cos;
+        this.sin = sin;
     }
 
     @Override
@@ -29,7 +57,56 @@ public class SO2 extends MatLieGroup<SO2, MatReal> {
         }
         return new SO2(value);
     }
-    
+
+    /**
+     * Gets the rotation matrix, built on the first call
+     *
+     * @return the rotation matrix
+     */
+    @Override
+    public MatReal getValue() {
+        if (this.value == null) {
+            this.value = this.rotation().toMatReal();
+        }
+        return this.value;
+    }
+
+    /**
+     * Gets the rotation matrix as a fixed size matrix
+     *
+     * @return the 2x2 rotation matrix
+     */
+    Mat2 rotation() {
+        return new Mat2(this.cos, -this.sin, this.sin, this.cos);
+    }
+
+    /**
+     * Gets the cosine of the angle
+     *
+     * @return the cosine of the angle
+     */
+    public double getCos() {
+        return this.cos;
+    }
+
+    /**
+     * Gets the sine of the angle
+     *
+     * @return the sine of the angle
+     */
+    public double getSin() {
+        return this.sin;
+    }
+
+    /**
+     * Gets the angle
+     *
+     * @return the angle in (-pi, pi]
+     */
+    public double getAngle() {
+        return Math.atan2(this.sin, this.cos);
+    }
+
     @Override
     public MatReal vee(MatReal lieAlgebra) {
         return new MatReal(new double[][]{{lieAlgebra.get(1, 0)}});
@@ -42,7 +119,7 @@ public class SO2 extends MatLieGroup<SO2, MatReal> {
 
     /**
      * Gets the lie algebra from the wedge map on the element
-     * 
+     *
      * @param rot element to map to the lie algebra
      * @return the lie algebra from the mapping of the given element
      */
@@ -52,46 +129,126 @@ public class SO2 extends MatLieGroup<SO2, MatReal> {
 
     @Override
     public SO2 exp(Linear element) {
-        double theta = element.toVector().get(0, 0);
-        return new SO2(new MatReal(new double[][]{
-            {Math.cos(theta), -Math.sin(theta)},
-            {Math.sin(theta), Math.cos(theta)}
-        }));
+        return this.exp(element.toVector().get(0, 0));
     }
 
     /**
      * Exponential map from the tangent element to the lie group
-     * 
+     *
      * @param rot the tangent element to map with
      * @return a lie group from the mapping of the given tangent element
      */
     public SO2 exp(double rot) {
-        return SO2.FACTORY.exp(new MatReal(rot));
+        return new SO2(Math.cos(rot), Math.sin(rot));
     }
 
     @Override
     public MatReal log(SO2 lieGroup) {
-        double theta = Math.atan2(lieGroup.value.get(1, 0), lieGroup.value.get(0, 0));
-        return new MatReal(theta);
+        return new MatReal(lieGroup.getAngle());
     }
 
     @Override
     public SO2 compose(SO2 other) {
-        return new SO2(this.value.multiply(other.value));
+        return new SO2(this.cos*other.cos - this.sin*other.sin, this.sin*other.cos + this.cos*other.sin);
     }
 
     @Override
     public SO2 inverse() {
-        return new SO2(this.value.transpose());
+        return new SO2(this.cos, -this.sin);
     }
 
     @Override
     public MatReal adjoint() {
-        return MatReal.identity(2);
+        return new MatReal(1);
     }
-    
+
+    /**
+     * Gets the left jacobian of the exponential map, which is 1 since SO2 is commutative
+     *
+     * @param element the tangent element
+     * @return the 1x1 left jacobian
+     */
+    @Override
+    public MatReal leftJacobian(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public MatReal leftJacobianInverse(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public MatReal rightJacobian(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public MatReal rightJacobianInverse(Linear element) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public MatReal composeJacobian(SO2 lieGroup) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public MatReal composeJacobianOther(SO2 lieGroup) {
+        return new MatReal(1);
+    }
+
+    @Override
+    public MatReal inverseJacobian() {
+        return new MatReal(-1);
+    }
+
+    /**
+     * Rotates a set of points
+     *
+     * @param point the 2xN points, one in each column
+     * @return the rotated points
+     */
+    @Override
+    public MatReal act(Linear point) {
+        double[][] points = PointTransform.points(point, 2).get();
+        this.act(points[0], points[1], points[0], points[1]);
+        return new MatReal(points);
+    }
+
+    /**
+     * Rotates a set of points into caller provided arrays without allocating per point
+     *
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param outXs array to write the x of the rotated points into, may be xs
+     * @param outYs array to write the y of the rotated points into, may be ys
+     */
+    public void act(double[] xs, double[] ys, double[] outXs, double[] outYs) {
+        PointTransform.transform(this.cos, this.sin, 0, 0, xs, ys, outXs, outYs);
+    }
+
+    /**
+     * Gets the jacobian of the rotation of a point with respect to the rotation
+     * <p>
+     * R * wedge(1) * p
+     *
+     * @param point the 2x1 point
+     * @return the 2x1 jacobian
+     */
+    @Override
+    public MatReal actJacobian(Linear point) {
+        Vec2 p = Vec2.of(point.toVector());
+        return this.rotation().multiply(new Vec2(-p.getY(), p.getX())).toMatReal();
+    }
+
+    @Override
+    public MatReal actJacobianPoint(Linear point) {
+        return this.getValue();
+    }
+
     @Override
     public SO2 identity() {
-        return new SO2(MatReal.identity(2));
+        return new SO2(1, 0);
     }
-}
\ No newline at end of file
+}
@@ -1,32 +1,86 @@
 package com.quackology.duckdevices.spaces.manifolds.liegroups;
 
 import com.quackology.duckdevices.spaces.Linear;
+import com.quackology.duckdevices.spaces.Mat3;
 import com.quackology.duckdevices.spaces.MatReal;
+import com.quackology.duckdevices.spaces.Vec3;
 
 /**
  * Special orthogonal group in 3D
+ * <p>
+ * Stored as a unit quaternion w + xi + yj + zk, every map is closed form on the quaternion and the rotation matrix is only built when {@link #getValue()} is called
+ * <p>
+ * Tangent elements are ordered (pitch, yaw, roll), the rotations about the y, z and x axes respectively
  */
 public class SO3 extends MatLieGroup<SO3, MatReal> {
-    
+
     /**
      * Factory for the SO3 lie group for creating new instances - including exp and log maps or wedge and vee maps
      */
-    public static final SO3 FACTORY = new SO3(MatReal.identity(3));
+    public static final SO3 FACTORY = new SO3(1, 0, 0, 0);
+
+    /**
+     * Angle below which the exp and log coefficients are evaluated with their taylor series
+     */
+    private static final double SMALL_ANGLE = 1e-4;
+
+    /**
+     * Axis (x = 0, y = 1, z = 2) of each tangent element in the (pitch, yaw, roll) order
+     */
+    static final int[] AXIS = {1, 2, 0};
+
+    /**
+     * Angle below which the coefficients of the jacobians and the V matrix of SE3 are evaluated with their taylor series
+     * <p>
+     * Larger than SMALL_ANGLE since the coefficients divide by up to theta^5
+     */
+    static final double SERIES_ANGLE = 1e-2;
+
+    /**
+     * Scalar part of the quaternion
+     */
+    private final double qw;
+
+    /**
+     * Vector part of the quaternion
+     */
+    private final double qx, qy, qz;
 
     /**
      * Protected constructor for the SO3 lie group
-     * 
+     *
      * @param value value of the lie group
      */
     protected SO3(MatReal value) {
         super(value);
+        double[] q = quaternion(value);
+        this.qw = q[0];
+        this.qx = q[1];
+        this.qy = q[2];
+        this.qz = q[3];
+    }
+
+    /**
+     * Constructor for the SO3 lie group from a unit quaternion
+     *
+     * @param w scalar part of the quaternion
+     * @param x i part of the quaternion
+     * @param y j part of the quaternion
+     * @param z k part of the quaternion
+     */
+    protected SO3(double w, double x, double y, double z) {
+        super(null);
+        this.qw = w;
+        this.qx = x;
+        this.qy = y;
+        this.qz = z;
     }
 
     /**
      * Makes a new Manifold with the same structure but the given value
      * <p>
      * TODO: Implement constraints and conditions for lie group SO3
-     * 
+     *
      * @param value value of the element in the manifold
      * @return a new Manifold with the same structure but the given value
      */
@@ -34,7 +88,239 @@ public class SO3 extends MatLieGroup<SO3, MatReal> {
     public SO3 make(MatReal value) {
         return new SO3(value);
     }
-    
+
+    /**
+     * Makes a new SO3 lie group from a quaternion, normalized to unit length
+     *
+     * @param w scalar part of the quaternion
+     * @param x i part of the quaternion
+     * @param y j part of the quaternion
+     * @param z k part of the quaternion
+     * @return a new SO3 lie group of the rotation of the quaternion
+     */
+    public SO3 make(double w, double x, double y, double z) {
+        double norm = Math.sqrt(w*w + x*x + y*y + z*z);
+        if (norm == 0) {
+            throw new IllegalArgumentException("Quaternion must not be zero");
+        }
+        return new SO3(w/norm, x/norm, y/norm, z/norm);
+    }
+
+    /**
+     * Gets the rotation matrix, built on the first call
+     *
+     * @return the rotation matrix
+     */
+    @Override
+    public MatReal getValue() {
+        if (this.value == null) {
+            this.value = rotation(this.qw, this.qx, this.qy, this.qz).toMatReal();
+        }
+        return this.value;
+    }
+
+    /**
+     * Gets the scalar part of the quaternion
+     *
+     * @return the scalar part of the quaternion
+     */
+    public double getW() {
+        return this.qw;
+    }
+
+    /**
+     * Gets the i part of the quaternion
+     *
+     * @return the i part of the quaternion
+     */
+    public double getX() {
+        return this.qx;
+    }
+
+    /**
+     * Gets the j part of the quaternion
+     *
+     * @return the j part of the quaternion
+     */
+    public double getY() {
+        return this.qy;
+    }
+
+    /**
+     * Gets the k part of the quaternion
+     *
+     * @return the k part of the quaternion
+     */
+    public double getZ() {
+        return this.qz;
+    }
+
+    /**
+     * Converts the top left 3x3 rotation block of a matrix to a unit quaternion
+     * <p>
+     * Branches on the largest of w, x, y, z so the division is well conditioned
+     *
+     * @param value matrix with a rotation in its top left 3x3 block
+     * @return the quaternion {w, x, y, z}
+     */
+    static double[] quaternion(MatReal value) {
+        double m00 = value.get(0, 0), m01 = value.get(0, 1), m02 = value.get(0, 2);
+        double m10 = value.get(1, 0), m11 = value.get(1, 1), m12 = value.get(1, 2);
+        double m20 = value.get(2, 0), m21 = value.get(2, 1), m22 = value.get(2, 2);
+
+        double trace = m00 + m11 + m22;
+        double w, x, y, z;
+        if (trace > 0) {
+            double s = 2*Math.sqrt(trace + 1);
+            w = s/4;
+            x = (m21 - m12)/s;
+            y = (m02 - m20)/s;
+            z = (m10 - m01)/s;
+        } else if (m00 > m11 && m00 > m22) {
+            double s = 2*Math.sqrt(1 + m00 - m11 - m22);
+            w = (m21 - m12)/s;
+            x = s/4;
+            y = (m01 + m10)/s;
+            z = (m02 + m20)/s;
+        } else if (m11 > m22) {
+            double s = 2*Math.sqrt(1 + m11 - m00 - m22);
+            w = (m02 - m20)/s;
+            x = (m01 + m10)/s;
+            y = s/4;
+            z = (m12 + m21)/s;
+        } else {
+            double s = 2*Math.sqrt(1 + m22 - m00 - m11);
+            w = (m10 - m01)/s;
+            x = (m02 + m20)/s;
+            y = (m12 + m21)/s;
+            z = s/4;
+        }
+        double norm = Math.sqrt(w*w + x*x + y*y + z*z);
+        return new double[] {w/norm, x/norm, y/norm, z/norm};
+    }
+
+    /**
+     * Converts a unit quaternion to a rotation matrix
+     *
+     * @param w scalar part of the quaternion
+     * @param x i part of the quaternion
+     * @param y j part of the quaternion
+     * @param z k part of the quaternion
+     * @return the rotation matrix
+     */
+    static Mat3 rotation(double w, double x, double y, double z) {
+        double xx = x*x, yy = y*y, zz = z*z;
+        double xy = x*y, xz = x*z, yz = y*z;
+        double wx = w*x, wy = w*y, wz = w*z;
+        return new Mat3(
+            1 - 2*(yy + zz), 2*(xy - wz), 2*(xz + wy),
+            2*(xy + wz), 1 - 2*(xx + zz), 2*(yz - wx),
+            2*(xz - wy), 2*(yz + wx), 1 - 2*(xx + yy)
+        );
+    }
+
+    /**
+     * Rotates a vector by a unit quaternion
+     * <p>
+     * v' = v + 2w(u x v) + 2u x (u x v) where u is the vector part of the quaternion
+     *
+     * @param w scalar part of the quaternion
+     * @param x i part of the quaternion
+     * @param y j part of the quaternion
+     * @param z k part of the quaternion
+     * @param vx x of the vector
+     * @param vy y of the vector
+     * @param vz z of the vector
+     * @param out the array to write the rotated vector into
+     * @param offset index of the x of the rotated vector in out
+     */
+    static void rotate(double w, double x, double y, double z, double vx, double vy, double vz, double[] out, int offset) {
+        double tx = 2*(y*vz - z*vy);
+        double ty = 2*(z*vx - x*vz);
+        double tz = 2*(x*vy - y*vx);
+        out[offset] = vx + w*tx + y*tz - z*ty;
+        out[offset + 1] = vy + w*ty + z*tx - x*tz;
+        out[offset + 2] = vz + w*tz + x*ty - y*tx;
+    }
+
+    /**
+     * Coefficients of the powers of the wedge of the rotation in the V matrix, its inverse and the jacobians
+     * <p>
+     * a = (1-cos)/theta^2, b = (theta-sin)/theta^3, c = (1 - theta*sin/(2(1-cos)))/theta^2,
+     * d = (theta^2 + 2cos - 2)/(2theta^4), e = (2theta - 3sin + theta*cos)/(2theta^5)
+     *
+     * @param theta angle of the rotation
+     * @return the coefficients {a, b, c, d, e}
+     */
+    static double[] coefficients(double theta) {
+        double theta2 = theta*theta;
+        if (theta <= SERIES_ANGLE) {
+            return new double[] {
+                0.5 - theta2/24 + theta2*theta2/720,
+                1.0/6 - theta2/120 + theta2*theta2/5040,
+                1.0/12 + theta2/720 + theta2*theta2/30240,
+                1.0/24 - theta2/720,
+                1.0/120 - theta2/2520
+            };
+        }
+        double sin = Math.sin(theta);
+        double cos = Math.cos(theta);
+        return new double[] {
+            (1 - cos)/theta2,
+            (theta - sin)/(theta2*theta),
+            (1 - theta*sin/(2*(1 - cos)))/theta2,
+            (theta2 + 2*cos - 2)/(2*theta2*theta2),
+            (2*theta - 3*sin + theta*cos)/(2*theta2*theta2*theta)
+        };
+    }
+
+    /**
+     * Gets the rotation vector in (x, y, z) axes of a tangent element
+     *
+     * @param tangent the tangent element with (pitch, yaw, roll) starting at the given row
+     * @param row row of the pitch in the tangent element
+     * @return the rotation vector (roll, pitch, yaw)
+     */
+    static Vec3 axes(MatReal tangent, int row) {
+        return new Vec3(tangent.get(row + 2, 0), tangent.get(row, 0), tangent.get(row + 1, 0));
+    }
+
+    /**
+     * a * I + b * wedge(w) + c * wedge(w)^2 in (x, y, z) axes
+     *
+     * @param w rotation vector in (x, y, z) axes
+     * @param a coefficient of I
+     * @param b coefficient of wedge(w)
+     * @param c coefficient of wedge(w)^2
+     * @return the 3x3 matrix
+     */
+    static Mat3 series(Vec3 w, double a, double b, double c) {
+        Mat3 W = Mat3.skew(w);
+        return Mat3.IDENTITY.multiply(a).add(W.multiply(b)).add(W.multiply(W).multiply(c));
+    }
+
+    /**
+     * Reorders the rotation rows and columns of a square matrix in (x, y, z) axes to the (pitch, yaw, roll) order of the tangent elements
+     *
+     * @param m square matrix with rotation rows and columns in (x, y, z) axes
+     * @param rotation index of the first rotation row and column, the rows and columns before it are kept in place
+     * @return the reordered matrix
+     */
+    static double[][] reorder(double[][] m, int rotation) {
+        int n = m.length;
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i < rotation ? i : rotation + AXIS[i - rotation];
+        }
+        double[][] out = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                out[i][j] = m[index[i]][index[j]];
+            }
+        }
+        return out;
+    }
+
     @Override
     public MatReal vee(MatReal lieAlgebra) {
         return new MatReal(new double[][] {
@@ -58,7 +344,7 @@ public class SO3 extends MatLieGroup<SO3, MatReal> {
 
     /**
      * Gets the lie algebra from the wedge map on the element
-     * 
+     *
      * @param pitch pitch part of element to map to the lie algebra
      * @param yaw yaw part of element to map to the lie algebra
      * @param roll roll part of element to map to the lie algebra
@@ -70,78 +356,258 @@ public class SO3 extends MatLieGroup<SO3, MatReal> {
 
     @Override
     public SO3 exp(Linear element) {
-        double pitch = element.toVector().get(0, 0);
-        double yaw = element.toVector().get(1, 0);
-        double roll = element.toVector().get(2, 0);
-        double theta = Math.sqrt(pitch*pitch + yaw*yaw + roll*roll);
-
-        if (theta <= 1e-4) {
-            return new SO3(MatReal.identity(3));
-        }
-
-        return new SO3(MatReal.identity(3).add(SO3.FACTORY.wedge(pitch, yaw, roll)).multiply(Math.sin(theta)/theta).add(SO3.FACTORY.wedge(pitch, yaw, roll).multiply(SO3.FACTORY.wedge(pitch, yaw, roll)).multiply((1-Math.cos(theta))/(theta*theta))));
+        MatReal tangent = element.toVector();
+        return this.exp(tangent.get(0, 0), tangent.get(1, 0), tangent.get(2, 0));
     }
 
     /**
      * Exponential map from the tangent element to the lie group
-     * 
+     *
      * @param pitch the pitch part of the tangent element to map with
      * @param yaw the yaw part of the tangent element to map with
      * @param roll the roll part of the tangent element to map with
      * @return a lie group from the mapping of the given tangent element
      */
     public SO3 exp(double pitch, double yaw, double roll) {
-        double theta = Math.sqrt(pitch*pitch + yaw*yaw + roll*roll);
+        double theta2 = pitch*pitch + yaw*yaw + roll*roll;
+        double theta = Math.sqrt(theta2);
 
-        if (theta <= 1e-4) {
-            return new SO3(MatReal.identity(3));
+        //sin(theta/2)/theta
+        double k;
+        double w;
+        if (theta <= SMALL_ANGLE) {
+            k = 0.5 - theta2/48;
+            w = 1 - theta2/8;
+        } else {
+            k = Math.sin(theta/2)/theta;
+            w = Math.cos(theta/2);
         }
-
-        return new SO3(MatReal.identity(3).add(SO3.FACTORY.wedge(pitch, yaw, roll).multiply(Math.sin(theta)/theta)).add(SO3.FACTORY.wedge(pitch, yaw, roll).multiply(SO3.FACTORY.wedge(pitch, yaw, roll)).multiply((1-Math.cos(theta))/(theta*theta))));
-
+        return new SO3(w, k*roll, k*pitch, k*yaw);
     }
 
     /**
      * Exponential map from the tangent element to the lie group
-     * 
+     *
      * @param theta the angle of the rotation around the axis to map with
-     * @param element the axis of the rotation to map with
+     * @param element the unit axis of the rotation to map with
      * @return a lie group from the mapping of the given tangent element
      */
     public SO3 exp(double theta, MatReal element) {
-        MatReal axis = SO3.FACTORY.wedge(element);
-
-        return new SO3(MatReal.identity(3).add(axis.multiply(Math.sin(theta)).add(axis.multiply(axis).multiply(1-Math.cos(theta)))));
+        double s = Math.sin(theta/2);
+        return new SO3(Math.cos(theta/2), s*element.get(2, 0), s*element.get(0, 0), s*element.get(1, 0));
     }
 
     @Override
     public MatReal log(SO3 lieGroup) {
-        double theta = Math.acos((lieGroup.value.trace()-1)/2);
+        double[] tangent = lieGroup.log();
+        return new MatReal(new double[][] {{tangent[0]}, {tangent[1]}, {tangent[2]}});
+    }
 
-            if (theta == 0) {
-                return MatReal.empty(3, 1);
-            }
+    /**
+     * Logarithm map of this rotation
+     * <p>
+     * Uses atan2 of the vector and scalar parts of the quaternion, which stays accurate near the identity
+     *
+     * @return the tangent element {pitch, yaw, roll}
+     */
+    public double[] log() {
+        //q and -q are the same rotation, the one with a positive scalar part has the angle in [0, pi]
+        double sign = this.qw < 0 ? -1 : 1;
+        double w = sign*this.qw;
+        double n = Math.sqrt(this.qx*this.qx + this.qy*this.qy + this.qz*this.qz);
+
+        //theta/sin(theta/2)
+        double k;
+        if (n <= SMALL_ANGLE*w) {
+            k = 2/w*(1 - n*n/(3*w*w));
+        } else {
+            k = 2*Math.atan2(n, w)/n;
+        }
+        k *= sign;
+        return new double[] {k*this.qy, k*this.qz, k*this.qx};
+    }
 
-            return vee(lieGroup.value.subtract(lieGroup.value.transpose()).multiply(theta/(2*Math.sin(theta))));
+    /**
+     * Gets the angle of the rotation around its axis
+     *
+     * @return the angle in [0, pi]
+     */
+    public double getAngle() {
+        return 2*Math.atan2(Math.sqrt(this.qx*this.qx + this.qy*this.qy + this.qz*this.qz), Math.abs(this.qw));
     }
 
     @Override
     public SO3 compose(SO3 other) {
-        return new SO3(this.value.multiply(other.value));
+        return new SO3(
+            this.qw*other.qw - this.qx*other.qx - this.qy*other.qy - this.qz*other.qz,
+            this.qw*other.qx + this.qx*other.qw + this.qy*other.qz - this.qz*other.qy,
+            this.qw*other.qy - this.qx*other.qz + this.qy*other.qw + this.qz*other.qx,
+            this.qw*other.qz + this.qx*other.qy - this.qy*other.qx + this.qz*other.qw
+        );
+    }
+
+    /**
+     * Rotates a vector
+     *
+     * @param vector the vector {x, y, z} to rotate
+     * @param out the array to write the rotated vector into, may be the same as vector
+     * @return out
+     */
+    public double[] rotate(double[] vector, double[] out) {
+        rotate(this.qw, this.qx, this.qy, this.qz, vector[0], vector[1], vector[2], out, 0);
+        return out;
+    }
+
+    /**
+     * Rotates a vector
+     *
+     * @param vector the 3x1 vector to rotate
+     * @return the rotated vector
+     */
+    public MatReal rotate(MatReal vector) {
+        double[] out = this.rotate(new double[] {vector.get(0, 0), vector.get(1, 0), vector.get(2, 0)}, new double[3]);
+        return new MatReal(new double[][] {{out[0]}, {out[1]}, {out[2]}});
     }
 
     @Override
     public SO3 inverse() {
-        return new SO3(this.value.transpose());
+        return new SO3(this.qw, -this.qx, -this.qy, -this.qz);
     }
 
+    /**
+     * Gets the adjoint of the lie group
+     * <p>
+     * The rotation matrix with its rows and columns reordered to the (pitch, yaw, roll) order of the tangent elements
+     *
+     * @return the adjoint of the lie group
+     */
     @Override
     public MatReal adjoint() {
-        return this.value;
+        return new MatReal(reorder(rotation(this.qw, this.qx, this.qy, this.qz).get(), 0));
+    }
+
+    /**
+     * Gets the left jacobian of the exponential map
+     * <p>
+     * I + a * wedge(x) + b * wedge(x)^2 with a = (1-cos)/theta^2 and b = (theta-sin)/theta^3
+     *
+     * @param element the tangent element (pitch, yaw, roll)
+     * @return the 3x3 left jacobian
+     */
+    @Override
+    public MatReal leftJacobian(Linear element) {
+        Vec3 w = axes(element.toVector(), 0);
+        double[] k = coefficients(w.magnitude());
+        return new MatReal(reorder(series(w, 1, k[0], k[1]).get(), 0));
+    }
+
+    /**
+     * Gets the inverse of the left jacobian of the exponential map
+     * <p>
+     * I - wedge(x)/2 + c * wedge(x)^2 with c = (1 - theta*sin/(2(1-cos)))/theta^2
+     *
+     * @param element the tangent element (pitch, yaw, roll)
+     * @return the 3x3 inverse of the left jacobian
+     */
+    @Override
+    public MatReal leftJacobianInverse(Linear element) {
+        Vec3 w = axes(element.toVector(), 0);
+        double[] k = coefficients(w.magnitude());
+        return new MatReal(reorder(series(w, 1, -0.5, k[2]).get(), 0));
+    }
+
+    @Override
+    public MatReal rightJacobian(Linear element) {
+        return this.leftJacobian(element.toVector().multiply(-1));
+    }
+
+    @Override
+    public MatReal rightJacobianInverse(Linear element) {
+        return this.leftJacobianInverse(element.toVector().multiply(-1));
+    }
+
+    @Override
+    public MatReal composeJacobian(SO3 lieGroup) {
+        return lieGroup.inverse().adjoint();
+    }
+
+    @Override
+    public MatReal composeJacobianOther(SO3 lieGroup) {
+        return MatReal.identity(3);
+    }
+
+    @Override
+    public MatReal inverseJacobian() {
+        return this.adjoint().multiply(-1);
+    }
+
+    /**
+     * Rotates a set of points
+     *
+     * @param point the 3xN points in (x, y, z), one in each column
+     * @return the rotated points
+     */
+    @Override
+    public MatReal act(Linear point) {
+        double[][] points = PointTransform.points(point, 3).get();
+        this.act(points[0], points[1], points[2], points[0], points[1], points[2]);
+        return new MatReal(points);
     }
-    
+
+    /**
+     * Rotates a set of points into caller provided arrays without allocating per point
+     * <p>
+     * Builds the rotation matrix once, which is cheaper per point than rotating by the quaternion
+     *
+     * @param xs x of the points
+     * @param ys y of the points
+     * @param zs z of the points
+     * @param outXs array to write the x of the rotated points into, may be xs
+     * @param outYs array to write the y of the rotated points into, may be ys
+     * @param outZs array to write the z of the rotated points into, may be zs
+     */
+    public void act(double[] xs, double[] ys, double[] zs, double[] outXs, double[] outYs, double[] outZs) {
+        PointTransform.transform(this.qw, this.qx, this.qy, this.qz, 0, 0, 0, xs, ys, zs, outXs, outYs, outZs);
+    }
+
+    /**
+     * Gets the jacobian of the rotation of a point with respect to the rotation
+     * <p>
+     * -R * wedge(p) with the columns reordered to the (pitch, yaw, roll) order of the tangent elements
+     *
+     * @param point the 3x1 point in (x, y, z)
+     * @return the 3x3 jacobian
+     */
+    @Override
+    public MatReal actJacobian(Linear point) {
+        return new MatReal(actJacobian(rotation(this.qw, this.qx, this.qy, this.qz), Vec3.of(point.toVector())));
+    }
+
+    /**
+     * -R * wedge(p) with the columns reordered to the (pitch, yaw, roll) order of the tangent elements
+     *
+     * @param r rotation matrix
+     * @param p the point in (x, y, z)
+     * @return the 3x3 jacobian
+     */
+    static double[][] actJacobian(Mat3 r, Vec3 p) {
+        double[][] jacobian = r.multiply(Mat3.skew(p)).multiply(-1).get();
+        double[][] out = new double[3][3];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                out[i][j] = jacobian[i][AXIS[j]];
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public MatReal actJacobianPoint(Linear point) {
+        return this.getValue();
+    }
+
     @Override
     public SO3 identity() {
-        return new SO3(MatReal.identity(3));
+        return new SO3(1, 0, 0, 0);
     }
-}
\ No newline at end of file
+}
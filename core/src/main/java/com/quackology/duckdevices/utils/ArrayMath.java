@@ -0,0 +1,269 @@
+package com.quackology.duckdevices.utils;
+
+import java.util.Arrays;
+
+import org.ojalgo.structure.Access1D;
+
+/**
+ * Element-wise and reduction kernels on arrays of doubles
+ * <p>
+ * Loops are written as plain counted loops over arrays so the JIT compiler can turn them into SIMD instructions at the full vector width of the hardware
+ * <p>
+ * Reductions keep four independent partial sums so consecutive additions do not wait on each other, the result may differ from a sequential sum in the last bits
+ */
+public class ArrayMath {
+
+    /**
+     * Dot product of two arrays
+     *
+     * @param a first array
+     * @param b second array with the length of a
+     * @return sum_i a_i * b_i
+     */
+    public static double dot(double[] a, double[] b) {
+        checkLength(a.length, b.length);
+        return dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Dot product of two ranges of arrays
+     *
+     * @param a first array
+     * @param aOffset index of the first element of a
+     * @param b second array
+     * @param bOffset index of the first element of b
+     * @param length number of elements
+     * @return sum_i a_(aOffset + i) * b_(bOffset + i)
+     */
+    public static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Dot product of two OjAlgo structures read element by element
+     *
+     * @param a first structure
+     * @param b second structure with the size of a
+     * @return sum_i a_i * b_i
+     */
+    public static double dot(Access1D<?> a, Access1D<?> b) {
+        int length = Math.toIntExact(a.count());
+        checkLength(length, Math.toIntExact(b.count()));
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a.doubleValue(i) * b.doubleValue(i);
+            s1 += a.doubleValue(i + 1) * b.doubleValue(i + 1);
+            s2 += a.doubleValue(i + 2) * b.doubleValue(i + 2);
+            s3 += a.doubleValue(i + 3) * b.doubleValue(i + 3);
+        }
+        for (; i < length; i++) {
+            s0 += a.doubleValue(i) * b.doubleValue(i);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Euclidean norm of an array
+     *
+     * @param a array
+     * @return sqrt(sum_i a_i^2)
+     */
+    public static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    /**
+     * Euclidean norm of an OjAlgo structure read element by element
+     *
+     * @param a structure
+     * @return sqrt(sum_i a_i^2)
+     */
+    public static double norm(Access1D<?> a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    /**
+     * Adds a scaled array to another array in place
+     * <p>
+     * y = y + alpha * x
+     *
+     * @param alpha scalar to multiply x by
+     * @param x array to add
+     * @param y array to add to, overwritten
+     */
+    public static void axpy(double alpha, double[] x, double[] y) {
+        checkLength(x.length, y.length);
+        axpy(alpha, x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Adds a scaled range of an array to a range of another array in place
+     * <p>
+     * y_(yOffset + i) = y_(yOffset + i) + alpha * x_(xOffset + i)
+     *
+     * @param alpha scalar to multiply x by
+     * @param x array to add
+     * @param xOffset index of the first element of x
+     * @param y array to add to, overwritten
+     * @param yOffset index of the first element of y
+     * @param length number of elements
+     */
+    public static void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Multiplies an array by a scalar in place
+     *
+     * @param alpha scalar to multiply by
+     * @param x array to scale, overwritten
+     */
+    public static void scale(double alpha, double[] x) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] *= alpha;
+        }
+    }
+
+    /**
+     * Adds two arrays element by element
+     * <p>
+     * out may be a or b
+     *
+     * @param a first array
+     * @param b second array
+     * @param out array to write a + b into
+     */
+    public static void add(double[] a, double[] b, double[] out) {
+        checkLength(a.length, b.length);
+        checkLength(a.length, out.length);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Subtracts two arrays element by element
+     * <p>
+     * out may be a or b
+     *
+     * @param a first array
+     * @param b second array
+     * @param out array to write a - b into
+     */
+    public static void subtract(double[] a, double[] b, double[] out) {
+        checkLength(a.length, b.length);
+        checkLength(a.length, out.length);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * Multiplies two arrays element by element
+     * <p>
+     * out may be a or b
+     *
+     * @param a first array
+     * @param b second array
+     * @param out array to write the element-wise product into
+     */
+    public static void multiply(double[] a, double[] b, double[] out) {
+        checkLength(a.length, b.length);
+        checkLength(a.length, out.length);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * Weighted sum of arrays
+     * <p>
+     * out = sum_i w_i * x_i
+     *
+     * @param x arrays of the same length
+     * @param weights weight w_i of each array
+     * @param out array to write the weighted sum into, must not be one of x
+     */
+    public static void weightedSum(double[][] x, double[] weights, double[] out) {
+        checkLength(x.length, weights.length);
+        Arrays.fill(out, 0);
+        for (int i = 0; i < x.length; i++) {
+            axpy(weights[i], x[i], out);
+        }
+    }
+
+    /**
+     * Multiplies two arrays of complex numbers element by element
+     * <p>
+     * Complex numbers are interleaved, element 2k is the real part and 2k+1 the imaginary part of the k-th number
+     * <p>
+     * out may be a or b
+     *
+     * @param a first array of interleaved complex numbers
+     * @param b second array of interleaved complex numbers
+     * @param out array to write the element-wise product into
+     */
+    public static void complexMultiply(double[] a, double[] b, double[] out) {
+        checkLength(a.length, b.length);
+        checkLength(a.length, out.length);
+        complexMultiply(a, 0, b, 0, out, 0, out.length / 2);
+    }
+
+    /**
+     * Multiplies two ranges of arrays of complex numbers element by element
+     * <p>
+     * Complex numbers are interleaved, see complexMultiply(double[], double[], double[])
+     * <p>
+     * The range of out may be the range of a or b
+     *
+     * @param a first array of interleaved complex numbers
+     * @param aOffset index of the real part of the first number of a
+     * @param b second array of interleaved complex numbers
+     * @param bOffset index of the real part of the first number of b
+     * @param out array to write the element-wise product into
+     * @param outOffset index of the real part of the first number of out
+     * @param length number of complex numbers
+     */
+    public static void complexMultiply(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        for (int k = 0; k < 2 * length; k += 2) {
+            double ar = a[aOffset + k];
+            double ai = a[aOffset + k + 1];
+            double br = b[bOffset + k];
+            double bi = b[bOffset + k + 1];
+            out[outOffset + k] = ar * br - ai * bi;
+            out[outOffset + k + 1] = ar * bi + ai * br;
+        }
+    }
+
+    /**
+     * Checks that two lengths match
+     *
+     * @param a first length
+     * @param b second length
+     */
+    private static void checkLength(int a, int b) {
+        if (a != b) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.quackology.duckdevices.utils;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.jtransforms.fft.DoubleFFT_1D;
 
 import com.quackology.duckdevices.spaces.Complex;
+import com.quackology.duckdevices.spaces.ComplexArray;
 import com.quackology.duckdevices.utils.cern.jet.math.Bessel;
 
 /**
@@ -183,10 +188,44 @@ public class Utils {
         return ifft(padded);
     }
 
+	/**
+	 * Maximum number of transformers kept in the transformer table
+	 */
+	private static final int TRANSFORMER_CACHE_SIZE = 64;
+
 	/**
 	 * Map of transformers for faster computation but higher memory usage
+	 * <p>
+	 * Least recently used transformers are evicted past {@link #TRANSFORMER_CACHE_SIZE} lengths so the memory stays bounded,
+	 * synchronized since the ComplexArray transforms and convolutions may be called from several threads
 	 */
-	private static HashMap<Integer, DoubleFFT_1D> transformerTable = new HashMap<Integer, DoubleFFT_1D>();
+	private static final Map<Integer, DoubleFFT_1D> transformerTable = Collections.synchronizedMap(new LinkedHashMap<Integer, DoubleFFT_1D>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, DoubleFFT_1D> eldest) {
+			return this.size() > TRANSFORMER_CACHE_SIZE;
+		}
+	});
+
+	/**
+	 * Gets the cached transformer of the given length or a new one if none is cached
+	 *
+	 * @param length the length of the transform
+	 * @return a transformer of the given length
+	 */
+	private static DoubleFFT_1D transformer(int length) {
+		DoubleFFT_1D transformer = transformerTable.get(length);
+		return transformer == null ? new DoubleFFT_1D(length) : transformer;
+	}
+
+	/**
+	 * Gets the cached transformer of the given length, caching a new one if none is cached
+	 *
+	 * @param length the length of the transform
+	 * @return the cached transformer of the given length
+	 */
+	private static DoubleFFT_1D cachedTransformer(int length) {
+		return transformerTable.computeIfAbsent(length, DoubleFFT_1D::new);
+	}
 
     /**
      * Fast (Discrete) Fourier Transform
@@ -310,19 +349,25 @@ public class Utils {
      * @return the resulting array of real numbers after convolution truncated to length
      */
     public static double[] convolve(double[] a, double[] b, int length) {
-        Complex[] complexA = new Complex[a.length];
-        Complex[] complexB = new Complex[b.length];
-        for (int i = 0; i < a.length; i++) {
-            complexA[i] = new Complex(a[i], 0);
-        }
-        for (int i = 0; i < b.length; i++) {
-            complexB[i] = new Complex(b[i], 0);
+        if (0 >= length || length > a.length + b.length - 1) {
+            throw new IllegalArgumentException("Length must be between 0 and a.length + b.length - 1");
         }
+        int size = a.length + b.length - 1;
+        DoubleFFT_1D transformer = transformer(size);
+
+        double[] fftA = new double[size*2];
+        double[] fftB = new double[size*2];
+        System.arraycopy(a, 0, fftA, 0, a.length);
+        System.arraycopy(b, 0, fftB, 0, b.length);
+        transformer.realForwardFull(fftA);
+        transformer.realForwardFull(fftB);
+
+        ArrayMath.complexMultiply(fftA, fftB, fftA);
+        transformer.complexInverse(fftA, true);
 
-        Complex[] result = convolve(complexA, complexB, length);
         double[] out = new double[length];
         for (int i = 0; i < length; i++) {
-            out[i] = result[i].getReal();
+            out[i] = fftA[i*2];
         }
         return out;
     }
@@ -428,6 +473,194 @@ public class Utils {
         return ifft(out);
     }
 
+    /**
+     * Per thread workspace of the convolutions of ComplexArray, grown as needed and reused between calls
+     */
+    private static final ThreadLocal<double[]> convolutionWorkspace = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * Gets the workspace of the current thread with at least the given length
+     *
+     * @param length the minimum length of the workspace
+     * @return the workspace of the current thread
+     */
+    private static double[] workspace(int length) {
+        double[] workspace = convolutionWorkspace.get();
+        if (workspace.length < length) {
+            workspace = new double[length];
+            convolutionWorkspace.set(workspace);
+        }
+        return workspace;
+    }
+
+    /**
+     * Fast (Discrete) Fourier Transform in place
+     * <p>
+     * Computed through JTransforms library
+     *
+     * @param values an array of complex numbers, overwritten by the transformed values
+     * @return values
+     */
+    public static ComplexArray fftInPlace(ComplexArray values) {
+        cachedTransformer(values.length()).complexForward(values.array(), values.offset());
+        return values;
+    }
+
+    /**
+     * Inverse Fast (Discrete) Fourier Transform in place
+     * <p>
+     * Computed through JTransforms library
+     * <p>
+     * Scaled
+     *
+     * @param values an array of complex numbers, overwritten by the transformed values
+     * @return values
+     */
+    public static ComplexArray ifftInPlace(ComplexArray values) {
+        cachedTransformer(values.length()).complexInverse(values.array(), values.offset(), true);
+        return values;
+    }
+
+    /**
+     * Fast (Discrete) Fourier Transform
+     * <p>
+     * Computed through JTransforms library
+     *
+     * @param values an array of complex numbers to transform
+     * @return a new array of complex numbers containing the transformed values
+     */
+    public static ComplexArray fft(ComplexArray values) {
+        return fftInPlace(values.copy());
+    }
+
+    /**
+     * Inverse Fast (Discrete) Fourier Transform
+     * <p>
+     * Computed through JTransforms library
+     * <p>
+     * Scaled
+     *
+     * @param values an array of complex numbers to transform
+     * @return a new array of complex numbers containing the transformed values
+     */
+    public static ComplexArray ifft(ComplexArray values) {
+        return ifftInPlace(values.copy());
+    }
+
+    /**
+     * Fast (Discrete) Fourier Transform of real numbers into an existing array
+     * <p>
+     * Computed through JTransforms library
+     *
+     * @param values an array of real numbers to transform
+     * @param out an array of complex numbers of the same length to write the transformed values into
+     * @return out
+     */
+    public static ComplexArray fft(double[] values, ComplexArray out) {
+        if (values.length != out.length()) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        System.arraycopy(values, 0, out.array(), out.offset(), values.length);
+        cachedTransformer(values.length).realForwardFull(out.array(), out.offset());
+        return out;
+    }
+
+    /**
+     * Convolution of two arrays through 0-padding and Convolution Theorem into an existing array
+     * <p>
+     * f * g = IFFT(FFT(f) x FFT(g)) such that FFT(f) and FFT(g) are of length f.length + g.length - 1 rounded up to a power of 2
+     * <p>
+     * The padded transforms are computed in a per thread workspace with a cached transformer of the power of 2 length, so repeated calls do not allocate
+     *
+     * @param a first array of complex numbers to be convolved
+     * @param b second array of complex numbers to be convolved
+     * @param out the array to write the convolution truncated to its length into, 0 &lt; out.length &lt;= a.length + b.length - 1
+     * @return out
+     */
+    public static ComplexArray convolve(ComplexArray a, ComplexArray b, ComplexArray out) {
+        if (0 >= out.length() || out.length() > a.length() + b.length() - 1) {
+            throw new IllegalArgumentException("Length must be between 0 and a.length + b.length - 1");
+        }
+        int size = Integer.highestOneBit(a.length() + b.length() - 1);
+        if (size < a.length() + b.length() - 1) {
+            size <<= 1;
+        }
+        DoubleFFT_1D transformer = cachedTransformer(size);
+
+        double[] workspace = workspace(4 * size);
+        Arrays.fill(workspace, 0, 4 * size, 0);
+        System.arraycopy(a.array(), a.offset(), workspace, 0, 2 * a.length());
+        System.arraycopy(b.array(), b.offset(), workspace, 2 * size, 2 * b.length());
+        transformer.complexForward(workspace, 0);
+        transformer.complexForward(workspace, 2 * size);
+
+        ArrayMath.complexMultiply(workspace, 0, workspace, 2 * size, workspace, 0, size);
+        transformer.complexInverse(workspace, 0, true);
+
+        System.arraycopy(workspace, 0, out.array(), out.offset(), 2 * out.length());
+        return out;
+    }
+
+    /**
+     * Convolution of two arrays through 0-padding and Convolution Theorem
+     * <p>
+     * f * g = IFFT(FFT(f) x FFT(g)) such that FFT(f) and FFT(g) are of length f.length + g.length - 1
+     *
+     * @param a first array of complex numbers to be convolved
+     * @param b second array of complex numbers to be convolved
+     * @return a new array of complex numbers after convolution with length a.length + b.length - 1
+     */
+    public static ComplexArray convolve(ComplexArray a, ComplexArray b) {
+        return convolve(a, b, new ComplexArray(a.length() + b.length() - 1));
+    }
+
+    /**
+     * Cyclic convolution of two arrays through Circular Convolution Theorem into an existing array
+     * <p>
+     * f * g = IFFT(FFT(f) x FFT(g)) such that FFT(f) and FFT(g) are of length max(f.length, g.length)
+     * <p>
+     * The padded transforms are computed in a per thread workspace with a cached transformer, so repeated calls of the same length do not allocate here.
+     * JTransforms still allocates scratch space per call for lengths that are not products of 2, 3 and 5, which it computes with Bluestein's algorithm
+     *
+     * @param a first array of complex numbers to be convolved
+     * @param b second array of complex numbers to be convolved
+     * @param out the array of length max(a.length, b.length) to write the cyclic convolution into
+     * @return out
+     */
+    public static ComplexArray cyclicConvolve(ComplexArray a, ComplexArray b, ComplexArray out) {
+        int size = Math.max(a.length(), b.length());
+        if (out.length() != size) {
+            throw new IllegalArgumentException("Length must be max(a.length, b.length)");
+        }
+        DoubleFFT_1D transformer = cachedTransformer(size);
+
+        double[] workspace = workspace(4 * size);
+        Arrays.fill(workspace, 0, 4 * size, 0);
+        System.arraycopy(a.array(), a.offset(), workspace, 0, 2 * a.length());
+        System.arraycopy(b.array(), b.offset(), workspace, 2 * size, 2 * b.length());
+        transformer.complexForward(workspace, 0);
+        transformer.complexForward(workspace, 2 * size);
+
+        ArrayMath.complexMultiply(workspace, 0, workspace, 2 * size, workspace, 0, size);
+        transformer.complexInverse(workspace, 0, true);
+
+        System.arraycopy(workspace, 0, out.array(), out.offset(), 2 * size);
+        return out;
+    }
+
+    /**
+     * Cyclic convolution of two arrays through Circular Convolution Theorem
+     * <p>
+     * f * g = IFFT(FFT(f) x FFT(g)) such that FFT(f) and FFT(g) are of length max(f.length, g.length)
+     *
+     * @param a first array of complex numbers to be convolved
+     * @param b second array of complex numbers to be convolved
+     * @return a new array of complex numbers after cyclic convolution
+     */
+    public static ComplexArray cyclicConvolve(ComplexArray a, ComplexArray b) {
+        return cyclicConvolve(a, b, new ComplexArray(Math.max(a.length(), b.length())));
+    }
+
     /**
      * Map of factorial values for cached computation but higher memory usage
      */